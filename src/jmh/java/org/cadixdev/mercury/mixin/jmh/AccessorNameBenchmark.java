@@ -0,0 +1,67 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.jmh;
+
+import org.cadixdev.mercury.mixin.annotation.AccessorName;
+import org.cadixdev.mercury.mixin.test.RegexAccessorName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the prefix trie accessor name parser against the regular
+ * expression based parser it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorNameBenchmark {
+
+    @Param({"getEntityList", "getMAX_ENTITIES", "callTick_$md$1a2b3c$0", "isDead", "notAnAccessor"})
+    public String methodName;
+
+    private AccessorName accessor;
+
+    @Setup
+    public void setup() {
+        this.accessor = AccessorName.of("getEntityList");
+    }
+
+    @Benchmark
+    public AccessorName trie() {
+        return AccessorName.of(this.methodName);
+    }
+
+    @Benchmark
+    public String[] regex() {
+        return RegexAccessorName.of(this.methodName, true);
+    }
+
+    @Benchmark
+    public String triePrefix() {
+        return this.accessor.prefix("entityList");
+    }
+
+    @Benchmark
+    public String regexPrefix() {
+        return RegexAccessorName.prefix("get", "entityList");
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.jmh;
+
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.SourceContext;
+import org.cadixdev.mercury.SourceProcessor;
+import org.cadixdev.mercury.mixin.MixinCollector;
+import org.cadixdev.mercury.mixin.UnitBatcher;
+import org.cadixdev.mercury.mixin.test.MixinCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks collecting a {@link MixinCorpus synthetic corpus} in batches
+ * with the {@link UnitBatcher}, against all at once.
+ * <p>
+ * Alongside the time of each run, the heap in use once each batch has
+ * parsed its units is reported, as batching is meant to bound it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BatchBenchmark {
+
+    @Param({"100"})
+    public int mixins;
+
+    @Param({"32"})
+    public int members;
+
+    @Param({"50", "2147483647"})
+    public int batchSize;
+
+    private MixinCorpus corpus;
+    private Path dir;
+    private Path mixinJar;
+    private HeapProbe probe;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.corpus = MixinCorpus.create(this.mixins)
+                .injectors(4)
+                .members(this.members);
+        this.dir = Files.createTempDirectory("mercurymixin-jmh");
+        this.corpus.writeSources(this.dir.resolve("in"));
+        this.mixinJar = Paths.get(Class.forName("org.spongepowered.asm.mixin.Mixin")
+                .getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Setup(Level.Iteration)
+    public void createProbe() {
+        this.probe = new HeapProbe();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportHeap() {
+        System.out.println("Peak heap after parsing: " + (this.probe.peakHeap >> 20) + " MiB");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.walk(this.dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void collector() throws Exception {
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(this.mixinJar);
+        mercury.getProcessors().add(MixinCollector.create(this.corpus.readMappings()));
+        mercury.getProcessors().add(this.probe);
+
+        final UnitBatcher batches = UnitBatcher.create(mercury);
+        batches.setBatchSize(this.batchSize);
+        batches.process(this.dir.resolve("in"));
+    }
+
+    /**
+     * Records the heap in use once a run has parsed its units, which is
+     * before the first of them is processed.
+     */
+    private static final class HeapProbe implements SourceProcessor {
+
+        long peakHeap;
+        private boolean parsed;
+
+        @Override
+        public int getFlags() {
+            return FLAG_RESOLVE_BINDINGS;
+        }
+
+        @Override
+        public void initialize(final Mercury mercury) {
+            this.parsed = false;
+        }
+
+        @Override
+        public synchronized void process(final SourceContext context) {
+            if (!this.parsed) {
+                this.parsed = true;
+                System.gc();
+                this.peakHeap = Math.max(this.peakHeap, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+            }
+        }
+
+    }
+
+}
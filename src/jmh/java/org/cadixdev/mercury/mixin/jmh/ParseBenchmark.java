@@ -0,0 +1,79 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.jmh;
+
+import org.cadixdev.mercury.mixin.annotation.AccessorName;
+import org.cadixdev.mercury.mixin.annotation.AtData;
+import org.cadixdev.mercury.mixin.annotation.InjectTarget;
+import org.cadixdev.mercury.mixin.annotation.ParseCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks for parsing the values of mixin annotations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    public String methodTarget = "tick(Lnet/minecraft/world/World;IZ)V";
+    public String fieldTarget = "entities:Ljava/util/List;";
+    public String atTarget = "Lnet/minecraft/world/World;tick(Lnet/minecraft/world/World;IZ)V";
+    public String accessorName = "getEntityList";
+    public String constantAccessorName = "getMAX_ENTITIES";
+
+    private final ParseCache cache = ParseCache.create(ParseCache.DEFAULT_CAPACITY);
+
+    @Benchmark
+    public InjectTarget injectTargetMethod() {
+        return InjectTarget.of(this.methodTarget);
+    }
+
+    @Benchmark
+    public InjectTarget injectTargetField() {
+        return InjectTarget.of(this.fieldTarget);
+    }
+
+    @Benchmark
+    public AtData atData() {
+        return AtData.of("INVOKE", this.atTarget);
+    }
+
+    @Benchmark
+    public InjectTarget cachedInjectTargetMethod() {
+        return this.cache.target(this.methodTarget);
+    }
+
+    @Benchmark
+    public AtData cachedAtData() {
+        return this.cache.at("INVOKE", this.atTarget);
+    }
+
+    @Benchmark
+    public AccessorName accessorName() {
+        return AccessorName.of(this.accessorName);
+    }
+
+    @Benchmark
+    public AccessorName constantAccessorName() {
+        return AccessorName.of(this.constantAccessorName);
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.jmh;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.mixin.MixinRemapper;
+import org.cadixdev.mercury.mixin.cleaner.MixinCleaner;
+import org.cadixdev.mercury.mixin.test.MixinCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks a full run of the {@link MixinRemapper} and {@link MixinCleaner}
+ * over a {@link MixinCorpus synthetic corpus}.
+ * <p>
+ * The {@link #rewriter()} and {@link #literalRewriter()} benchmarks compare
+ * rewriting the mixins from bindings against from the syntax tree alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RemapBenchmark {
+
+    @Param({"10", "100"})
+    public int mixins;
+
+    @Param({"10"})
+    public int injectors;
+
+    @Param({"50", "500"})
+    public int members;
+
+    private MixinCorpus corpus;
+    private Path dir;
+    private Path mixinJar;
+    private MappingSet mappings;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.corpus = MixinCorpus.create(this.mixins)
+                .injectors(this.injectors)
+                .members(this.members);
+        this.dir = Files.createTempDirectory("mercurymixin-jmh");
+        this.corpus.writeSources(this.dir.resolve("in"));
+        this.mixinJar = Paths.get(Class.forName("org.spongepowered.asm.mixin.Mixin")
+                .getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    @Setup(Level.Invocation)
+    public void readMappings() throws IOException {
+        // The remapper adds to the mappings, so each run needs a fresh copy
+        this.mappings = this.corpus.readMappings();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (final Stream<Path> files = Files.walk(this.dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void remapper() throws Exception {
+        final Mercury mercury = this.createMercury();
+        mercury.getProcessors().add(MixinRemapper.create(this.mappings));
+        mercury.rewrite(this.dir.resolve("in"), this.dir.resolve("out"));
+    }
+
+    @Benchmark
+    public void rewriter() throws Exception {
+        final Mercury mercury = this.createMercury();
+        mercury.getProcessors().add(MixinRemapper.createRewriter(this.mappings));
+        mercury.rewrite(this.dir.resolve("in"), this.dir.resolve("out"));
+    }
+
+    @Benchmark
+    public void literalRewriter() throws Exception {
+        final Mercury mercury = this.createMercury();
+        mercury.getProcessors().add(MixinRemapper.createLiteralRewriter(this.mappings));
+        mercury.rewrite(this.dir.resolve("in"), this.dir.resolve("out"));
+    }
+
+    @Benchmark
+    public void cleaner() throws Exception {
+        final Mercury mercury = this.createMercury();
+        mercury.getProcessors().add(MixinCleaner.create());
+        mercury.rewrite(this.dir.resolve("in"), this.dir.resolve("out"));
+    }
+
+    private Mercury createMercury() {
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(this.mixinJar);
+        return mercury;
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A buffer of the mappings MercuryMixin derives for mixin members, from the
+ * mappings of their targets.
+ * <p>
+ * Derived mappings are kept in a stable order, along with the target each
+ * was derived from. Should the same member be derived two different
+ * de-obfuscation names, the conflict is reported to the
+ * {@link RemapListener listener} given when adding the mappings, and the
+ * lexicographically smallest name is applied - so the result of
+ * {@link #apply(MappingSet)} does not depend on the order mappings were
+ * added in.
+ *
+ * @since 0.1.0
+ */
+public final class DerivedMappings {
+
+    private final Map<String, ClassMappings> classes = new TreeMap<>();
+
+    /**
+     * Adds a derived field mapping.
+     *
+     * @param className The binary name of the mixin class
+     * @param signature The signature of the field in the mixin
+     * @param owner The obfuscated name of the target the mapping was derived
+     *              from
+     * @param deobfName The de-obfuscation name of the field
+     */
+    public void addFieldMapping(final String className, final FieldSignature signature, final String owner,
+                                final String deobfName) {
+        this.addFieldMapping(className, signature, owner, deobfName, RemapListener.NONE);
+    }
+
+    /**
+     * Adds a derived method mapping.
+     *
+     * @param className The binary name of the mixin class
+     * @param signature The signature of the method in the mixin
+     * @param owner The obfuscated name of the target the mapping was derived
+     *              from
+     * @param deobfName The de-obfuscation name of the method
+     */
+    public void addMethodMapping(final String className, final MethodSignature signature, final String owner,
+                                 final String deobfName) {
+        this.addMethodMapping(className, signature, owner, deobfName, RemapListener.NONE);
+    }
+
+    /**
+     * Adds all of the mappings from the given buffer to this buffer.
+     *
+     * @param other The buffer to merge
+     */
+    public void addAll(final DerivedMappings other) {
+        this.addAll(other, RemapListener.NONE);
+    }
+
+    /**
+     * Adds all of the mappings from the given buffer to this buffer,
+     * notifying the given listener of any member that is derived a name
+     * conflicting with those already in this buffer.
+     *
+     * @param other The buffer to merge
+     * @param listener The listener
+     */
+    public void addAll(final DerivedMappings other, final RemapListener listener) {
+        other.forEachField((className, signature, owner, deobfName) ->
+                this.addFieldMapping(className, signature, owner, deobfName, listener));
+        other.forEachMethod((className, signature, owner, deobfName) ->
+                this.addMethodMapping(className, signature, owner, deobfName, listener));
+    }
+
+    private void addFieldMapping(final String className, final FieldSignature signature, final String owner,
+                                 final String deobfName, final RemapListener listener) {
+        final String member = key(signature);
+        final Map<String, String> conflict;
+        synchronized (this) {
+            conflict = this.classes.computeIfAbsent(className, k -> new ClassMappings()).fields
+                    .computeIfAbsent(member, k -> new Field(signature))
+                    .add(owner, deobfName);
+        }
+        if (conflict != null) {
+            listener.mappingConflict(className, member, conflict);
+        }
+    }
+
+    private void addMethodMapping(final String className, final MethodSignature signature, final String owner,
+                                  final String deobfName, final RemapListener listener) {
+        final String member = key(signature);
+        final Map<String, String> conflict;
+        synchronized (this) {
+            conflict = this.classes.computeIfAbsent(className, k -> new ClassMappings()).methods
+                    .computeIfAbsent(member, k -> new Method(signature))
+                    .add(owner, deobfName);
+        }
+        if (conflict != null) {
+            listener.mappingConflict(className, member, conflict);
+        }
+    }
+
+    /**
+     * Applies the derived mappings to the given mapping set, in a stable
+     * order.
+     *
+     * @param mappings The mappings to apply to
+     */
+    public synchronized void apply(final MappingSet mappings) {
+        for (final Map.Entry<String, ClassMappings> entry : this.classes.entrySet()) {
+            final ClassMapping<?, ?> klass = mappings.getOrCreateClassMapping(entry.getKey());
+
+            for (final Field field : entry.getValue().fields.values()) {
+                klass.computeFieldMapping(field.signature)
+                        .orElseGet(() -> klass.createFieldMapping(field.signature))
+                        .setDeobfuscatedName(field.getDeobfName());
+            }
+            for (final Method method : entry.getValue().methods.values()) {
+                klass.getOrCreateMethodMapping(method.signature)
+                        .setDeobfuscatedName(method.getDeobfName());
+            }
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.classes.isEmpty();
+    }
+
+    public synchronized void clear() {
+        this.classes.clear();
+    }
+
+    synchronized void forEachField(final FieldConsumer consumer) {
+        this.classes.forEach((className, klass) -> klass.fields.values().forEach(field ->
+                field.names.forEach((owner, deobfName) -> consumer.accept(className, field.signature, owner, deobfName))
+        ));
+    }
+
+    synchronized void forEachMethod(final MethodConsumer consumer) {
+        this.classes.forEach((className, klass) -> klass.methods.values().forEach(method ->
+                method.names.forEach((owner, deobfName) -> consumer.accept(className, method.signature, owner, deobfName))
+        ));
+    }
+
+    private static String key(final FieldSignature signature) {
+        return signature.getType()
+                .map(type -> signature.getName() + ':' + type)
+                .orElse(signature.getName());
+    }
+
+    private static String key(final MethodSignature signature) {
+        return signature.getName() + signature.getDescriptor();
+    }
+
+    @FunctionalInterface
+    interface FieldConsumer {
+        void accept(final String className, final FieldSignature signature, final String owner, final String deobfName);
+    }
+
+    @FunctionalInterface
+    interface MethodConsumer {
+        void accept(final String className, final MethodSignature signature, final String owner, final String deobfName);
+    }
+
+    private static final class ClassMappings {
+        final Map<String, Field> fields = new TreeMap<>();
+        final Map<String, Method> methods = new TreeMap<>();
+    }
+
+    /**
+     * The de-obfuscation names derived for a single member, by the target
+     * each was derived from.
+     */
+    private abstract static class Member {
+
+        final Map<String, String> names = new TreeMap<>();
+
+        /**
+         * Adds a name derived for the member.
+         *
+         * @param owner The target the name was derived from
+         * @param deobfName The name
+         * @return The names of the member, should the name conflict with
+         *         those already derived
+         */
+        Map<String, String> add(final String owner, final String deobfName) {
+            final boolean conflict = !this.names.isEmpty() && !this.names.containsValue(deobfName);
+            this.names.merge(owner, deobfName, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            return conflict ? Collections.unmodifiableMap(new TreeMap<>(this.names)) : null;
+        }
+
+        String getDeobfName() {
+            return Collections.min(this.names.values());
+        }
+
+    }
+
+    private static final class Field extends Member {
+        final FieldSignature signature;
+
+        Field(final FieldSignature signature) {
+            this.signature = signature;
+        }
+    }
+
+    private static final class Method extends Member {
+        final MethodSignature signature;
+
+        Method(final MethodSignature signature) {
+            this.signature = signature;
+        }
+    }
+
+}
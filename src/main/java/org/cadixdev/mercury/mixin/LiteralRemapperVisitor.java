@@ -0,0 +1,731 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import static org.cadixdev.mercury.mixin.util.MixinConstants.IMPLEMENTS_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.INVOKER_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MIXIN_CLASS;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.MemberMapping;
+import org.cadixdev.mercury.mixin.annotation.AtData;
+import org.cadixdev.mercury.mixin.annotation.InjectData;
+import org.cadixdev.mercury.mixin.annotation.InjectTarget;
+import org.cadixdev.mercury.mixin.annotation.ParseCache;
+import org.cadixdev.mercury.mixin.annotation.SliceData;
+import org.cadixdev.mercury.mixin.handler.MethodAnnotationHandler;
+import org.cadixdev.mercury.mixin.handler.MethodAnnotationHandlers;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.ArrayInitializer;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.IExtendedModifier;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MemberValuePair;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.NormalAnnotation;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SimpleType;
+import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.TypeLiteral;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A visitor for a single compilation unit, rewriting the literals of its
+ * mixins from the syntax tree alone - rather than from bindings, as the
+ * {@link MixinRemapperVisitor} does.
+ * <p>
+ * Mixins, their targets and the annotations on their methods are found
+ * from their simple or imported names, and the selectors of injectors and
+ * the values of accessors are looked up in the mappings of the targets.
+ * The rewrites themselves are made through the given remapper visitor,
+ * which a method is handed to as a whole when it can't be rewritten from
+ * the syntax tree alone - should bindings have been resolved.
+ */
+final class LiteralRemapperVisitor extends ASTVisitor {
+
+    /**
+     * The type of an annotation that could be one of several known
+     * annotations, imported on-demand.
+     */
+    private static final String AMBIGUOUS = "?";
+
+    private final MixinRemapperVisitor delegate;
+    private final RemapSession session;
+    private final MappingSet mappings;
+    private final ParseCache parseCache;
+    private final Map<String, String> imports = new HashMap<>();
+    private final List<String> onDemandImports = new ArrayList<>();
+    private final Deque<String> typeNames = new ArrayDeque<>();
+    // Holds null for the types that aren't mixins
+    private final List<LiteralMixin> mixins = new ArrayList<>();
+    private String packageName = "";
+    private int mixinDepth;
+
+    /**
+     * Creates a visitor for a single compilation unit.
+     *
+     * @param delegate The visitor to make the rewrites through, and hand
+     *                 methods to that need bindings
+     * @param session The session
+     */
+    LiteralRemapperVisitor(final MixinRemapperVisitor delegate, final RemapSession session) {
+        this.delegate = delegate;
+        this.session = session;
+        this.mappings = session.mappings;
+        this.parseCache = ParseCache.get(delegate.context.getMercury());
+    }
+
+    @Override
+    public boolean visit(final CompilationUnit node) {
+        if (node.getPackage() != null) {
+            this.packageName = node.getPackage().getName().getFullyQualifiedName();
+        }
+
+        for (final Object raw : node.imports()) {
+            final ImportDeclaration declaration = (ImportDeclaration) raw;
+            if (declaration.isStatic()) continue;
+
+            final String name = declaration.getName().getFullyQualifiedName();
+            if (declaration.isOnDemand()) {
+                this.onDemandImports.add(name);
+            }
+            else {
+                this.imports.put(name.substring(name.lastIndexOf('.') + 1), name);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean visit(final TypeDeclaration node) {
+        final String name = this.typeNames.isEmpty() ?
+                qualify(this.packageName, node.getName().getIdentifier()) :
+                this.typeNames.peek() + '$' + node.getName().getIdentifier();
+        this.typeNames.push(name);
+
+        final Annotation annotation = this.findAnnotation(node.modifiers(), MIXIN_CLASS);
+        if (annotation == null) {
+            this.mixins.add(null);
+            return true;
+        }
+
+        final LiteralMixin mixin = this.readMixin(name, node, annotation);
+        this.mixins.add(mixin);
+        this.mixinDepth++;
+        this.session.listener.mixinProcessed(name);
+
+        final long start = this.delegate.startPhase();
+        this.delegate.remapPrivateMixinTarget(node.getAST(), node);
+        this.delegate.endPhase(RemapPhase.PRIVATE_TARGETS, start);
+        return true;
+    }
+
+    @Override
+    public void endVisit(final TypeDeclaration node) {
+        this.typeNames.pop();
+        if (this.mixins.remove(this.mixins.size() - 1) != null) {
+            this.mixinDepth--;
+        }
+    }
+
+    @Override
+    public boolean visit(final MethodDeclaration node) {
+        // Methods of enums, and alike, can't be mixin methods
+        final LiteralMixin mixin = this.mixins.isEmpty() ? null : this.mixins.get(this.mixins.size() - 1);
+        if (mixin == null || node.getParent() != mixin.node) return false;
+
+        this.remapMethod(node, mixin);
+
+        // Nothing within the body of a method is of interest
+        return false;
+    }
+
+    private void remapMethod(final MethodDeclaration node, final LiteralMixin mixin) {
+        // @Implements, of which the mappings are only derived
+        final String methodName = node.getName().getIdentifier();
+        final int separator = methodName.indexOf('$');
+        if (separator >= 0) {
+            if (mixin.prefixes.contains(methodName.substring(0, separator))) return;
+            if (!mixin.certainPrefixes && this.fallback(node)) return;
+        }
+
+        final List<Runnable> rewrites = new ArrayList<>();
+        boolean certain = mixin.certainTargets;
+        for (final Object raw : node.modifiers()) {
+            final IExtendedModifier modifier = (IExtendedModifier) raw;
+            if (!modifier.isAnnotation()) continue;
+
+            final Annotation annotation = (Annotation) modifier;
+            final String annotationType = this.annotationType(annotation);
+            if (AMBIGUOUS.equals(annotationType)) {
+                certain = false;
+                continue;
+            }
+
+            // Only annotations with a registered handler are of interest
+            final MethodAnnotationHandler handler = this.session.handlers.get(annotationType);
+            if (handler == null) continue;
+
+            if (handler == MethodAnnotationHandlers.INJECTOR) {
+                certain &= this.readInjector(annotationType, annotation, mixin, rewrites);
+            }
+            else if (handler == MethodAnnotationHandlers.ACCESSOR) {
+                certain &= this.readAccessor(annotationType, annotation, node, mixin, rewrites);
+            }
+            else if (handler != MethodAnnotationHandlers.SHADOW && handler != MethodAnnotationHandlers.OVERWRITE) {
+                // Further handlers are written against bindings
+                certain = false;
+            }
+        }
+
+        if (!certain && this.fallback(node)) return;
+        for (final Runnable rewrite : rewrites) {
+            rewrite.run();
+        }
+    }
+
+    /**
+     * Hands the given method to the remapper visitor, to be rewritten from
+     * bindings.
+     *
+     * @param node The method
+     * @return {@code true} if the method was handed over, or {@code false}
+     *         if bindings haven't been resolved
+     */
+    private boolean fallback(final MethodDeclaration node) {
+        // Bindings are only available should another processor require them
+        if (node.resolveBinding() == null) return false;
+
+        this.session.bindingFallbacks.incrementAndGet();
+        this.delegate.visit(node);
+        return true;
+    }
+
+    // @Inject, @Redirect, @ModifyArg, the MixinExtras injectors, and alike
+    private boolean readInjector(final String annotationType, final Annotation annotation, final LiteralMixin mixin,
+                                 final List<Runnable> rewrites) {
+        // Without any values, there is nothing to rewrite
+        if (!annotation.isNormalAnnotation()) return true;
+        final NormalAnnotation injector = (NormalAnnotation) annotation;
+
+        final InjectData inject = this.readInject(injector);
+        if (inject == null) return false;
+
+        final MixinTargets targets = this.getTargets(mixin);
+        if (targets.getTargets().isEmpty()) return true;
+
+        boolean certain = true;
+        for (final InjectTarget injectTarget : inject.getInjectTargets()) {
+            // Members not in the target's own mappings may be inherited,
+            // which only the bindings know of
+            if (this.delegate.findInjectTarget(targets, injectTarget) == null) {
+                certain = false;
+            }
+        }
+
+        rewrites.add(() -> this.delegate.remapInjector(annotationType, targets, injector, inject));
+        return certain;
+    }
+
+    // @Accessor and @Invoker
+    private boolean readAccessor(final String annotationType, final Annotation annotation, final MethodDeclaration node,
+                                 final LiteralMixin mixin, final List<Runnable> rewrites) {
+        final String target = readAccessorTarget(annotation);
+        if (target == null) return false;
+
+        // Inflected from the name of the method, which only derives mappings
+        if (target.isEmpty()) return true;
+
+        final MixinTargets targets = this.getTargets(mixin);
+        if (targets.getTargets().isEmpty()) return true;
+
+        // Static invokers are object factories, of which the value is always
+        // either <init> or the target class name
+        final boolean invoker = INVOKER_CLASS.equals(annotationType);
+        if (invoker && Modifier.isStatic(node.getModifiers())) {
+            if (!"<init>".equals(target)) {
+                rewrites.add(() -> this.remapFactory(annotationType, annotation, target));
+            }
+            return true;
+        }
+
+        // The type of the member isn't known without bindings, so it must
+        // be the only one of its name
+        final MemberMapping<?, ?> member = invoker ?
+                findOnlyMember(targets, target, ClassMapping::getMethodMappings) :
+                findOnlyMember(targets, target, ClassMapping::getFieldMappings);
+        rewrites.add(() -> {
+            final long start = this.delegate.startPhase();
+            this.delegate.dependOnTargets(targets);
+            this.delegate.resolved(annotationType, member != null);
+            if (member != null) {
+                this.delegate.replaceValueInAnnotation(annotation.getAST(), annotation, member.getDeobfuscatedName());
+            }
+            this.delegate.endPhase(RemapPhase.ACCESSOR, start);
+        });
+        return member != null;
+    }
+
+    private void remapFactory(final String annotationType, final Annotation annotation, final String target) {
+        final long start = this.delegate.startPhase();
+        this.delegate.depend(target);
+        final ClassMapping<?, ?> targetClass = this.mappings.computeClassMapping(target).orElse(null);
+        this.delegate.resolved(annotationType, targetClass != null);
+        if (targetClass != null) {
+            this.delegate.replaceValueInAnnotation(annotation.getAST(), annotation, targetClass.getFullDeobfuscatedName());
+        }
+        this.delegate.endPhase(RemapPhase.ACCESSOR, start);
+    }
+
+    private static MemberMapping<?, ?> findOnlyMember(final MixinTargets targets, final String name,
+            final Function<ClassMapping<?, ?>, Collection<? extends MemberMapping<?, ?>>> members) {
+        for (final ClassMapping<?, ?> target : targets.getTargets()) {
+            MemberMapping<?, ?> found = null;
+            for (final MemberMapping<?, ?> member : members.apply(target)) {
+                if (!name.equals(member.getObfuscatedName())) continue;
+
+                // Overloads can only be told apart by their descriptors
+                if (found != null) return null;
+                found = member;
+            }
+
+            // The first target with a mapping for the member wins
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private MixinTargets getTargets(final LiteralMixin mixin) {
+        if (mixin.targets == null) {
+            final List<ClassMapping<?, ?>> targets = new ArrayList<>(mixin.targetNames.size());
+            synchronized (this.mappings) {
+                for (final String name : mixin.targetNames) {
+                    targets.add(this.mappings.getOrCreateClassMapping(name));
+                }
+            }
+            mixin.targets = new MixinTargets(mixin.name, targets, this.session.members, this.session.listener);
+        }
+        return mixin.targets;
+    }
+
+    @Override
+    public boolean visit(final FieldDeclaration node) {
+        if (this.mixinDepth > 0) {
+            this.delegate.clean(node);
+        }
+        return false;
+    }
+
+    // Nothing within these nodes is of interest
+
+    @Override
+    public boolean visit(final Initializer node) {
+        return false;
+    }
+
+    @Override
+    public boolean visit(final PackageDeclaration node) {
+        return false;
+    }
+
+    @Override
+    public boolean visit(final ImportDeclaration node) {
+        return false;
+    }
+
+    private LiteralMixin readMixin(final String name, final TypeDeclaration node, final Annotation annotation) {
+        final LiteralMixin mixin = new LiteralMixin(name, node);
+
+        // @Mixin(value = { *.class }, targets = { "*" }), where the public
+        // targets come first
+        final List<String> privateTargets = new ArrayList<>();
+        if (annotation.isSingleMemberAnnotation()) {
+            this.readPublicTargets(mixin, ((SingleMemberAnnotation) annotation).getValue());
+        }
+        else if (annotation.isNormalAnnotation()) {
+            for (final Object raw : ((NormalAnnotation) annotation).values()) {
+                final MemberValuePair pair = (MemberValuePair) raw;
+
+                if ("value".equals(pair.getName().getIdentifier())) {
+                    this.readPublicTargets(mixin, pair.getValue());
+                }
+                else if ("targets".equals(pair.getName().getIdentifier())) {
+                    for (final Object target : values(pair.getValue())) {
+                        final String value = stringValue((Expression) target);
+                        if (value != null) {
+                            privateTargets.add(value);
+                        }
+                        else {
+                            mixin.certainTargets = false;
+                        }
+                    }
+                }
+            }
+        }
+        mixin.targetNames.addAll(privateTargets);
+
+        // @Implements(@Interface(iface = Example.class, prefix = "example$"))
+        final Annotation implementsAnnotation = this.findAnnotation(node.modifiers(), IMPLEMENTS_CLASS);
+        if (implementsAnnotation != null) {
+            implementsAnnotation.accept(new ASTVisitor() {
+                @Override
+                public boolean visit(final MemberValuePair pair) {
+                    if ("prefix".equals(pair.getName().getIdentifier())) {
+                        final String prefix = stringValue(pair.getValue());
+                        if (prefix != null && !prefix.isEmpty()) {
+                            mixin.prefixes.add(prefix.substring(0, prefix.length() - 1));
+                        }
+                        else {
+                            mixin.certainPrefixes = false;
+                        }
+                    }
+                    return true;
+                }
+            });
+        }
+        return mixin;
+    }
+
+    private void readPublicTargets(final LiteralMixin mixin, final Expression value) {
+        for (final Object target : values(value)) {
+            final TypeName type = target instanceof TypeLiteral ?
+                    this.resolveType(((TypeLiteral) target).getType()) :
+                    null;
+            if (type == null) {
+                mixin.certainTargets = false;
+                continue;
+            }
+
+            mixin.targetNames.add(type.name);
+            mixin.certainTargets &= type.certain;
+        }
+    }
+
+    private InjectData readInject(final NormalAnnotation annotation) {
+        InjectTarget[] injectTargets = {};
+        AtData[] atData = {};
+        SliceData[] sliceData = {};
+
+        for (final Object raw : annotation.values()) {
+            final MemberValuePair pair = (MemberValuePair) raw;
+            final List<?> values = values(pair.getValue());
+
+            if ("method".equals(pair.getName().getIdentifier())) {
+                injectTargets = new InjectTarget[values.size()];
+                for (int i = 0; i < injectTargets.length; i++) {
+                    final String target = stringValue((Expression) values.get(i));
+                    if (target == null) return null;
+                    injectTargets[i] = this.parseCache.target(target);
+                }
+            }
+            else if ("at".equals(pair.getName().getIdentifier())) {
+                atData = new AtData[values.size()];
+                for (int i = 0; i < atData.length; i++) {
+                    atData[i] = this.readAt(values.get(i));
+                    if (atData[i] == null) return null;
+                }
+            }
+            else if ("slice".equals(pair.getName().getIdentifier())) {
+                sliceData = new SliceData[values.size()];
+                for (int i = 0; i < sliceData.length; i++) {
+                    sliceData[i] = this.readSlice(values.get(i));
+                    if (sliceData[i] == null) return null;
+                }
+            }
+        }
+
+        return new InjectData(injectTargets, atData, sliceData);
+    }
+
+    // @At(value = "", target = "")
+    private AtData readAt(final Object raw) {
+        String injectionPoint = null;
+        String target = null;
+
+        if (raw instanceof SingleMemberAnnotation) {
+            injectionPoint = stringValue(((SingleMemberAnnotation) raw).getValue());
+            if (injectionPoint == null) return null;
+        }
+        else if (raw instanceof NormalAnnotation) {
+            for (final Object value : ((NormalAnnotation) raw).values()) {
+                final MemberValuePair pair = (MemberValuePair) value;
+
+                if ("value".equals(pair.getName().getIdentifier())) {
+                    injectionPoint = stringValue(pair.getValue());
+                    if (injectionPoint == null) return null;
+                }
+                else if ("target".equals(pair.getName().getIdentifier())) {
+                    target = stringValue(pair.getValue());
+                    if (target == null) return null;
+                }
+            }
+        }
+        else if (!(raw instanceof Annotation)) {
+            return null;
+        }
+
+        return this.parseCache.at(injectionPoint, target);
+    }
+
+    // @Slice(from = @At(...), to = @At(...))
+    private SliceData readSlice(final Object raw) {
+        if (!(raw instanceof Annotation)) return null;
+
+        AtData from = null;
+        AtData to = null;
+        if (raw instanceof NormalAnnotation) {
+            for (final Object value : ((NormalAnnotation) raw).values()) {
+                final MemberValuePair pair = (MemberValuePair) value;
+
+                if ("from".equals(pair.getName().getIdentifier())) {
+                    from = this.readAt(pair.getValue());
+                    if (from == null) return null;
+                }
+                else if ("to".equals(pair.getName().getIdentifier())) {
+                    to = this.readAt(pair.getValue());
+                    if (to == null) return null;
+                }
+            }
+        }
+
+        return new SliceData(from, to);
+    }
+
+    // @Accessor("target")
+    private static String readAccessorTarget(final Annotation annotation) {
+        if (annotation.isSingleMemberAnnotation()) {
+            return stringValue(((SingleMemberAnnotation) annotation).getValue());
+        }
+        else if (annotation.isNormalAnnotation()) {
+            for (final Object raw : ((NormalAnnotation) annotation).values()) {
+                final MemberValuePair pair = (MemberValuePair) raw;
+
+                if ("value".equals(pair.getName().getIdentifier())) {
+                    return stringValue(pair.getValue());
+                }
+            }
+        }
+        return "";
+    }
+
+    private Annotation findAnnotation(final List<?> modifiers, final String annotationType) {
+        for (final Object raw : modifiers) {
+            final IExtendedModifier modifier = (IExtendedModifier) raw;
+            if (!modifier.isAnnotation()) continue;
+
+            final Annotation annotation = (Annotation) modifier;
+            if (annotationType.equals(this.annotationType(annotation))) return annotation;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the binary name of the given annotation's type, from its name
+     * and the imports of the unit.
+     *
+     * @param annotation The annotation
+     * @return The binary name, or {@link #AMBIGUOUS} should it be one of
+     *         several known annotations
+     */
+    private String annotationType(final Annotation annotation) {
+        final Name name = annotation.getTypeName();
+        // None of the known annotations are member types
+        if (name.isQualifiedName()) return name.getFullyQualifiedName();
+
+        final String simpleName = ((SimpleName) name).getIdentifier();
+        final String imported = this.imports.get(simpleName);
+        if (imported != null) return imported;
+
+        String found = null;
+        for (final String onDemand : this.onDemandImports) {
+            final String candidate = onDemand + '.' + simpleName;
+            if (!this.isKnownAnnotation(candidate)) continue;
+
+            if (found != null) return AMBIGUOUS;
+            found = candidate;
+        }
+        return found != null ? found : qualify(this.packageName, simpleName);
+    }
+
+    private boolean isKnownAnnotation(final String annotationType) {
+        return MIXIN_CLASS.equals(annotationType) ||
+                IMPLEMENTS_CLASS.equals(annotationType) ||
+                this.session.handlers.get(annotationType) != null;
+    }
+
+    private TypeName resolveType(final Type type) {
+        // Anything else can't be the target of a mixin
+        if (!type.isSimpleType()) return null;
+
+        final Name name = ((SimpleType) type).getName();
+        if (name.isSimpleName()) return this.resolveType(((SimpleName) name).getIdentifier());
+
+        final QualifiedName qualifiedName = (QualifiedName) name;
+        final String fullName = qualifiedName.getFullyQualifiedName();
+        final String first = fullName.substring(0, fullName.indexOf('.'));
+
+        // Outer.Inner, where Outer is imported or in the same package
+        if (this.imports.containsKey(first) || Character.isUpperCase(first.charAt(0))) {
+            final TypeName outer = this.resolveType(first);
+            return new TypeName(
+                    outer.name + fullName.substring(first.length()).replace('.', '$'),
+                    outer.certain
+            );
+        }
+
+        return binaryName(fullName);
+    }
+
+    private TypeName resolveType(final String simpleName) {
+        final String imported = this.imports.get(simpleName);
+        if (imported != null) return binaryName(imported);
+
+        final String local = qualify(this.packageName, simpleName);
+        if (this.onDemandImports.isEmpty()) return new TypeName(local, true);
+
+        // The type could be in any of the packages imported on-demand, though
+        // only one of them is expected to have mappings
+        String mapped = this.hasMapping(local) ? local : null;
+        for (final String onDemand : this.onDemandImports) {
+            final String candidate = binaryName(onDemand + '.' + simpleName).name;
+            if (!this.hasMapping(candidate)) continue;
+
+            if (mapped != null) return new TypeName(local, false);
+            mapped = candidate;
+        }
+        return new TypeName(mapped != null ? mapped : local, false);
+    }
+
+    private boolean hasMapping(final String binaryName) {
+        return this.mappings.getClassMapping(binaryName.replace('.', '/')).isPresent();
+    }
+
+    /**
+     * Gets the binary name of the given fully-qualified name, going by
+     * the convention that packages are lower case and types are not.
+     *
+     * @param qualifiedName The fully-qualified name
+     * @return The binary name, only certain should it be a top-level type
+     */
+    private static TypeName binaryName(final String qualifiedName) {
+        int segment = 0;
+        while (!Character.isUpperCase(qualifiedName.charAt(segment))) {
+            final int next = qualifiedName.indexOf('.', segment);
+            // Taken to be a top-level type, such as an obfuscated one
+            if (next < 0) return new TypeName(qualifiedName, true);
+            segment = next + 1;
+        }
+
+        final String types = qualifiedName.substring(segment);
+        return new TypeName(
+                qualifiedName.substring(0, segment) + types.replace('.', '$'),
+                types.indexOf('.') < 0
+        );
+    }
+
+    private static String qualify(final String packageName, final String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+    }
+
+    private static List<?> values(final Expression value) {
+        return value instanceof ArrayInitializer ?
+                ((ArrayInitializer) value).expressions() :
+                Collections.singletonList(value);
+    }
+
+    /**
+     * Gets the value of the given string literal, or concatenation of
+     * string literals.
+     *
+     * @param expression The expression
+     * @return The value, or {@code null} if the expression is anything else
+     *         - such as a constant, which only bindings know the value of
+     */
+    private static String stringValue(final Expression expression) {
+        if (expression instanceof StringLiteral) {
+            return ((StringLiteral) expression).getLiteralValue();
+        }
+        if (!(expression instanceof InfixExpression)) return null;
+
+        final InfixExpression infix = (InfixExpression) expression;
+        if (infix.getOperator() != InfixExpression.Operator.PLUS) return null;
+
+        final String left = stringValue(infix.getLeftOperand());
+        final String right = stringValue(infix.getRightOperand());
+        if (left == null || right == null) return null;
+
+        final StringBuilder value = new StringBuilder(left).append(right);
+        for (final Object operand : infix.extendedOperands()) {
+            final String extended = stringValue((Expression) operand);
+            if (extended == null) return null;
+            value.append(extended);
+        }
+        return value.toString();
+    }
+
+    /**
+     * A mixin, as read from the syntax tree.
+     */
+    private static final class LiteralMixin {
+
+        final String name;
+        final TypeDeclaration node;
+        // As binary names, the public targets first
+        final List<String> targetNames = new ArrayList<>();
+        final Set<String> prefixes = new HashSet<>();
+        boolean certainTargets = true;
+        boolean certainPrefixes = true;
+        MixinTargets targets;
+
+        LiteralMixin(final String name, final TypeDeclaration node) {
+            this.name = name;
+            this.node = node;
+        }
+
+    }
+
+    /**
+     * The binary name of a type, as resolved from the syntax tree.
+     */
+    private static final class TypeName {
+
+        final String name;
+        // Whether the name was resolved without guessing
+        final boolean certain;
+
+        TypeName(final String name, final boolean certain) {
+            this.name = name;
+            this.certain = certain;
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.Type;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of the members of {@link ClassMapping class mappings}, by their
+ * obfuscated name.
+ * <p>
+ * The index for a class is built the first time it is needed, and rebuilt
+ * should members have been added to the class since (for example, when it
+ * is completed).
+ */
+final class MemberIndex {
+
+    private final Map<String, ClassMembers> classes = new ConcurrentHashMap<>();
+
+    /**
+     * Finds the field mapping with the given obfuscated name and, if the
+     * mapping has one, type.
+     *
+     * @param klass The class mapping to search
+     * @param name The obfuscated name of the field
+     * @param type The obfuscated type of the field
+     * @return The field mapping, or {@code null} if none matches
+     */
+    FieldMapping findField(final ClassMapping<?, ?> klass, final String name, final Type type) {
+        for (final FieldMapping mapping : this.getIndex(klass).getFields(name)) {
+            // the mapping has a type but it is different than the target type
+            if (mapping.getType().isPresent() && !Objects.equals(mapping.getType().get(), type)) continue;
+
+            return mapping;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the method mapping with the given obfuscated name and, if
+     * given, descriptor.
+     *
+     * @param klass The class mapping to search
+     * @param name The obfuscated name of the method
+     * @param descriptor The obfuscated descriptor of the method, or
+     *                   {@code null} to match any overload
+     * @return The method mapping, or {@code null} if none matches
+     */
+    MethodMapping findMethod(final ClassMapping<?, ?> klass, final String name, final MethodDescriptor descriptor) {
+        for (final MethodMapping mapping : this.getIndex(klass).getMethods(name)) {
+            if (descriptor != null && !descriptor.equals(mapping.getDescriptor())) continue;
+
+            return mapping;
+        }
+        return null;
+    }
+
+    void clear() {
+        this.classes.clear();
+    }
+
+    private ClassMembers getIndex(final ClassMapping<?, ?> klass) {
+        final ClassMembers index = this.classes.get(klass.getFullObfuscatedName());
+        if (index != null && !index.isStale(klass)) return index;
+
+        return this.classes.compute(klass.getFullObfuscatedName(), (name, existing) ->
+                existing == null || existing.isStale(klass) ? new ClassMembers(klass) : existing
+        );
+    }
+
+    private static final class ClassMembers {
+
+        private final ClassMapping<?, ?> klass;
+        private final int fieldCount;
+        private final int methodCount;
+        private final Map<String, List<FieldMapping>> fields = new HashMap<>();
+        private final Map<String, List<MethodMapping>> methods = new HashMap<>();
+
+        ClassMembers(final ClassMapping<?, ?> klass) {
+            this.klass = klass;
+            this.fieldCount = klass.getFieldMappings().size();
+            this.methodCount = klass.getMethodMappings().size();
+
+            for (final FieldMapping field : klass.getFieldMappings()) {
+                this.fields.computeIfAbsent(field.getObfuscatedName(), k -> new ArrayList<>(1)).add(field);
+            }
+            for (final MethodMapping method : klass.getMethodMappings()) {
+                this.methods.computeIfAbsent(method.getObfuscatedName(), k -> new ArrayList<>(1)).add(method);
+            }
+        }
+
+        boolean isStale(final ClassMapping<?, ?> klass) {
+            return this.klass != klass ||
+                    this.fieldCount != klass.getFieldMappings().size() ||
+                    this.methodCount != klass.getMethodMappings().size();
+        }
+
+        List<FieldMapping> getFields(final String name) {
+            return this.fields.getOrDefault(name, Collections.emptyList());
+        }
+
+        List<MethodMapping> getMethods(final String name) {
+            return this.methods.getOrDefault(name, Collections.emptyList());
+        }
+
+    }
+
+}
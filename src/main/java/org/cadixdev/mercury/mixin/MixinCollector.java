@@ -0,0 +1,199 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.SourceContext;
+import org.cadixdev.mercury.SourceProcessor;
+import org.cadixdev.mercury.mixin.annotation.ParseCache;
+import org.cadixdev.mercury.mixin.annotation.TargetResolver;
+import org.cadixdev.mercury.mixin.bytecode.ClassIndex;
+import org.cadixdev.mercury.mixin.handler.MethodAnnotationHandlers;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * The first phase of a two-phase remap, which derives the mappings for the
+ * members of every mixin - without rewriting any sources.
+ * <p>
+ * Once the collector has processed every mixin, the derived mappings are
+ * complete and the sources can be rewritten using
+ * {@link MixinRemapper#createRewriter(MappingSet)} and {@code MercuryRemapper}.
+ *
+ * @since 0.1.0
+ */
+public final class MixinCollector implements SourceProcessor {
+
+    /**
+     * Creates a mixin collector, that applies the derived mappings to the
+     * mapping set once it has finished.
+     *
+     * @param mappings The mappings
+     * @return The collector
+     */
+    public static MixinCollector create(final MappingSet mappings) {
+        return new MixinCollector(mappings, new DerivedMappings(), true);
+    }
+
+    /**
+     * Creates a mixin collector, that collects the derived mappings into the
+     * given buffer - which can be shared with collectors running in
+     * parallel. The buffer must be {@link DerivedMappings#apply(MappingSet)
+     * applied} by the caller.
+     * <p>
+     * This is how partitions of a source set are collected in parallel: each
+     * partition is collected on its own thread, with its own Mercury
+     * instance and collector. Once every collector has finished and the
+     * buffer has been applied, the mappings are complete and the source set
+     * is rewritten, in a single run, using
+     * {@link MixinRemapper#createRewriter(MappingSet)}. Collectors sharing
+     * the mappings lock them while creating or completing the mappings of a
+     * target, as that modifies them - so nothing else may use the mappings
+     * until the collectors have finished.
+     * <p>
+     * Members derived conflicting names by different partitions are
+     * reported to the collector's {@link #setListener(RemapListener)
+     * listener}.
+     *
+     * @param mappings The mappings
+     * @param derived The buffer to collect derived mappings into
+     * @return The collector
+     */
+    public static MixinCollector create(final MappingSet mappings, final DerivedMappings derived) {
+        return new MixinCollector(mappings, Objects.requireNonNull(derived, "derived"), false);
+    }
+
+    private final RemapSession session;
+    private final boolean apply;
+
+    private MixinCollector(final MappingSet mappings, final DerivedMappings derived, final boolean apply) {
+        this.session = new RemapSession(Objects.requireNonNull(mappings, "mappings"), derived, true);
+        this.apply = apply;
+    }
+
+    /**
+     * Gets the mappings derived by the collector.
+     *
+     * @return The derived mappings
+     */
+    public DerivedMappings getDerivedMappings() {
+        return this.session.derived;
+    }
+
+    /**
+     * Sets the file used to cache the derived mappings of each compilation
+     * unit between runs, or {@code null} to not use a cache.
+     * <p>
+     * Units are only processed again when their source changes, or the
+     * mappings or structure of a class they depend on (such as their
+     * targets) change. A collector and a rewriter may share a cache file.
+     *
+     * @param cacheFile The cache file
+     */
+    public void setCacheFile(final Path cacheFile) {
+        this.session.cache = cacheFile != null ? new RemapCache(cacheFile) : null;
+    }
+
+    /**
+     * Sets the index of the classes on the classpath, which is used to answer
+     * queries about mixin targets without resolving bindings - or {@code null}
+     * to only use bindings.
+     * <p>
+     * The index is brought up to date with the classpath at the start of
+     * each run.
+     *
+     * @param classes The class index
+     */
+    public void setClassIndex(final ClassIndex classes) {
+        this.session.classes = classes;
+    }
+
+    /**
+     * Sets the listener notified of the work done by the collector, or
+     * {@link RemapListener#NONE} to not listen.
+     *
+     * @param listener The listener
+     */
+    public void setListener(final RemapListener listener) {
+        this.session.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    /**
+     * Gets the handlers for the annotations on mixin methods, which further
+     * handlers can be registered with.
+     *
+     * @return The handlers
+     */
+    public MethodAnnotationHandlers getHandlers() {
+        return this.session.handlers;
+    }
+
+    @Override
+    public int getFlags() {
+        return FLAG_RESOLVE_BINDINGS;
+    }
+
+    @Override
+    public void initialize(final Mercury mercury) {
+        if (UnitBatcher.isFirstBatch(mercury)) {
+            this.session.reset();
+            ParseCache.get(mercury).clear();
+            if (this.session.classes != null) {
+                this.session.classes.install(mercury);
+            }
+            if (this.apply) {
+                this.session.derived.clear();
+            }
+        }
+        else {
+            this.session.release();
+        }
+        TargetResolver.get(mercury).clear();
+    }
+
+    @Override
+    public void process(final SourceContext context) {
+        this.session.visit(context, null);
+    }
+
+    @Override
+    public void finish(final Mercury mercury) {
+        TargetResolver.get(mercury).clear();
+        if (!UnitBatcher.isLastBatch(mercury)) {
+            this.session.release();
+            return;
+        }
+
+        this.session.finish();
+        if (this.apply) {
+            this.session.derived.apply(this.session.mappings);
+        }
+    }
+
+    /**
+     * Gets the number of compilation units skipped during the last run, as
+     * they couldn't declare a mixin.
+     *
+     * @return The number of skipped units
+     */
+    public int getSkippedUnits() {
+        return this.session.skippedUnits.get();
+    }
+
+    /**
+     * Gets the number of compilation units whose work was reused from the
+     * {@link #setCacheFile(Path) cache} during the last run.
+     *
+     * @return The number of cached units
+     */
+    public int getCachedUnits() {
+        return this.session.cachedUnits.get();
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.mixin.annotation.MixinClass;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of {@link MixinClass mixins}, keyed by the
+ * {@link ITypeBinding#getKey() binding key} of the mixin class.
+ * <p>
+ * Classes that are not mixins are cached too, so repeated lookups of
+ * ordinary classes only cost a single map lookup.
+ * <p>
+ * A registry is only valid for a single run of Mercury, as the bindings
+ * it holds are tied to the environment they were resolved in.
+ */
+final class MixinRegistry {
+
+    private final MappingSet mappings;
+    private final Map<String, Optional<MixinClass>> mixins = new ConcurrentHashMap<>();
+
+    MixinRegistry(final MappingSet mappings) {
+        this.mappings = mappings;
+    }
+
+    /**
+     * Gets the mixin for the given class, fetching it from the class's
+     * annotations on first use.
+     *
+     * @param binding The class binding
+     * @return The mixin, or {@code null} if the class is not a mixin
+     */
+    MixinClass fetch(final ITypeBinding binding) {
+        return this.mixins.computeIfAbsent(
+                binding.getKey(),
+                key -> Optional.ofNullable(MixinClass.fetch(binding, this.mappings))
+        ).orElse(null);
+    }
+
+    /**
+     * Removes all cached mixins, and non-mixins, from the registry.
+     */
+    void clear() {
+        this.mixins.clear();
+    }
+
+}
@@ -7,32 +7,250 @@
 package org.cadixdev.mercury.mixin;
 
 import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.Mercury;
 import org.cadixdev.mercury.RewriteContext;
 import org.cadixdev.mercury.SourceRewriter;
+import org.cadixdev.mercury.mixin.annotation.ParseCache;
+import org.cadixdev.mercury.mixin.annotation.TargetResolver;
+import org.cadixdev.mercury.mixin.bytecode.ClassIndex;
+import org.cadixdev.mercury.mixin.cleaner.MixinCleaner;
+import org.cadixdev.mercury.mixin.cleaner.TargetFieldIndex;
+import org.cadixdev.mercury.mixin.handler.MethodAnnotationHandlers;
 
+import java.nio.file.Path;
 import java.util.Objects;
 
 public final class MixinRemapper implements SourceRewriter {
 
     public static SourceRewriter create(final MappingSet mappings) {
-        return new MixinRemapper(mappings);
+        return createRemapper(mappings);
     }
 
-    private final MappingSet mappings;
+    /**
+     * Creates a mixin remapper, as {@link #create(MappingSet)} does, giving
+     * the remapper itself - so it can be configured, and its statistics read
+     * after a run.
+     *
+     * @param mappings The mappings
+     * @return The remapper
+     */
+    public static MixinRemapper createRemapper(final MappingSet mappings) {
+        return new MixinRemapper(mappings, true);
+    }
+
+    /**
+     * Creates a mixin remapper that only rewrites the mixins, without
+     * deriving mappings for mixin members.
+     * <p>
+     * This is the second phase of a two-phase remap, where the mappings for
+     * every mixin have already been derived by a {@link MixinCollector} - so
+     * the result no longer depends on the order the compilation units are
+     * processed in.
+     *
+     * @param mappings The mappings, including those derived by the collector
+     * @return The remapper
+     */
+    public static MixinRemapper createRewriter(final MappingSet mappings) {
+        return new MixinRemapper(mappings, false);
+    }
+
+    /**
+     * Creates a mixin remapper that only rewrites the mixins, as
+     * {@link #createRewriter(MappingSet)} does, reading the literals it
+     * rewrites from the syntax tree rather than from bindings.
+     * <p>
+     * The targets of a mixin and the annotations on its methods are found
+     * from their simple or imported names, and selectors are looked up in
+     * the mappings of the targets directly. Only where that isn't enough -
+     * such as a selector not found in the target's own mappings, as it may
+     * be inherited, or a name only imported on-demand - does the remapper
+     * fall back to bindings, and only should another processor have them
+     * resolved. Without them, the literal is rewritten as best as it can
+     * be.
+     * <p>
+     * As the remapper doesn't require bindings itself, a run of Mercury
+     * that has no other processors requiring them needs neither the
+     * classpath nor binding resolution at all.
+     *
+     * @param mappings The mappings, including those derived by a collector
+     * @return The remapper
+     */
+    public static MixinRemapper createLiteralRewriter(final MappingSet mappings) {
+        final MixinRemapper remapper = new MixinRemapper(mappings, false);
+        remapper.session.literal = true;
+        return remapper;
+    }
+
+    private final RemapSession session;
+
+    private MixinRemapper(final MappingSet mappings, final boolean derive) {
+        this.session = new RemapSession(Objects.requireNonNull(mappings, "mappings"), null, derive);
+    }
+
+    /**
+     * Sets the file used to cache the rewrites and derived mappings of each compilation
+     * unit between runs, or {@code null} to not use a cache.
+     * <p>
+     * Units are only processed again when their source changes, or the
+     * mappings or structure of a class they depend on (such as their
+     * targets) change. A collector and a rewriter may share a cache file.
+     *
+     * @param cacheFile The cache file
+     */
+    public void setCacheFile(final Path cacheFile) {
+        this.session.cache = cacheFile != null ? new RemapCache(cacheFile) : null;
+    }
+
+    /**
+     * Sets the index of the classes on the classpath, which is used to answer
+     * queries about mixin targets without resolving bindings - or {@code null}
+     * to only use bindings.
+     * <p>
+     * The index is brought up to date with the classpath at the start of
+     * each run.
+     *
+     * @param classes The class index
+     */
+    public void setClassIndex(final ClassIndex classes) {
+        this.session.classes = classes;
+    }
+
+    /**
+     * Sets the listener notified of the work done by the remapper, or
+     * {@link RemapListener#NONE} to not listen.
+     *
+     * @param listener The listener
+     */
+    public void setListener(final RemapListener listener) {
+        this.session.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    /**
+     * Gets the handlers for the annotations on mixin methods, which further
+     * handlers can be registered with.
+     *
+     * @return The handlers
+     */
+    public MethodAnnotationHandlers getHandlers() {
+        return this.session.handlers;
+    }
+
+    /**
+     * Sets whether the remapper also cleans the mixins, as the
+     * {@link MixinCleaner cleaner} does, in the same traversal of each
+     * compilation unit.
+     * <p>
+     * This gives the same result as running a separate cleaner after the
+     * remapper, without resolving bindings and walking each unit twice.
+     *
+     * @param clean Whether to clean the mixins
+     */
+    public void setCleaning(final boolean clean) {
+        this.session.clean = clean;
+    }
 
-    private MixinRemapper(final MappingSet mappings) {
-        this.mappings = Objects.requireNonNull(mappings, "mappings");
+    /**
+     * Gets whether the remapper derives mappings for mixin members as it
+     * rewrites, rather than only reading them.
+     *
+     * @return {@code true} if the remapper derives mappings
+     */
+    boolean isDeriving() {
+        return this.session.derive;
     }
 
     @Override
     public int getFlags() {
-        return FLAG_RESOLVE_BINDINGS;
+        // Cleaning always requires bindings
+        return this.session.literal && !this.session.clean ? 0 : FLAG_RESOLVE_BINDINGS;
+    }
+
+    @Override
+    public void initialize(final Mercury mercury) {
+        // Bindings from a previous run can't be reused
+        if (UnitBatcher.isFirstBatch(mercury)) {
+            this.session.reset();
+            ParseCache.get(mercury).clear();
+            if (this.session.classes != null) {
+                this.session.classes.install(mercury);
+            }
+        }
+        else {
+            this.session.release();
+        }
+        TargetResolver.get(mercury).clear();
+        TargetFieldIndex.get(mercury).clear();
     }
 
     @Override
     public void rewrite(final RewriteContext context) {
-        context.getCompilationUnit().accept(new MixinRemapperVisitor(context, this.mappings));
-        // todo: use the remapper visitor too?
+        this.session.visit(context, context);
+    }
+
+    @Override
+    public void finish(final Mercury mercury) {
+        if (UnitBatcher.isLastBatch(mercury)) {
+            this.session.finish();
+        }
+        else {
+            this.session.release();
+        }
+        TargetResolver.get(mercury).clear();
+        TargetFieldIndex.get(mercury).clear();
+    }
+
+    /**
+     * Gets the number of mixin targets that had their mappings completed
+     * during the last run.
+     *
+     * @return The number of completed targets
+     */
+    public int getCompletedTargets() {
+        return this.session.completions.getCompletions();
+    }
+
+    /**
+     * Gets the number of times completing a mixin target was skipped during
+     * the last run, as the target had already been completed.
+     *
+     * @return The number of skipped completions
+     */
+    public int getSkippedCompletions() {
+        return this.session.completions.getSkipped();
+    }
+
+    /**
+     * Gets the number of compilation units skipped during the last run, as
+     * they couldn't declare a mixin.
+     *
+     * @return The number of skipped units
+     */
+    public int getSkippedUnits() {
+        return this.session.skippedUnits.get();
+    }
+
+    /**
+     * Gets the number of compilation units whose work was reused from the
+     * {@link #setCacheFile(Path) cache} during the last run.
+     *
+     * @return The number of cached units
+     */
+    public int getCachedUnits() {
+        return this.session.cachedUnits.get();
+    }
+
+    /**
+     * Gets the number of mixin methods that had their literals rewritten
+     * from bindings during the last run, as they couldn't be from the syntax
+     * tree alone.
+     * <p>
+     * This is always zero, unless the remapper was created with
+     * {@link #createLiteralRewriter(MappingSet)}.
+     *
+     * @return The number of methods
+     */
+    public int getBindingFallbacks() {
+        return this.session.bindingFallbacks.get();
     }
 
 }
@@ -7,13 +7,10 @@
 package org.cadixdev.mercury.mixin;
 
 import static org.cadixdev.mercury.mixin.annotation.AccessorType.FIELD_GETTER;
-import static org.cadixdev.mercury.mixin.util.MixinConstants.ACCESSOR_CLASS;
-import static org.cadixdev.mercury.mixin.util.MixinConstants.INJECT_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.AT_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.IMPLEMENTS_CLASS;
 import static org.cadixdev.mercury.mixin.util.MixinConstants.INVOKER_CLASS;
-import static org.cadixdev.mercury.mixin.util.MixinConstants.MODIFY_CONSTANT_CLASS;
-import static org.cadixdev.mercury.mixin.util.MixinConstants.MODIFY_VARIABLE_CLASS;
-import static org.cadixdev.mercury.mixin.util.MixinConstants.OVERWRITE_CLASS;
-import static org.cadixdev.mercury.mixin.util.MixinConstants.REDIRECT_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MIXIN_CLASS;
 import static org.cadixdev.mercury.mixin.util.MixinConstants.SHADOW_CLASS;
 import static org.cadixdev.mercury.util.BombeBindings.convertType;
 
@@ -26,8 +23,10 @@
 import org.cadixdev.lorenz.MappingSet;
 import org.cadixdev.lorenz.model.ClassMapping;
 import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.MemberMapping;
 import org.cadixdev.lorenz.model.MethodMapping;
 import org.cadixdev.mercury.RewriteContext;
+import org.cadixdev.mercury.SourceContext;
 import org.cadixdev.mercury.analysis.MercuryInheritanceProvider;
 import org.cadixdev.mercury.mixin.annotation.AccessorData;
 import org.cadixdev.mercury.mixin.annotation.AccessorName;
@@ -36,46 +35,264 @@
 import org.cadixdev.mercury.mixin.annotation.InjectData;
 import org.cadixdev.mercury.mixin.annotation.InjectTarget;
 import org.cadixdev.mercury.mixin.annotation.MixinClass;
+import org.cadixdev.mercury.mixin.annotation.ParseCache;
 import org.cadixdev.mercury.mixin.annotation.ShadowData;
 import org.cadixdev.mercury.mixin.annotation.SliceData;
+import org.cadixdev.mercury.mixin.annotation.TargetResolver;
+import org.cadixdev.mercury.mixin.bytecode.ClassIndex;
+import org.cadixdev.mercury.mixin.bytecode.ClassMetadata;
+import org.cadixdev.mercury.mixin.cleaner.FinalVisitor;
+import org.cadixdev.mercury.mixin.handler.MethodAnnotationContext;
+import org.cadixdev.mercury.mixin.handler.MethodAnnotationHandler;
+import org.cadixdev.mercury.mixin.util.EditCollector;
 import org.cadixdev.mercury.util.BombeBindings;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnnotationTypeMemberDeclaration;
 import org.eclipse.jdt.core.dom.ArrayInitializer;
+import org.eclipse.jdt.core.dom.BreakStatement;
+import org.eclipse.jdt.core.dom.ContinueStatement;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ExpressionMethodReference;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
 import org.eclipse.jdt.core.dom.IAnnotationBinding;
 import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.IExtendedModifier;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
 import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.LabeledStatement;
+import org.eclipse.jdt.core.dom.MarkerAnnotation;
 import org.eclipse.jdt.core.dom.MemberValuePair;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.NameQualifiedType;
 import org.eclipse.jdt.core.dom.NormalAnnotation;
+import org.eclipse.jdt.core.dom.PackageDeclaration;
+import org.eclipse.jdt.core.dom.QualifiedType;
 import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SimpleType;
 import org.eclipse.jdt.core.dom.SingleMemberAnnotation;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.SuperMethodReference;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.TypeMethodReference;
+import org.eclipse.jdt.core.dom.TypeParameter;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 public class MixinRemapperVisitor extends ASTVisitor {
 
-    final RewriteContext context;
+    /**
+     * The locations of simple names that can never refer to a field.
+     */
+    private static final Set<StructuralPropertyDescriptor> NON_FIELD_LOCATIONS = new HashSet<>(Arrays.asList(
+            // Types
+            TypeDeclaration.NAME_PROPERTY,
+            EnumDeclaration.NAME_PROPERTY,
+            AnnotationTypeDeclaration.NAME_PROPERTY,
+            TypeParameter.NAME_PROPERTY,
+            MarkerAnnotation.TYPE_NAME_PROPERTY,
+            NormalAnnotation.TYPE_NAME_PROPERTY,
+            SingleMemberAnnotation.TYPE_NAME_PROPERTY,
+            // Methods
+            MethodDeclaration.NAME_PROPERTY,
+            MethodInvocation.NAME_PROPERTY,
+            SuperMethodInvocation.NAME_PROPERTY,
+            ExpressionMethodReference.NAME_PROPERTY,
+            SuperMethodReference.NAME_PROPERTY,
+            TypeMethodReference.NAME_PROPERTY,
+            MemberValuePair.NAME_PROPERTY,
+            AnnotationTypeMemberDeclaration.NAME_PROPERTY,
+            // Parameters and labels
+            SingleVariableDeclaration.NAME_PROPERTY,
+            LabeledStatement.LABEL_PROPERTY,
+            BreakStatement.LABEL_PROPERTY,
+            ContinueStatement.LABEL_PROPERTY
+    ));
+
+    final SourceContext context;
     final MappingSet mappings;
+    private final RewriteContext rewrite;
+    private final RemapSession session;
+    private final boolean derive;
     private final InheritanceProvider inheritanceProvider;
-
-    MixinRemapperVisitor(final RewriteContext context, final MappingSet mappings) {
+    private final TargetResolver resolver;
+    private final ClassIndex classes;
+    private final ParseCache parseCache;
+    private final DerivedMappings derived = new DerivedMappings();
+    private final boolean record;
+    private final Set<String> dependencies = new HashSet<>();
+    private final Map<String, String> edits = new LinkedHashMap<>();
+    private final RemapListener listener;
+    private final boolean listening;
+    private final EditCollector batch;
+    private final FinalVisitor cleaner;
+    private final Deque<Boolean> mixinTypes = new ArrayDeque<>();
+    private final Set<String> visitedFields = new HashSet<>();
+    private int mixinDepth;
+
+    /**
+     * Creates a visitor for a single compilation unit.
+     *
+     * @param context The source context
+     * @param rewrite The rewrite context, or {@code null} to leave the unit
+     *                untouched
+     * @param session The session
+     * @param derive Whether to derive mappings for mixin members
+     */
+    MixinRemapperVisitor(final SourceContext context, final RewriteContext rewrite, final RemapSession session,
+                         final boolean derive) {
         this.context = context;
-        this.mappings = mappings;
+        this.rewrite = rewrite;
+        this.mappings = session.mappings;
+        this.session = session;
+        this.derive = derive;
+        this.record = session.cache != null;
         this.inheritanceProvider = MercuryInheritanceProvider.get(context.getMercury());
+        this.resolver = TargetResolver.get(context.getMercury());
+        this.classes = ClassIndex.get(context.getMercury());
+        this.parseCache = ParseCache.get(context.getMercury());
+        this.listener = session.listener;
+        this.listening = this.listener != RemapListener.NONE;
+        this.batch = rewrite != null ? new EditCollector(rewrite) : null;
+        // Clean the unit in the same traversal, sharing the mixins fetched
+        this.cleaner = rewrite != null && session.clean ?
+                new FinalVisitor(rewrite, this.listener, this.batch, session.registry::fetch) :
+                null;
+    }
+
+    /**
+     * Applies the rewrites collected while visiting the compilation unit,
+     * in a single batch.
+     */
+    void applyRewrites() {
+        if (this.batch == null) return;
+
+        final long start = this.startPhase();
+        this.batch.apply();
+        this.endPhase(RemapPhase.REWRITE, start);
+    }
+
+    /**
+     * Gets the mappings derived for mixin members while visiting the
+     * compilation unit.
+     *
+     * @return The derived mappings
+     */
+    DerivedMappings getDerivedMappings() {
+        return this.derived;
+    }
+
+    /**
+     * Gets the obfuscated names of the classes whose mappings the work done
+     * for the compilation unit depended on, when recording for the cache.
+     *
+     * @return The dependencies
+     */
+    Set<String> getDependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * Gets the literal replacements made to the compilation unit, by the
+     * {@link NodePath path} of the replaced expression, when recording for
+     * the cache.
+     *
+     * @return The edits
+     */
+    Map<String, String> getEdits() {
+        return this.edits;
+    }
+
+    void depend(final String className) {
+        if (this.record) {
+            this.dependencies.add(className.replace('.', '/'));
+        }
+    }
+
+    private void dependOnHierarchy(final ITypeBinding binding) {
+        if (!this.record || binding == null || binding.getBinaryName() == null) return;
+
+        this.depend(binding.getBinaryName());
+        this.dependOnHierarchy(binding.getSuperclass());
+        for (final ITypeBinding iface : binding.getInterfaces()) {
+            this.dependOnHierarchy(iface);
+        }
+    }
+
+    private void dependOnHierarchy(final String className) {
+        if (!this.record) return;
+
+        this.depend(className);
+        final ClassMetadata klass = this.classes.get(className);
+        if (klass == null) return;
+
+        if (klass.getSuperName() != null) {
+            this.dependOnHierarchy(klass.getSuperName());
+        }
+        for (final String iface : klass.getInterfaces()) {
+            this.dependOnHierarchy(iface);
+        }
+    }
+
+    private void dependOnDescriptor(final String descriptor) {
+        if (!this.record) return;
+
+        int start = descriptor.indexOf('L');
+        while (start >= 0) {
+            final int end = descriptor.indexOf(';', start);
+            if (end < 0) return;
+
+            this.depend(descriptor.substring(start + 1, end));
+            start = descriptor.indexOf('L', end);
+        }
     }
 
-    private void remapPrivateMixinTarget(final AST ast, final TypeDeclaration typeDeclaration, final ITypeBinding binding) {
+    void dependOnTargets(final MixinTargets targets) {
+        if (!this.record) return;
+
+        for (final ClassMapping<?, ?> target : targets.getTargets()) {
+            this.depend(target.getFullObfuscatedName());
+        }
+    }
+
+    long startPhase() {
+        return this.listening ? System.nanoTime() : 0;
+    }
+
+    void endPhase(final RemapPhase phase, final long start) {
+        if (this.listening) {
+            this.listener.phaseCompleted(phase, System.nanoTime() - start);
+        }
+    }
+
+    void resolved(final String annotationType, final boolean resolved) {
+        if (this.listening) {
+            this.listener.targetResolved(annotationType, resolved);
+        }
+    }
+
+    void remapPrivateMixinTarget(final AST ast, final TypeDeclaration typeDeclaration) {
         for (final Object rawModifier : typeDeclaration.modifiers()) {
             final IExtendedModifier modifier = (IExtendedModifier) rawModifier;
             if (!modifier.isAnnotation()) return;
@@ -112,6 +329,7 @@ else if (targets instanceof ArrayInitializer) {
     private void remapPrivateMixinTargetLiteral(final AST ast, final StringLiteral literal) {
         final String className = literal.getLiteralValue();
         if (className.isEmpty()) return;
+        this.depend(className);
         final boolean binaryFormat = className.contains("/");
 
         ClassMapping<?, ?> classMapping = this.mappings.getTopLevelClassMapping(className).orElse(null);
@@ -119,9 +337,10 @@ private void remapPrivateMixinTargetLiteral(final AST ast, final StringLiteral l
             classMapping = this.mappings.getClassMapping(className).orElse(null);
         }
 
+        this.resolved(MIXIN_CLASS, classMapping != null);
         if (classMapping != null) {
             final String remappedClassName = classMapping.getFullDeobfuscatedName();
-            replaceExpression(ast, this.context, literal, binaryFormat ?
+            this.replaceExpression(literal, binaryFormat ?
                     remappedClassName :
                     remappedClassName.replace('/', '.'));
         }
@@ -133,17 +352,19 @@ void remapField(final SimpleName node, final IVariableBinding binding) {
         final ITypeBinding declaringClass = binding.getDeclaringClass();
         if (declaringClass == null) return;
 
-        final MixinClass mixin = MixinClass.fetch(declaringClass, this.mappings);
+        final MixinClass mixin = this.session.registry.fetch(declaringClass);
         if (mixin == null) return;
 
-        // todo: support multiple targets properly
-        final ClassMapping<?, ?> target = this.mappings.getOrCreateClassMapping(mixin.getTargetNames()[0]);
+        final MixinTargets targets = this.session.getTargets(mixin);
+        if (targets.getTargets().isEmpty()) return;
+        this.dependOnTargets(targets);
 
         for (final IAnnotationBinding annotation : binding.getAnnotations()) {
             final String annotationType = annotation.getAnnotationType().getBinaryName();
 
             // @Shadow
             if (Objects.equals(SHADOW_CLASS, annotationType)) {
+                final long start = this.startPhase();
                 final ShadowData shadow = ShadowData.from(annotation);
 
                 final boolean usedPrefix = binding.getName().startsWith(shadow.getPrefix());
@@ -151,12 +372,14 @@ void remapField(final SimpleName node, final IVariableBinding binding) {
                 final FieldSignature mixinSignature = BombeBindings.convertSignature(binding);
 
                 // Copy de-obfuscation mapping
-                mixin.copyFieldMapping(
-                        target,
+                this.resolved(annotationType, mixin.copyFieldMapping(
+                        this.derived,
+                        targets.getFieldOwner(targetSignature),
                         mixinSignature,
                         targetSignature,
                         deobfName -> usedPrefix ? shadow.prefix(deobfName) : deobfName
-                );
+                ));
+                this.endPhase(RemapPhase.SHADOW, start);
             }
         }
     }
@@ -167,9 +390,15 @@ public boolean visit(final MethodDeclaration node) {
         final IMethodBinding binding = node.resolveBinding();
 
         final ITypeBinding declaringClass = binding.getDeclaringClass();
-        final MixinClass mixin = MixinClass.fetch(declaringClass, this.mappings);
+        final MixinClass mixin = this.session.registry.fetch(declaringClass);
         if (mixin == null) return true;
 
+        this.remapMethod(ast, node, binding, mixin);
+        return true;
+    }
+
+    private void remapMethod(final AST ast, final MethodDeclaration node, final IMethodBinding binding,
+                             final MixinClass mixin) {
         // @Implements
         if (node.getName().getIdentifier().contains("$")) {
             final String[] split = node.getName().getIdentifier().split("\\$");
@@ -178,276 +407,386 @@ public boolean visit(final MethodDeclaration node) {
 
             // check we implement something
             if (mixin.getImplementsData().containsKey(prefix)) {
+                final long start = this.startPhase();
                 final ITypeBinding iface = mixin.getImplementsData().get(prefix);
-                final ClassMapping<?, ?> target = this.mappings.getOrCreateClassMapping(iface.getBinaryName());
-
-                final MethodSignature targetSignature = convertSignature(name, binding);
-                final MethodSignature mixinSignature = BombeBindings.convertSignature(binding);
-
-                // Copy de-obfuscation mapping
-                mixin.copyMethodMapping(
-                        target,
-                        mixinSignature,
-                        targetSignature,
-                        deobfName -> prefix + "$" + deobfName
-                );
+                final ClassMapping<?, ?> target;
+                synchronized (this.mappings) {
+                    target = this.mappings.getOrCreateClassMapping(iface.getBinaryName());
+                }
+                this.dependOnHierarchy(iface);
+
+                if (this.derive) {
+                    final MethodSignature targetSignature = convertSignature(name, binding);
+                    final MethodSignature mixinSignature = BombeBindings.convertSignature(binding);
+
+                    // Copy de-obfuscation mapping
+                    this.resolved(IMPLEMENTS_CLASS, mixin.copyMethodMapping(
+                            this.derived,
+                            target,
+                            mixinSignature,
+                            targetSignature,
+                            deobfName -> prefix + "$" + deobfName
+                    ));
+                }
 
-                return true;
+                this.endPhase(RemapPhase.IMPLEMENTS, start);
+                return;
             }
         }
 
-        // todo: support multiple targets properly
-        final ClassMapping<?, ?> target = this.mappings.getOrCreateClassMapping(mixin.getTargetNames()[0]);
+        final MixinTargets targets = this.session.getTargets(mixin);
+        if (targets.getTargets().isEmpty()) return;
+        this.dependOnTargets(targets);
+
+        // Complete the mappings of each target, from the class index where
+        // its hierarchy is indexed, and using its own binding otherwise
+        final long completionStart = this.startPhase();
+        ITypeBinding[] targetBindings = null;
+        for (int i = 0; i < targets.getTargets().size(); i++) {
+            final ClassMapping<?, ?> target = targets.getTargets().get(i);
+            if (this.classes != null && this.classes.isHierarchyIndexed(target.getFullObfuscatedName())) {
+                this.dependOnHierarchy(target.getFullObfuscatedName());
+                this.session.completions.complete(this.classes.getInheritanceProvider(), target);
+                continue;
+            }
 
-        // todo: only complete the mixin we are targeting
-        for (final ITypeBinding mixinTarget : mixin.getTargets(this.context.getMercury())) {
-            target.complete(this.inheritanceProvider, mixinTarget);
+            if (targetBindings == null) targetBindings = mixin.getTargets(this.resolver);
+            if (i >= targetBindings.length || targetBindings[i] == null) continue;
+            this.dependOnHierarchy(targetBindings[i]);
+            this.session.completions.complete(this.inheritanceProvider, target, targetBindings[i]);
         }
+        this.endPhase(RemapPhase.TARGET_COMPLETION, completionStart);
 
-        for (int i = 0; i < binding.getAnnotations().length; i++) {
-            final IAnnotationBinding annotation = binding.getAnnotations()[i];
-            final String annotationType = annotation.getAnnotationType().getBinaryName();
+        final MethodContext context = new MethodContext(ast, node, binding, mixin, targets);
+        final IAnnotationBinding[] annotations = binding.getAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            final String annotationType = annotations[i].getAnnotationType().getBinaryName();
 
-            // @Shadow
-            if (Objects.equals(SHADOW_CLASS, annotationType)) {
-                final ShadowData shadow = ShadowData.from(annotation);
+            // Only annotations with a registered handler are of interest
+            final MethodAnnotationHandler handler = this.session.handlers.get(annotationType);
+            if (handler == null) continue;
 
-                final boolean usedPrefix = binding.getName().startsWith(shadow.getPrefix());
-                final MethodSignature targetSignature = convertSignature(shadow.stripPrefix(binding.getName()), binding);
-                final MethodSignature mixinSignature = BombeBindings.convertSignature(binding);
+            context.select(i, annotations[i], annotationType);
+            handler.handle(context);
+        }
+    }
 
-                // Copy de-obfuscation mapping
-                mixin.copyMethodMapping(
-                        target,
-                        mixinSignature,
-                        targetSignature,
-                        deobfName -> usedPrefix ? shadow.prefix(deobfName) : deobfName
-                );
-            }
+    // @Shadow
+    private void remapShadowMethod(final MethodContext context) {
+        if (!this.derive) return;
+
+        final IMethodBinding binding = context.binding;
+        final IAnnotationBinding annotation = context.annotation;
+        final String annotationType = context.annotationType;
+        final MixinClass mixin = context.mixin;
+        final MixinTargets targets = context.targets;
+
+        final long start = this.startPhase();
+        final ShadowData shadow = ShadowData.from(annotation);
+
+        final boolean usedPrefix = binding.getName().startsWith(shadow.getPrefix());
+        final MethodSignature targetSignature = convertSignature(shadow.stripPrefix(binding.getName()), binding);
+        final MethodSignature mixinSignature = BombeBindings.convertSignature(binding);
+
+        // Copy de-obfuscation mapping
+        this.resolved(annotationType, mixin.copyMethodMapping(
+                this.derived,
+                targets.getMethodOwner(targetSignature),
+                mixinSignature,
+                targetSignature,
+                deobfName -> usedPrefix ? shadow.prefix(deobfName) : deobfName
+        ));
+        this.endPhase(RemapPhase.SHADOW, start);
+    }
 
-            // @Overwrite
-            if (Objects.equals(OVERWRITE_CLASS, annotationType)) {
-                final MethodSignature signature = BombeBindings.convertSignature(binding);
+    // @Overwrite
+    private void remapOverwriteMethod(final MethodContext context) {
+        if (!this.derive) return;
 
-                // Copy de-obfuscation mapping
-                mixin.copyMethodMapping(target, signature, s -> s);
-            }
+        final IMethodBinding binding = context.binding;
+        final String annotationType = context.annotationType;
+        final MixinClass mixin = context.mixin;
+        final MixinTargets targets = context.targets;
 
-            // @Accessor and @Invoker
-            if (Objects.equals(ACCESSOR_CLASS, annotationType) || Objects.equals(INVOKER_CLASS, annotationType)) {
-                final AccessorName name = AccessorName.of(binding.getName());
-                final AccessorData accessor = AccessorData.from(annotation);
-                final MethodSignature mixinSignature = BombeBindings.convertSignature(binding);
-                final AccessorType type = AccessorType.get(
-                        Objects.equals(INVOKER_CLASS, annotationType),
-                        binding, mixinSignature, accessor
+        final long start = this.startPhase();
+        final MethodSignature signature = BombeBindings.convertSignature(binding);
+
+        // Copy de-obfuscation mapping
+        this.resolved(annotationType, mixin.copyMethodMapping(
+                this.derived, targets.getMethodOwner(signature), signature, s -> s
+        ));
+        this.endPhase(RemapPhase.OVERWRITE, start);
+    }
+
+    // @Accessor and @Invoker
+    private void remapAccessorMethod(final MethodContext context) {
+        final IMethodBinding binding = context.binding;
+        final IAnnotationBinding annotation = context.annotation;
+        final String annotationType = context.annotationType;
+        final MixinClass mixin = context.mixin;
+        final MixinTargets targets = context.targets;
+        final AST ast = context.ast;
+
+        final long start = this.startPhase();
+        final AccessorName name = AccessorName.of(binding.getName());
+        final AccessorData accessor = AccessorData.from(annotation);
+        final MethodSignature mixinSignature = BombeBindings.convertSignature(binding);
+        final AccessorType type = AccessorType.get(
+                Objects.equals(INVOKER_CLASS, annotationType),
+                binding, mixinSignature, accessor
+        );
+
+        // Inflect target from target name, if not set in annotation
+        final boolean inflect = accessor.getTarget().isEmpty();
+        final String targetName = inflect ? name.getName() : accessor.getTarget();
+
+        switch (type) {
+            // @Accessor
+            case FIELD_GETTER:
+            case FIELD_SETTER: {
+                final FieldSignature targetSignature = new FieldSignature(targetName, type == FIELD_GETTER ?
+                        // For getters, use the return type
+                        (FieldType) mixinSignature.getDescriptor().getReturnType() :
+                        // For setters, use the first argument in the method
+                        mixinSignature.getDescriptor().getParamTypes().get(0)
                 );
 
-                // Inflect target from target name, if not set in annotation
-                final boolean inflect = accessor.getTarget().isEmpty();
-                final String targetName = inflect ? name.getName() : accessor.getTarget();
-
-                switch (type) {
-                    // @Accessor
-                    case FIELD_GETTER:
-                    case FIELD_SETTER: {
-                        final FieldSignature targetSignature = new FieldSignature(targetName, type == FIELD_GETTER ?
-                                // For getters, use the return type
-                                (FieldType) mixinSignature.getDescriptor().getReturnType() :
-                                // For setters, use the first argument in the method
-                                mixinSignature.getDescriptor().getParamTypes().get(0)
-                        );
-
-                        // Get mapping of target field
-                        final FieldMapping targetField = target.computeFieldMapping(targetSignature).orElse(null);
-                        if (targetField == null) continue;
-
-                        // Inflect target name from name of method
-                        if (inflect) {
-                            mixin.copyMethodMapping(target, mixinSignature, targetSignature, name::prefix);
-                        }
-                        else {
-                            final Annotation rawAnnotation = (Annotation) node.modifiers().get(i);
-                            replaceValueInAnnotation(ast, this.context, rawAnnotation, targetField.getDeobfuscatedName());
-                        }
-                        break;
+                // Get mapping of target field
+                final ClassMapping<?, ?> target = targets.getFieldOwner(targetSignature);
+                final FieldMapping targetField = target.computeFieldMapping(targetSignature).orElse(null);
+                this.resolved(annotationType, targetField != null);
+                if (targetField == null) break;
+
+                // Inflect target name from name of method
+                if (inflect) {
+                    if (this.derive) {
+                        mixin.copyMethodMapping(this.derived, target, mixinSignature, targetSignature, name::prefix);
                     }
+                }
+                else if (this.rewrite != null) {
+                    final Annotation rawAnnotation = context.getAnnotationNode();
+                    this.replaceValueInAnnotation(ast, rawAnnotation, targetField.getDeobfuscatedName());
+                }
+                break;
+            }
 
-                    // @Invoker
-                    case METHOD_PROXY: {
-                        final MethodSignature targetSignature = new MethodSignature(targetName, mixinSignature.getDescriptor());
+            // @Invoker
+            case METHOD_PROXY: {
+                final MethodSignature targetSignature = new MethodSignature(targetName, mixinSignature.getDescriptor());
 
-                        // Get mapping of target field
-                        final MethodMapping targetMethod = target.getMethodMapping(targetSignature).orElse(null);
-                        if (targetMethod == null) continue;
+                // Get mapping of target field
+                final ClassMapping<?, ?> target = targets.getMethodOwner(targetSignature);
+                final MethodMapping targetMethod = target.getMethodMapping(targetSignature).orElse(null);
+                this.resolved(annotationType, targetMethod != null);
+                if (targetMethod == null) break;
 
-                        // Inflect target name from name of method
-                        if (inflect) {
-                            mixin.copyMethodMapping(target, mixinSignature, targetSignature, name::prefix);
-                        }
-                        else {
-                            final Annotation rawAnnotation = (Annotation) node.modifiers().get(i);
-                            replaceValueInAnnotation(ast, this.context, rawAnnotation, targetMethod.getDeobfuscatedName());
-                        }
-                        break;
-                    }
-                    case OBJECT_FACTORY: {
-                        // @Invoker.value will always be either <init> or the target class name
-                        if (!Objects.equals("<init>", accessor.getTarget())) {
-                            // Remap target class name
-                            final ClassMapping<?, ?> targetClass = this.mappings.computeClassMapping(accessor.getTarget()).orElse(null);
-                            if (targetClass == null) continue;
-
-                            final Annotation rawAnnotation = (Annotation) node.modifiers().get(i);
-                            replaceValueInAnnotation(ast, this.context, rawAnnotation, targetClass.getFullDeobfuscatedName());
-                        }
-                        break;
+                // Inflect target name from name of method
+                if (inflect) {
+                    if (this.derive) {
+                        mixin.copyMethodMapping(this.derived, target, mixinSignature, targetSignature, name::prefix);
                     }
                 }
+                else if (this.rewrite != null) {
+                    final Annotation rawAnnotation = context.getAnnotationNode();
+                    this.replaceValueInAnnotation(ast, rawAnnotation, targetMethod.getDeobfuscatedName());
+                }
+                break;
             }
-
-            // @Inject, @Redirect, @ModifyConstant, & @ModifyVariable
-            if (Objects.equals(INJECT_CLASS, annotationType)
-                    || Objects.equals(REDIRECT_CLASS, annotationType)
-                    || Objects.equals(MODIFY_CONSTANT_CLASS, annotationType)
-                    || Objects.equals(MODIFY_VARIABLE_CLASS, annotationType)) {
-                final InjectData inject = InjectData.from(annotation);
-
-                // Find target method(s?)
-                // todo: implement selectors
-                final String[] injectTargets = new String[inject.getInjectTargets().length];
-                for (int j = 0; j < inject.getInjectTargets().length; j++) {
-                    final InjectTarget injectTarget = inject.getInjectTargets()[j];
-                    injectTargets[j] = remapInjectTarget(target, injectTarget);
+            case OBJECT_FACTORY: {
+                // @Invoker.value will always be either <init> or the target class name
+                if (this.rewrite != null && !Objects.equals("<init>", accessor.getTarget())) {
+                    // Remap target class name
+                    this.depend(accessor.getTarget());
+                    final ClassMapping<?, ?> targetClass = this.mappings.computeClassMapping(accessor.getTarget()).orElse(null);
+                    this.resolved(annotationType, targetClass != null);
+                    if (targetClass == null) break;
+
+                    final Annotation rawAnnotation = context.getAnnotationNode();
+                    this.replaceValueInAnnotation(ast, rawAnnotation, targetClass.getFullDeobfuscatedName());
                 }
+                break;
+            }
+        }
+        this.endPhase(RemapPhase.ACCESSOR, start);
+    }
 
-                final NormalAnnotation originalAnnotation = (NormalAnnotation) node.modifiers().get(i);
-                int atIndex = 0;
-                int sliceIndex = 0;
-                for (final Object raw : originalAnnotation.values()) {
-                    final MemberValuePair pair = (MemberValuePair) raw;
+    // @Inject, @Redirect, @ModifyArg, the MixinExtras injectors, and alike
+    private void remapInjectorMethod(final MethodContext context, final InjectData inject) {
+        if (this.rewrite == null) return;
 
-                    // Remap the method pair
-                    // TODO: handle the case where we point towards a string constant?
-                    if (Objects.equals("method", pair.getName().getIdentifier())) {
-                        if (pair.getValue() instanceof StringLiteral || pair.getValue() instanceof InfixExpression) {
-                            replaceExpression(ast, this.context, pair.getValue(), injectTargets[0]);
-                        }
-                        else if (pair.getValue() instanceof ArrayInitializer) {
-                            final ArrayInitializer array = (ArrayInitializer) pair.getValue();
-                            for (int j = 0; j < array.expressions().size(); j++) {
-                                final StringLiteral original = (StringLiteral) array.expressions().get(j);
-                                replaceExpression(ast, this.context, original, injectTargets[j]);
-                            }
-                        }
-                    }
+        this.remapInjector(context.annotationType, context.targets, (NormalAnnotation) context.getAnnotationNode(), inject);
+    }
 
-                    // Remap @At
-                    if (Objects.equals("at", pair.getName().getIdentifier())) {
-                        // it could be a SingleMemberAnnotation here but we don't care about that case
+    /**
+     * Rewrites the targets of an injector annotation, including its
+     * {@code @At} and {@code @Slice} annotations.
+     *
+     * @param annotationType The binary name of the annotation
+     * @param targets The targets of the mixin
+     * @param originalAnnotation The annotation node
+     * @param inject The data held in the annotation
+     */
+    void remapInjector(final String annotationType, final MixinTargets targets,
+                       final NormalAnnotation originalAnnotation, final InjectData inject) {
+        final long start = this.startPhase();
+
+        // Find target method(s?)
+        // todo: implement selectors
+        final String[] injectTargets = new String[inject.getInjectTargets().length];
+        for (int j = 0; j < inject.getInjectTargets().length; j++) {
+            final InjectTarget injectTarget = inject.getInjectTargets()[j];
+            injectTargets[j] = this.remapInjectTarget(annotationType, targets, injectTarget);
+        }
 
-                        if (pair.getValue() instanceof ArrayInitializer) {
-                            final ArrayInitializer value = (ArrayInitializer) pair.getValue();
+        int atIndex = 0;
+        int sliceIndex = 0;
+        for (final Object raw : originalAnnotation.values()) {
+            final MemberValuePair pair = (MemberValuePair) raw;
 
-                            for (final Object expression : value.expressions()) {
-                                if (expression instanceof NormalAnnotation) {
-                                    final NormalAnnotation atAnnotation = (NormalAnnotation) expression;
+            // Remap the method pair
+            // TODO: handle the case where we point towards a string constant?
+            if (Objects.equals("method", pair.getName().getIdentifier())) {
+                if (pair.getValue() instanceof StringLiteral || pair.getValue() instanceof InfixExpression) {
+                    this.replaceExpression(pair.getValue(), injectTargets[0]);
+                }
+                else if (pair.getValue() instanceof ArrayInitializer) {
+                    final ArrayInitializer array = (ArrayInitializer) pair.getValue();
+                    for (int j = 0; j < array.expressions().size(); j++) {
+                        final StringLiteral original = (StringLiteral) array.expressions().get(j);
+                        this.replaceExpression(original, injectTargets[j]);
+                    }
+                }
+            }
 
-                                    final AtData atDatum = inject.getAtData()[atIndex];
-                                    remapAtAnnotation(ast, declaringClass, atAnnotation, atDatum);
-                                }
-                                atIndex++;
-                            }
-                        }
-                        else if (pair.getValue() instanceof NormalAnnotation) {
-                            final NormalAnnotation atAnnotation = (NormalAnnotation) pair.getValue();
+            // Remap @At
+            if (Objects.equals("at", pair.getName().getIdentifier())) {
+                // it could be a SingleMemberAnnotation here but we don't care about that case
+
+                if (pair.getValue() instanceof ArrayInitializer) {
+                    final ArrayInitializer value = (ArrayInitializer) pair.getValue();
+
+                    for (final Object expression : value.expressions()) {
+                        if (expression instanceof NormalAnnotation) {
+                            final NormalAnnotation atAnnotation = (NormalAnnotation) expression;
 
                             final AtData atDatum = inject.getAtData()[atIndex];
-                            remapAtAnnotation(ast, declaringClass, atAnnotation, atDatum);
+                            this.remapAtAnnotation(atAnnotation, atDatum);
                         }
+                        atIndex++;
                     }
+                }
+                else if (pair.getValue() instanceof NormalAnnotation) {
+                    final NormalAnnotation atAnnotation = (NormalAnnotation) pair.getValue();
 
-                    // Remap @Slice
-                    if (Objects.equals("slice", pair.getName().getIdentifier())) {
-                        // it could be a SingleMemberAnnotation here but we don't care about that case
+                    final AtData atDatum = inject.getAtData()[atIndex];
+                    this.remapAtAnnotation(atAnnotation, atDatum);
+                }
+            }
 
-                        if (pair.getValue() instanceof ArrayInitializer) {
-                            final ArrayInitializer value = (ArrayInitializer) pair.getValue();
+            // Remap @Slice
+            if (Objects.equals("slice", pair.getName().getIdentifier())) {
+                // it could be a SingleMemberAnnotation here but we don't care about that case
 
-                            for (final Object expression : value.expressions()) {
-                                if (expression instanceof NormalAnnotation) {
-                                    final NormalAnnotation atAnnotation = (NormalAnnotation) expression;
+                if (pair.getValue() instanceof ArrayInitializer) {
+                    final ArrayInitializer value = (ArrayInitializer) pair.getValue();
 
-                                    final SliceData sliceDatum = inject.getSliceData()[sliceIndex];
-                                    this.remapSliceAnnotation(ast, declaringClass, atAnnotation, sliceDatum);
-                                }
-                                sliceIndex++;
-                            }
-                        }
-                        else if (pair.getValue() instanceof NormalAnnotation) {
-                            final NormalAnnotation atAnnotation = (NormalAnnotation) pair.getValue();
+                    for (final Object expression : value.expressions()) {
+                        if (expression instanceof NormalAnnotation) {
+                            final NormalAnnotation atAnnotation = (NormalAnnotation) expression;
 
                             final SliceData sliceDatum = inject.getSliceData()[sliceIndex];
-                            this.remapSliceAnnotation(ast, declaringClass, atAnnotation, sliceDatum);
+                            this.remapSliceAnnotation(atAnnotation, sliceDatum);
                         }
+                        sliceIndex++;
                     }
                 }
+                else if (pair.getValue() instanceof NormalAnnotation) {
+                    final NormalAnnotation atAnnotation = (NormalAnnotation) pair.getValue();
+
+                    final SliceData sliceDatum = inject.getSliceData()[sliceIndex];
+                    this.remapSliceAnnotation(atAnnotation, sliceDatum);
+                }
             }
         }
-
-        return true;
+        this.endPhase(RemapPhase.INJECTOR, start);
     }
 
-    private String remapInjectTarget(final ClassMapping<?, ?> target, final InjectTarget injectTarget) {
-        final String targetName = injectTarget.getTargetName();
+    private String remapInjectTarget(final String annotationType, final MixinTargets targets,
+                                     final InjectTarget injectTarget) {
+        final String selector = injectTarget.getFullTarget();
+        this.dependOnTargets(targets);
+        this.dependOnDescriptor(selector);
+
+        // Selectors are only memoised for a single target, as otherwise
+        // the lookup may report a conflict
+        final ClassMapping<?, ?> memoTarget = targets.getTargets().size() == 1 ? targets.getPrimary() : null;
+        if (memoTarget != null) {
+            final SelectorMemo.Entry memo = this.session.selectors.get(memoTarget, selector);
+            if (memo != null) {
+                this.resolved(annotationType, memo.isResolved());
+                return memo.getRemapped();
+            }
+        }
 
-        if (injectTarget.getFieldType().isPresent()) {
-            // this is targeting a field
-            final Type fieldType = injectTarget.getFieldType().get();
+        final MemberMapping<?, ?> member = this.findInjectTargetMember(targets, injectTarget);
+        final String remapped = member != null ?
+                this.remapInjectTarget(injectTarget, member) :
+                this.deobfuscateInjectTarget(injectTarget);
 
-            for (final FieldMapping mapping : target.getFieldMappings()) {
-                if (Objects.equals(targetName, mapping.getObfuscatedName())) {
-                    if (mapping.getType().isPresent() && !Objects.equals(mapping.getType().get(), fieldType)) {
-                        // the mapping has a type but it is different than the target type
-                        continue;
-                    }
+        // Recorded before notifying the listener, which may rename the member
+        if (memoTarget != null) {
+            this.session.selectors.put(memoTarget, selector, remapped, member);
+        }
+        this.resolved(annotationType, member != null);
+        return remapped;
+    }
 
-                    final FieldSignature deobfuscatedSignature = mapping.getDeobfuscatedSignature();
-                    String deobfuscatedFieldType = deobfuscatedSignature.getType()
-                            .map(FieldType::toString)
-                            .orElse(null);
-                    if (deobfuscatedFieldType == null) {
-                        deobfuscatedFieldType = this.mappings.deobfuscate(fieldType).toString();
-                    }
+    String findInjectTarget(final MixinTargets targets, final InjectTarget injectTarget) {
+        final MemberMapping<?, ?> member = this.findInjectTargetMember(targets, injectTarget);
+        return member != null ? this.remapInjectTarget(injectTarget, member) : null;
+    }
 
-                    return deobfuscatedFieldType != null ?
-                            deobfuscatedSignature.getName() + ":" + deobfuscatedFieldType :
-                            deobfuscatedSignature.getName();
-                }
-            }
+    private MemberMapping<?, ?> findInjectTargetMember(final MixinTargets targets, final InjectTarget injectTarget) {
+        if (injectTarget.getFieldType().isPresent()) {
+            // this is targeting a field
+            return targets.findField(injectTarget.getTargetName(), injectTarget.getFieldType().get());
         }
         else {
             // this is probably targeting a method
-            for (final MethodMapping mapping : target.getMethodMappings()) {
-                if (Objects.equals(targetName, mapping.getObfuscatedName()) &&
-                        injectTarget.getMethodDescriptor()
-                                .map(d -> d.equals(mapping.getDescriptor()))
-                                .orElse(true)) {
-                    final MethodSignature deobfuscatedSignature = mapping.getDeobfuscatedSignature();
-
-                    return injectTarget.getMethodDescriptor().isPresent() ?
-                            deobfuscatedSignature.getName() + deobfuscatedSignature.getDescriptor().toString() :
-                            deobfuscatedSignature.getName();
-                }
+            return targets.findMethod(injectTarget.getTargetName(), injectTarget.getMethodDescriptor().orElse(null));
+        }
+    }
+
+    private String remapInjectTarget(final InjectTarget injectTarget, final MemberMapping<?, ?> member) {
+        if (member instanceof FieldMapping) {
+            final FieldSignature deobfuscatedSignature = ((FieldMapping) member).getDeobfuscatedSignature();
+            String deobfuscatedFieldType = deobfuscatedSignature.getType()
+                    .map(FieldType::toString)
+                    .orElse(null);
+            if (deobfuscatedFieldType == null) {
+                deobfuscatedFieldType = this.mappings.deobfuscate(injectTarget.getFieldType().get()).toString();
             }
+
+            return deobfuscatedFieldType != null ?
+                    deobfuscatedSignature.getName() + ":" + deobfuscatedFieldType :
+                    deobfuscatedSignature.getName();
         }
+        else {
+            final MethodSignature deobfuscatedSignature = ((MethodMapping) member).getDeobfuscatedSignature();
 
-        final MappingSet mappings = target.getMappings();
+            return injectTarget.getMethodDescriptor().isPresent() ?
+                    deobfuscatedSignature.getName() + deobfuscatedSignature.getDescriptor().toString() :
+                    deobfuscatedSignature.getName();
+        }
+    }
+
+    private String deobfuscateInjectTarget(final InjectTarget injectTarget) {
+        final MappingSet mappings = this.mappings;
         final MethodDescriptor descriptor = injectTarget.getMethodDescriptor().orElse(null);
         final Type type = injectTarget.getFieldType().orElse(null);
 
         final StringBuilder remappedFull = new StringBuilder();
-        remappedFull.append(targetName);
+        remappedFull.append(injectTarget.getTargetName());
         if (descriptor != null) {
             remappedFull.append(mappings.deobfuscate(descriptor));
         }
@@ -459,8 +798,7 @@ private String remapInjectTarget(final ClassMapping<?, ?> target, final InjectTa
         return remappedFull.toString();
     }
 
-    private void remapSliceAnnotation(final AST ast, final ITypeBinding declaringClass, final NormalAnnotation atAnnotation,
-                                      final SliceData sliceDatum) {
+    private void remapSliceAnnotation(final NormalAnnotation atAnnotation, final SliceData sliceDatum) {
         for (final Object raw : atAnnotation.values()) {
             // this will always be a MemberValuePair
             final MemberValuePair pairRaw = (MemberValuePair) raw;
@@ -469,15 +807,15 @@ private void remapSliceAnnotation(final AST ast, final ITypeBinding declaringCla
             if (!(pairRaw.getValue() instanceof NormalAnnotation)) continue;
 
             if (Objects.equals("from", pairRaw.getName().getIdentifier())) {
-                this.remapAtAnnotation(ast, declaringClass, (NormalAnnotation) pairRaw.getValue(), sliceDatum.getFrom());
+                this.remapAtAnnotation((NormalAnnotation) pairRaw.getValue(), sliceDatum.getFrom());
             }
             if (Objects.equals("to", pairRaw.getName().getIdentifier())) {
-                this.remapAtAnnotation(ast, declaringClass, (NormalAnnotation) pairRaw.getValue(), sliceDatum.getTo());
+                this.remapAtAnnotation((NormalAnnotation) pairRaw.getValue(), sliceDatum.getTo());
             }
         }
     }
 
-    private void remapAtAnnotation(final AST ast, final ITypeBinding declaringClass, final NormalAnnotation atAnnotation, final AtData atDatum) {
+    private void remapAtAnnotation(final NormalAnnotation atAnnotation, final AtData atDatum) {
         for (final Object atRaw : atAnnotation.values()) {
             // this will always be a MemberValuePair
             final MemberValuePair atRawPair = (MemberValuePair) atRaw;
@@ -487,23 +825,31 @@ private void remapAtAnnotation(final AST ast, final ITypeBinding declaringClass,
                 // make sure everything is present
                 if (atDatum.getClassName().isPresent()) {
                     final String className = atDatum.getClassName().get();
+                    this.depend(className);
                     final Expression originalTarget = atRawPair.getValue();
 
                     // get the class mapping of the class that owns the target we're remapping
                     final ClassMapping<?, ?> atTargetMappings = this.mappings.computeClassMapping(className).orElse(null);
-                    if (atTargetMappings == null) continue;
+                    if (atTargetMappings == null) {
+                        this.resolved(AT_CLASS, false);
+                        continue;
+                    }
 
                     final String deobfTargetClass = atTargetMappings.getFullDeobfuscatedName();
 
                     if (atDatum.getTarget().isPresent()) {
                         final InjectTarget atTarget = atDatum.getTarget().get();
-                        final String newTarget = remapInjectTarget(atTargetMappings, atTarget);
+                        final String newTarget = this.remapInjectTarget(AT_CLASS, new MixinTargets(
+                                className, Collections.singletonList(atTargetMappings),
+                                this.session.members, RemapListener.NONE
+                        ), atTarget);
                         String deobfTarget = "L" + deobfTargetClass + ";" + newTarget;
-                        replaceExpression(ast, this.context, originalTarget, deobfTarget);
+                        this.replaceExpression(originalTarget, deobfTarget);
                     }
                     else {
                         // it's just the class name
-                        replaceExpression(ast, this.context, originalTarget, deobfTargetClass);
+                        this.resolved(AT_CLASS, true);
+                        this.replaceExpression(originalTarget, deobfTargetClass);
                     }
                 }
             }
@@ -512,14 +858,24 @@ private void remapAtAnnotation(final AST ast, final ITypeBinding declaringClass,
 
     private void visit(final SimpleName node, final IBinding binding) {
         switch (binding.getKind()) {
-            case IBinding.VARIABLE:
-                this.remapField(node, ((IVariableBinding) binding).getVariableDeclaration());
+            case IBinding.VARIABLE: {
+                final IVariableBinding variable = ((IVariableBinding) binding).getVariableDeclaration();
+
+                // Each field only needs to be looked at once per unit
+                if (variable.isField() && this.visitedFields.add(variable.getKey())) {
+                    this.remapField(node, variable);
+                }
                 break;
+            }
         }
     }
 
     @Override
     public final boolean visit(final SimpleName node) {
+        // Names are only visited to derive mappings for shadowed fields, which
+        // can only be referenced from within a mixin
+        if (!this.derive || this.mixinDepth == 0 || !mayReferenceField(node)) return false;
+
         final IBinding binding = node.resolveBinding();
         if (binding != null) {
             this.visit(node, binding);
@@ -527,19 +883,106 @@ public final boolean visit(final SimpleName node) {
         return false;
     }
 
+    /**
+     * Checks whether the given name could refer to a field, from where it
+     * is in the tree - without resolving its binding.
+     *
+     * @param node The name
+     * @return {@code true} if the name could be a field
+     */
+    private static boolean mayReferenceField(final SimpleName node) {
+        final StructuralPropertyDescriptor location = node.getLocationInParent();
+        if (location == VariableDeclarationFragment.NAME_PROPERTY) {
+            // Only the declarations of fields, rather than local variables
+            return node.getParent().getParent() instanceof FieldDeclaration;
+        }
+        return !NON_FIELD_LOCATIONS.contains(location);
+    }
+
     @Override
     public boolean visit(final TypeDeclaration node) {
-        this.remapPrivateMixinTarget(node.getAST(), node, node.resolveBinding());
+        final ITypeBinding binding = node.resolveBinding();
+        final boolean mixin = binding != null && this.session.registry.fetch(binding) != null;
+        this.mixinTypes.push(mixin);
+        if (!mixin) return true;
+
+        this.mixinDepth++;
+        if (this.listening) {
+            this.listener.mixinProcessed(binding.getBinaryName());
+        }
+
+        if (this.rewrite != null) {
+            final long start = this.startPhase();
+            this.remapPrivateMixinTarget(node.getAST(), node);
+            this.endPhase(RemapPhase.PRIVATE_TARGETS, start);
+        }
         return true;
     }
 
-    private static void replaceExpression(final AST ast, final RewriteContext context, final Expression original, final String replacement) {
-        final StringLiteral replacementLiteral = ast.newStringLiteral();
-        replacementLiteral.setLiteralValue(replacement);
-        context.createASTRewrite().replace(original, replacementLiteral, null);
+    @Override
+    public void endVisit(final TypeDeclaration node) {
+        if (this.mixinTypes.pop()) {
+            this.mixinDepth--;
+        }
+    }
+
+    @Override
+    public boolean visit(final FieldDeclaration node) {
+        if (this.cleaner != null && this.mixinDepth > 0) {
+            this.cleaner.visit(node);
+        }
+        return true;
     }
 
-    private static void replaceValueInAnnotation(final AST ast, final RewriteContext context, final Annotation rawAnnotation, final String replacement) {
+    /**
+     * Cleans the given field declaration of a mixin, if the mixins are
+     * being cleaned.
+     *
+     * @param node The field declaration
+     */
+    void clean(final FieldDeclaration node) {
+        if (this.cleaner != null) {
+            this.cleaner.visit(node);
+        }
+    }
+
+    // Names within these nodes are only ever of types or packages
+
+    @Override
+    public boolean visit(final PackageDeclaration node) {
+        return false;
+    }
+
+    @Override
+    public boolean visit(final ImportDeclaration node) {
+        return false;
+    }
+
+    @Override
+    public boolean visit(final SimpleType node) {
+        return false;
+    }
+
+    @Override
+    public boolean visit(final QualifiedType node) {
+        return false;
+    }
+
+    @Override
+    public boolean visit(final NameQualifiedType node) {
+        return false;
+    }
+
+    void replaceExpression(final Expression original, final String replacement) {
+        if (this.batch.replace(original, replacement) && this.listening) {
+            this.listener.literalRewritten();
+        }
+        if (this.record) {
+            this.edits.put(NodePath.of(original), replacement);
+        }
+    }
+
+    void replaceValueInAnnotation(final AST ast, final Annotation rawAnnotation, final String replacement) {
         if (rawAnnotation.isNormalAnnotation()) {
             final NormalAnnotation annotationNode = (NormalAnnotation) rawAnnotation;
 
@@ -549,14 +992,14 @@ private static void replaceValueInAnnotation(final AST ast, final RewriteContext
                 // Remap the method pair
                 if (Objects.equals("value", pair.getName().getIdentifier())) {
                     final StringLiteral original = (StringLiteral) pair.getValue();
-                    replaceExpression(ast, context, original, replacement);
+                    this.replaceExpression(original, replacement);
                 }
             }
         }
         else if (rawAnnotation.isSingleMemberAnnotation()) {
             final SingleMemberAnnotation annotationNode = (SingleMemberAnnotation) rawAnnotation;
             final StringLiteral original = (StringLiteral) annotationNode.getValue();
-            replaceExpression(ast, context, original, replacement);
+            this.replaceExpression(original, replacement);
         }
         else {
             throw new RuntimeException("Unexpected annotation: " + rawAnnotation.getClass().getName());
@@ -578,4 +1021,102 @@ private static MethodSignature convertSignature(final String name, final IMethod
         return new MethodSignature(name, new MethodDescriptor(parameters, convertType(binding.getReturnType())));
     }
 
+    /**
+     * The context handlers for the annotations on a single mixin method are
+     * called with, re-pointed at each annotation in turn.
+     */
+    private final class MethodContext implements MethodAnnotationContext {
+
+        final AST ast;
+        final MethodDeclaration node;
+        final IMethodBinding binding;
+        final MixinClass mixin;
+        final MixinTargets targets;
+
+        int index;
+        IAnnotationBinding annotation;
+        String annotationType;
+
+        MethodContext(final AST ast, final MethodDeclaration node, final IMethodBinding binding,
+                      final MixinClass mixin, final MixinTargets targets) {
+            this.ast = ast;
+            this.node = node;
+            this.binding = binding;
+            this.mixin = mixin;
+            this.targets = targets;
+        }
+
+        void select(final int index, final IAnnotationBinding annotation, final String annotationType) {
+            this.index = index;
+            this.annotation = annotation;
+            this.annotationType = annotationType;
+        }
+
+        @Override
+        public MethodDeclaration getMethod() {
+            return this.node;
+        }
+
+        @Override
+        public IMethodBinding getBinding() {
+            return this.binding;
+        }
+
+        @Override
+        public MixinClass getMixin() {
+            return this.mixin;
+        }
+
+        @Override
+        public IAnnotationBinding getAnnotation() {
+            return this.annotation;
+        }
+
+        @Override
+        public Annotation getAnnotationNode() {
+            return (Annotation) this.node.modifiers().get(this.index);
+        }
+
+        @Override
+        public String getAnnotationType() {
+            return this.annotationType;
+        }
+
+        @Override
+        public boolean isDeriving() {
+            return MixinRemapperVisitor.this.derive;
+        }
+
+        @Override
+        public boolean isRewriting() {
+            return MixinRemapperVisitor.this.rewrite != null;
+        }
+
+        @Override
+        public ParseCache getParseCache() {
+            return MixinRemapperVisitor.this.parseCache;
+        }
+
+        @Override
+        public void remapShadow() {
+            MixinRemapperVisitor.this.remapShadowMethod(this);
+        }
+
+        @Override
+        public void remapOverwrite() {
+            MixinRemapperVisitor.this.remapOverwriteMethod(this);
+        }
+
+        @Override
+        public void remapAccessor() {
+            MixinRemapperVisitor.this.remapAccessorMethod(this);
+        }
+
+        @Override
+        public void remapInjector(final InjectData inject) {
+            MixinRemapperVisitor.this.remapInjectorMethod(this, inject);
+        }
+
+    }
+
 }
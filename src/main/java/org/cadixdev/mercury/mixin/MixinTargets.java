@@ -0,0 +1,220 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.Type;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.MemberMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The {@link ClassMapping mappings} of every target of a mixin, looked up
+ * as if they were a single class.
+ * <p>
+ * Members are resolved against the targets in the order they were
+ * declared, so the first target with a mapping for a member wins. Should
+ * another target map the same member to a different name, the conflict is
+ * reported to the {@link RemapListener listener} - once per member.
+ */
+final class MixinTargets {
+
+    private final String mixin;
+    private final List<ClassMapping<?, ?>> targets;
+    private final MemberIndex members;
+    private final RemapListener listener;
+    private Set<String> conflicts;
+
+    /**
+     * Creates a view of the given targets.
+     *
+     * @param mixin The binary name of the mixin
+     * @param targets The targets, in the order they were declared
+     * @param members The member index to look members up with
+     * @param listener The listener to report conflicts to
+     */
+    MixinTargets(final String mixin, final List<ClassMapping<?, ?>> targets, final MemberIndex members,
+                 final RemapListener listener) {
+        this.mixin = mixin;
+        this.targets = targets;
+        this.members = members;
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the mappings of each target, in the order they were declared.
+     *
+     * @return The targets
+     */
+    List<ClassMapping<?, ?>> getTargets() {
+        return this.targets;
+    }
+
+    /**
+     * Gets the mappings of the first target, which members are resolved
+     * against should no target have a mapping for them.
+     *
+     * @return The primary target
+     */
+    ClassMapping<?, ?> getPrimary() {
+        return this.targets.get(0);
+    }
+
+    /**
+     * Gets the target holding the mapping for the given field.
+     *
+     * @param signature The signature of the field, in the target
+     * @return The target, or the {@link #getPrimary() primary target} if
+     *         no target has a mapping for the field
+     */
+    ClassMapping<?, ?> getFieldOwner(final FieldSignature signature) {
+        if (this.targets.size() == 1) return this.getPrimary();
+
+        ClassMapping<?, ?> owner = null;
+        FieldMapping found = null;
+        Map<String, String> names = null;
+        for (final ClassMapping<?, ?> target : this.targets) {
+            final FieldMapping mapping = target.computeFieldMapping(signature).orElse(null);
+            if (mapping == null) continue;
+
+            if (found == null) {
+                owner = target;
+                found = mapping;
+            }
+            else {
+                names = this.checkConflict(names, found, mapping);
+            }
+        }
+
+        this.reportConflict(signature.getName() + signature.getType().map(type -> ":" + type).orElse(""), names);
+        return owner != null ? owner : this.getPrimary();
+    }
+
+    /**
+     * Gets the target holding the mapping for the given method.
+     *
+     * @param signature The signature of the method, in the target
+     * @return The target, or the {@link #getPrimary() primary target} if
+     *         no target has a mapping for the method
+     */
+    ClassMapping<?, ?> getMethodOwner(final MethodSignature signature) {
+        if (this.targets.size() == 1) return this.getPrimary();
+
+        ClassMapping<?, ?> owner = null;
+        MethodMapping found = null;
+        Map<String, String> names = null;
+        for (final ClassMapping<?, ?> target : this.targets) {
+            final MethodMapping mapping = target.getMethodMapping(signature).orElse(null);
+            if (mapping == null) continue;
+
+            if (found == null) {
+                owner = target;
+                found = mapping;
+            }
+            else {
+                names = this.checkConflict(names, found, mapping);
+            }
+        }
+
+        this.reportConflict(signature.getName() + signature.getDescriptor(), names);
+        return owner != null ? owner : this.getPrimary();
+    }
+
+    /**
+     * Finds the field mapping with the given obfuscated name and, if the
+     * mapping has one, type - in any of the targets.
+     *
+     * @param name The obfuscated name of the field
+     * @param type The obfuscated type of the field
+     * @return The field mapping, or {@code null} if none matches
+     * @see MemberIndex#findField(ClassMapping, String, Type)
+     */
+    FieldMapping findField(final String name, final Type type) {
+        FieldMapping found = null;
+        Map<String, String> names = null;
+        for (final ClassMapping<?, ?> target : this.targets) {
+            final FieldMapping mapping = this.members.findField(target, name, type);
+            if (mapping == null) continue;
+
+            if (found == null) {
+                found = mapping;
+            }
+            else {
+                names = this.checkConflict(names, found, mapping);
+            }
+        }
+
+        this.reportConflict(name + ":" + type, names);
+        return found;
+    }
+
+    /**
+     * Finds the method mapping with the given obfuscated name and, if
+     * given, descriptor - in any of the targets.
+     *
+     * @param name The obfuscated name of the method
+     * @param descriptor The obfuscated descriptor of the method, or
+     *                   {@code null} to match any overload
+     * @return The method mapping, or {@code null} if none matches
+     * @see MemberIndex#findMethod(ClassMapping, String, MethodDescriptor)
+     */
+    MethodMapping findMethod(final String name, final MethodDescriptor descriptor) {
+        MethodMapping found = null;
+        Map<String, String> names = null;
+        for (final ClassMapping<?, ?> target : this.targets) {
+            final MethodMapping mapping = this.members.findMethod(target, name, descriptor);
+            if (mapping == null) continue;
+
+            if (found == null) {
+                found = mapping;
+            }
+            else {
+                names = this.checkConflict(names, found, mapping);
+            }
+        }
+
+        this.reportConflict(descriptor != null ? name + descriptor : name, names);
+        return found;
+    }
+
+    private Map<String, String> checkConflict(Map<String, String> names, final MemberMapping<?, ?> found,
+                                              final MemberMapping<?, ?> mapping) {
+        if (names == null) {
+            if (Objects.equals(found.getDeobfuscatedName(), mapping.getDeobfuscatedName())) return null;
+
+            names = new LinkedHashMap<>();
+            names.put(found.getParent().getFullObfuscatedName(), found.getDeobfuscatedName());
+        }
+        names.put(mapping.getParent().getFullObfuscatedName(), mapping.getDeobfuscatedName());
+        return names;
+    }
+
+    private void reportConflict(final String member, final Map<String, String> names) {
+        if (names == null) return;
+
+        synchronized (this) {
+            if (this.conflicts == null) {
+                this.conflicts = new HashSet<>();
+            }
+            if (!this.conflicts.add(member)) return;
+        }
+
+        this.listener.mappingConflict(this.mixin, member, Collections.unmodifiableMap(names));
+    }
+
+}
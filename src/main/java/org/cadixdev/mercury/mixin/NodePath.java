@@ -0,0 +1,94 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Utilities for locating an {@link ASTNode} by its structural path from the
+ * root of the tree, which - unlike its source position - doesn't change
+ * when comments or formatting do.
+ */
+final class NodePath {
+
+    /**
+     * Gets the path to the given node.
+     *
+     * @param node The node
+     * @return The path
+     */
+    static String of(final ASTNode node) {
+        final Deque<String> steps = new ArrayDeque<>();
+
+        ASTNode current = node;
+        while (current.getParent() != null) {
+            final StructuralPropertyDescriptor location = current.getLocationInParent();
+
+            if (location.isChildListProperty()) {
+                final List<?> siblings = (List<?>) current.getParent().getStructuralProperty(location);
+                steps.addFirst(location.getId() + '.' + siblings.indexOf(current));
+            }
+            else {
+                steps.addFirst(location.getId());
+            }
+
+            current = current.getParent();
+        }
+
+        return String.join("/", steps);
+    }
+
+    /**
+     * Finds the node at the given path.
+     *
+     * @param root The root of the tree
+     * @param path The path
+     * @return The node, or {@code null} if there is no node at the path
+     */
+    static ASTNode resolve(final ASTNode root, final String path) {
+        if (path.isEmpty()) return root;
+
+        ASTNode current = root;
+        for (final String step : path.split("/")) {
+            final int dot = step.indexOf('.');
+            final String id = dot >= 0 ? step.substring(0, dot) : step;
+
+            final StructuralPropertyDescriptor property = findProperty(current, id);
+            if (property == null) return null;
+
+            Object value = current.getStructuralProperty(property);
+            if (dot >= 0) {
+                final List<?> children = (List<?>) value;
+                final int index = Integer.parseInt(step.substring(dot + 1));
+                if (index < 0 || index >= children.size()) return null;
+                value = children.get(index);
+            }
+
+            if (!(value instanceof ASTNode)) return null;
+            current = (ASTNode) value;
+        }
+
+        return current;
+    }
+
+    private static StructuralPropertyDescriptor findProperty(final ASTNode node, final String id) {
+        for (final Object raw : node.structuralPropertiesForType()) {
+            final StructuralPropertyDescriptor property = (StructuralPropertyDescriptor) raw;
+            if (property.getId().equals(id)) return property;
+        }
+        return null;
+    }
+
+    private NodePath() {
+    }
+
+}
@@ -0,0 +1,540 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.bombe.type.FieldType;
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.TypeReader;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.FieldMapping;
+import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.mercury.mixin.bytecode.ClassMetadata;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ChildListPropertyDescriptor;
+import org.eclipse.jdt.core.dom.ChildPropertyDescriptor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An on-disk cache of the work done for each compilation unit, allowing
+ * units to be skipped on later runs.
+ * <p>
+ * Units are keyed by a hash of their source, the work required of them
+ * and the configuration of the processor doing it (whether it cleans the
+ * mixins, how it rewrites literals, and the annotations it handles) - so a
+ * collector and a rewriter can share a cache. Each unit records the
+ * classes it depended on - its targets (and their hierarchy), the owners of
+ * its {@code @At} targets, and the classes named in selectors - along with
+ * a fingerprint of each class's mappings and structure (its supertypes and
+ * members). A unit is only reused if none of those have changed, so
+ * updating the mappings only reprocesses the mixins affected by the change.
+ */
+final class RemapCache {
+
+    private static final String HEADER = "mercurymixin-cache 5";
+    static final String MISSING = "-";
+
+    private static final byte END = 0;
+    private static final byte UNIT = 1;
+    private static final byte DEPENDS = 2;
+    private static final byte FIELD = 3;
+    private static final byte METHOD = 4;
+    private static final byte EDIT = 5;
+
+    private final Path file;
+    private final Map<String, Entry> cached = new ConcurrentHashMap<>();
+    private final Map<String, Entry> used = new ConcurrentHashMap<>();
+    private final Set<String> modes = ConcurrentHashMap.newKeySet();
+    private Map<String, String> fingerprints = Collections.emptyMap();
+    private String config = "";
+
+    RemapCache(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Gets the file the cache is kept in.
+     *
+     * @return The cache file
+     */
+    Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * Loads the cache for a new run.
+     *
+     * @param mappings The input mappings, before any have been derived
+     * @param config The configuration of the processor
+     */
+    void load(final MappingSet mappings, final String config) {
+        this.cached.clear();
+        this.used.clear();
+        this.modes.clear();
+        this.fingerprints = fingerprint(mappings);
+
+        // Recorded with every unit, so kept short
+        final MessageDigest digest = digest();
+        update(digest, config);
+        this.config = hex(digest.digest()).substring(0, 16);
+        if (!Files.exists(this.file)) return;
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(this.file))))) {
+            if (!HEADER.equals(in.readUTF())) return;
+
+            Entry entry = null;
+            int record;
+            while ((record = in.readByte()) != END) {
+                switch (record) {
+                    case UNIT: {
+                        final String unitHash = in.readUTF();
+                        final String mode = in.readUTF();
+                        entry = new Entry(in.readBoolean(), in.readBoolean());
+                        this.cached.put(unitHash + ' ' + mode, entry);
+                        break;
+                    }
+                    case DEPENDS:
+                        entry.dependencies.put(in.readUTF(), in.readUTF());
+                        break;
+                    case FIELD: {
+                        final String className = in.readUTF();
+                        final String name = in.readUTF();
+                        final FieldSignature signature = in.readBoolean() ?
+                                new FieldSignature(name, (FieldType) new TypeReader(in.readUTF()).readType()) :
+                                new FieldSignature(name);
+                        entry.derived.addFieldMapping(className, signature, in.readUTF(), in.readUTF());
+                        break;
+                    }
+                    case METHOD:
+                        entry.derived.addMethodMapping(in.readUTF(), new MethodSignature(in.readUTF(),
+                                MethodDescriptor.of(in.readUTF())), in.readUTF(), in.readUTF());
+                        break;
+                    case EDIT:
+                        entry.edits.put(in.readUTF(), readString(in));
+                        break;
+                    default:
+                        throw new IOException("Unknown record " + record);
+                }
+            }
+        }
+        catch (final IOException | RuntimeException ex) {
+            // A corrupt cache is no worse than no cache
+            this.cached.clear();
+        }
+    }
+
+    /**
+     * Gets the entry for the unit with the given hash, provided it was
+     * recorded for the same work and configuration, and none of the classes
+     * it depended on have changed.
+     *
+     * @param unitHash The hash of the unit
+     * @param derive Whether mappings are derived from the unit
+     * @param rewrite Whether the unit is rewritten
+     * @param fingerprints The current fingerprint of each dependency
+     * @return The entry, or {@code null} if the unit needs processing
+     */
+    Entry get(final String unitHash, final boolean derive, final boolean rewrite,
+              final Function<String, String> fingerprints) {
+        this.modes.add(this.mode(derive, rewrite));
+        final String key = this.key(unitHash, derive, rewrite);
+        final Entry entry = this.cached.get(key);
+        if (entry == null) return null;
+
+        for (final Map.Entry<String, String> dependency : entry.dependencies.entrySet()) {
+            if (!dependency.getValue().equals(fingerprints.apply(dependency.getKey()))) return null;
+        }
+
+        this.used.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Records the work done for the unit with the given hash.
+     *
+     * @param unitHash The hash of the unit
+     * @param entry The entry
+     */
+    void put(final String unitHash, final Entry entry) {
+        this.modes.add(this.mode(entry.derive, entry.rewrite));
+        this.used.put(this.key(unitHash, entry.derive, entry.rewrite), entry);
+    }
+
+    /**
+     * Gets the fingerprint of the mappings for the given class, as they were
+     * when the cache was loaded.
+     *
+     * @param className The obfuscated name of the class
+     * @return The fingerprint
+     */
+    String getFingerprint(final String className) {
+        return this.fingerprints.getOrDefault(className, MISSING);
+    }
+
+    /**
+     * Writes the cache, keeping only the units seen during the run - along
+     * with those recorded for other work, such as by a collector sharing
+     * the cache with a rewriter.
+     * <p>
+     * The cache is written to a temporary file first, which is removed
+     * should writing it fail - leaving the cache from the last run in place.
+     *
+     * @throws IOException Should the cache fail to write
+     */
+    void save() throws IOException {
+        final Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+        try {
+            if (this.file.getParent() != null) {
+                Files.createDirectories(this.file.getParent());
+            }
+
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeUTF(HEADER);
+
+                final Map<String, Entry> units = new TreeMap<>(this.used);
+                for (final Map.Entry<String, Entry> unit : this.cached.entrySet()) {
+                    if (!this.modes.contains(unit.getKey().substring(unit.getKey().indexOf(' ') + 1))) {
+                        units.putIfAbsent(unit.getKey(), unit.getValue());
+                    }
+                }
+
+                for (final Map.Entry<String, Entry> unit : units.entrySet()) {
+                    final Entry entry = unit.getValue();
+                    out.writeByte(UNIT);
+                    final int mode = unit.getKey().indexOf(' ');
+                    out.writeUTF(unit.getKey().substring(0, mode));
+                    out.writeUTF(unit.getKey().substring(mode + 1));
+                    out.writeBoolean(entry.derive);
+                    out.writeBoolean(entry.rewrite);
+
+                    for (final Map.Entry<String, String> dependency : new TreeMap<>(entry.dependencies).entrySet()) {
+                        out.writeByte(DEPENDS);
+                        out.writeUTF(dependency.getKey());
+                        out.writeUTF(dependency.getValue());
+                    }
+                    entry.derived.forEachField((className, signature, owner, deobfName) -> write(() -> {
+                        out.writeByte(FIELD);
+                        out.writeUTF(className);
+                        out.writeUTF(signature.getName());
+                        out.writeBoolean(signature.getType().isPresent());
+                        if (signature.getType().isPresent()) {
+                            out.writeUTF(signature.getType().get().toString());
+                        }
+                        out.writeUTF(owner);
+                        out.writeUTF(deobfName);
+                    }));
+                    entry.derived.forEachMethod((className, signature, owner, deobfName) -> write(() -> {
+                        out.writeByte(METHOD);
+                        out.writeUTF(className);
+                        out.writeUTF(signature.getName());
+                        out.writeUTF(signature.getDescriptor().toString());
+                        out.writeUTF(owner);
+                        out.writeUTF(deobfName);
+                    }));
+                    for (final Map.Entry<String, String> edit : entry.edits.entrySet()) {
+                        out.writeByte(EDIT);
+                        out.writeUTF(edit.getKey());
+                        writeString(out, edit.getValue());
+                    }
+                }
+                out.writeByte(END);
+            }
+
+            Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (final IOException | UncheckedIOException ex) {
+            try {
+                Files.deleteIfExists(temp);
+            }
+            catch (final IOException ignored) {
+            }
+            if (ex instanceof UncheckedIOException) throw ((UncheckedIOException) ex).getCause();
+            throw (IOException) ex;
+        }
+        finally {
+            this.cached.clear();
+            this.used.clear();
+            this.modes.clear();
+        }
+    }
+
+    private String key(final String unitHash, final boolean derive, final boolean rewrite) {
+        return unitHash + ' ' + this.mode(derive, rewrite);
+    }
+
+    private String mode(final boolean derive, final boolean rewrite) {
+        return (derive ? "derive" : "") + (rewrite ? "rewrite" : "") + ' ' + this.config;
+    }
+
+    private static void write(final Record record) {
+        try {
+            record.write();
+        }
+        catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // The replacements of edits are source code, which can be longer than
+    // writeUTF allows
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Hashes the source of a compilation unit. Comments and formatting are
+     * ignored, as they don't affect the work done for the unit.
+     * <p>
+     * The unit is hashed from its tokens, read through the structural
+     * properties of its syntax tree - which, unlike the tree's
+     * {@link CompilationUnit#toString() debug string}, don't change between
+     * versions of JDT.
+     *
+     * @param unit The compilation unit
+     * @return The hash
+     */
+    static String hash(final CompilationUnit unit) {
+        final MessageDigest digest = digest();
+        hash(digest, unit);
+        return hex(digest.digest());
+    }
+
+    private static void hash(final MessageDigest digest, final ASTNode node) {
+        // Javadoc is the only comment held in the tree
+        if (node == null || node.getNodeType() == ASTNode.JAVADOC) {
+            update(digest, MISSING);
+            return;
+        }
+
+        update(digest, Integer.toString(node.getNodeType()));
+        for (final Object property : node.structuralPropertiesForType()) {
+            final Object value = node.getStructuralProperty((StructuralPropertyDescriptor) property);
+            if (property instanceof ChildListPropertyDescriptor) {
+                final List<?> children = (List<?>) value;
+                update(digest, Integer.toString(children.size()));
+                for (final Object child : children) {
+                    hash(digest, (ASTNode) child);
+                }
+            }
+            else if (property instanceof ChildPropertyDescriptor) {
+                hash(digest, (ASTNode) value);
+            }
+            else {
+                // Names, literals, modifiers and operators
+                update(digest, String.valueOf(value));
+            }
+        }
+    }
+
+    /**
+     * Fingerprints the structure of an indexed class - its modifiers,
+     * supertypes and members.
+     *
+     * @param klass The class
+     * @return The fingerprint
+     */
+    static String fingerprint(final ClassMetadata klass) {
+        final List<String> members = new ArrayList<>();
+        for (final ClassMetadata.Member field : klass.getFields()) {
+            members.add("field " + field.getName() + ' ' + field.getDescriptor() + ' ' + field.getAccess());
+        }
+        for (final ClassMetadata.Member method : klass.getMethods()) {
+            members.add("method " + method.getName() + method.getDescriptor() + ' ' + method.getAccess());
+        }
+
+        return structure("index", klass.getAccess(),
+                klass.getSuperName() != null ? klass.getSuperName() : MISSING, klass.getInterfaces(), members);
+    }
+
+    /**
+     * Fingerprints the structure of a class from its binding - its
+     * modifiers, supertypes and members.
+     *
+     * @param binding The class
+     * @return The fingerprint
+     */
+    static String fingerprint(final ITypeBinding binding) {
+        final List<String> members = new ArrayList<>();
+        for (final IVariableBinding field : binding.getDeclaredFields()) {
+            members.add("field " + field.getName() + ' ' + name(field.getType()) + ' ' + field.getModifiers());
+        }
+        for (final IMethodBinding method : binding.getDeclaredMethods()) {
+            final StringBuilder member = new StringBuilder("method ").append(method.getName()).append('(');
+            for (final ITypeBinding parameter : method.getParameterTypes()) {
+                member.append(name(parameter)).append(';');
+            }
+            member.append(')').append(name(method.getReturnType())).append(' ').append(method.getModifiers());
+            members.add(member.toString());
+        }
+
+        final List<String> interfaces = new ArrayList<>();
+        for (final ITypeBinding iface : binding.getInterfaces()) {
+            interfaces.add(name(iface));
+        }
+        return structure("binding", binding.getModifiers(),
+                binding.getSuperclass() != null ? name(binding.getSuperclass()) : MISSING, interfaces, members);
+    }
+
+    private static String name(final ITypeBinding type) {
+        return String.valueOf(type.getErasure().getBinaryName());
+    }
+
+    private static String structure(final String source, final int modifiers, final String superName,
+                                    final List<String> interfaces, final List<String> members) {
+        members.sort(null);
+
+        final MessageDigest digest = digest();
+        update(digest, source);
+        update(digest, Integer.toString(modifiers));
+        update(digest, superName);
+        update(digest, Integer.toString(interfaces.size()));
+        for (final String iface : interfaces) {
+            update(digest, iface);
+        }
+        for (final String member : members) {
+            update(digest, member);
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * Fingerprints the mappings of every class in the given mapping set.
+     *
+     * @param mappings The mappings
+     * @return The fingerprints, by obfuscated class name
+     */
+    static Map<String, String> fingerprint(final MappingSet mappings) {
+        final Map<String, String> fingerprints = new HashMap<>();
+        final MessageDigest digest = digest();
+        for (final ClassMapping<?, ?> klass : mappings.getTopLevelClassMappings()) {
+            fingerprint(fingerprints, digest, klass);
+        }
+        return fingerprints;
+    }
+
+    private static void fingerprint(final Map<String, String> fingerprints, final MessageDigest digest,
+                                    final ClassMapping<?, ?> klass) {
+        final List<String> members = new ArrayList<>();
+        for (final FieldMapping field : klass.getFieldMappings()) {
+            members.add("field " + field.getSignature() + ' ' + field.getDeobfuscatedName());
+        }
+        for (final MethodMapping method : klass.getMethodMappings()) {
+            members.add("method " + method.getSignature() + ' ' + method.getDeobfuscatedName());
+        }
+        members.sort(null);
+
+        update(digest, klass.getFullDeobfuscatedName());
+        for (final String member : members) {
+            update(digest, member);
+        }
+        fingerprints.put(klass.getFullObfuscatedName(), hex(digest.digest()));
+
+        for (final ClassMapping<?, ?> inner : klass.getInnerClassMappings()) {
+            fingerprint(fingerprints, digest, inner);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        // Length-prefixed, as literals may hold any character
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (final NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String hex(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
+    @FunctionalInterface
+    private interface Record {
+        void write() throws IOException;
+    }
+
+    /**
+     * The work done for a single compilation unit.
+     */
+    static final class Entry {
+
+        final boolean derive;
+        final boolean rewrite;
+        final Map<String, String> dependencies = new HashMap<>();
+        final DerivedMappings derived;
+        final Map<String, String> edits = new LinkedHashMap<>();
+
+        Entry(final boolean derive, final boolean rewrite) {
+            this(derive, rewrite, new DerivedMappings());
+        }
+
+        Entry(final boolean derive, final boolean rewrite, final DerivedMappings derived) {
+            this.derive = derive;
+            this.rewrite = rewrite;
+            this.derived = derived;
+        }
+
+    }
+
+}
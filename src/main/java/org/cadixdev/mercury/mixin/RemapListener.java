@@ -0,0 +1,102 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * A listener notified of the work done while remapping, or cleaning,
+ * mixins - for example to collect {@link RemapMetrics metrics}.
+ * <p>
+ * Listeners may be called from several threads at once, when collectors
+ * sharing a listener run in parallel.
+ *
+ * @see RemapMetrics
+ * @since 0.1.0
+ */
+public interface RemapListener {
+
+    /**
+     * A listener that ignores everything, used when no listener is set.
+     * Remappers don't take any timings when using this listener.
+     */
+    RemapListener NONE = new RemapListener() {
+    };
+
+    /**
+     * Called when a mixin class is processed.
+     *
+     * @param mixin The binary name of the mixin
+     */
+    default void mixinProcessed(final String mixin) {
+    }
+
+    /**
+     * Called when a compilation unit is skipped, as it can't declare a
+     * mixin.
+     */
+    default void unitSkipped() {
+    }
+
+    /**
+     * Called when a string literal, such as an injector's target, is
+     * rewritten.
+     */
+    default void literalRewritten() {
+    }
+
+    /**
+     * Called when the target of an annotation has been looked up in the
+     * mappings.
+     *
+     * @param annotationType The binary name of the annotation
+     * @param resolved Whether a mapping was found for the target
+     */
+    default void targetResolved(final String annotationType, final boolean resolved) {
+    }
+
+    /**
+     * Called when the targets of a mixin map the same member to different
+     * names. The mapping of the first target declared is used.
+     * <p>
+     * This is also called when a member of a mixin is derived different
+     * names by separate compilation units, such as by collectors running in
+     * parallel. There, the lexicographically smallest name is used, as
+     * {@link DerivedMappings} does.
+     *
+     * @param mixin The binary name of the mixin
+     * @param member The name and type, or descriptor, of the member
+     * @param names The de-obfuscated names of the member, by the
+     *              obfuscated name of each target mapping it
+     */
+    default void mappingConflict(final String mixin, final String member, final Map<String, String> names) {
+    }
+
+    /**
+     * Called when a phase has been completed, for a single mixin member or
+     * class.
+     *
+     * @param phase The phase
+     * @param nanos The time taken, in nanoseconds
+     */
+    default void phaseCompleted(final RemapPhase phase, final long nanos) {
+    }
+
+    /**
+     * Called when the {@link MixinRemapper#setCacheFile(Path) cache} couldn't
+     * be written at the end of a run. The run itself is unaffected, and the
+     * cache from the previous run is left in place.
+     *
+     * @param file The cache file
+     * @param ex The failure
+     */
+    default void cacheFailed(final Path file, final IOException ex) {
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link RemapListener listener} that counts the work done while
+ * remapping, and accumulates the time spent in each {@link RemapPhase phase}.
+ * <p>
+ * The same metrics can be shared by several remappers and cleaners,
+ * including collectors running in parallel.
+ *
+ * @since 0.1.0
+ */
+public final class RemapMetrics implements RemapListener {
+
+    private final LongAdder mixins = new LongAdder();
+    private final LongAdder skippedUnits = new LongAdder();
+    private final LongAdder literals = new LongAdder();
+    private final List<String> conflicts = new CopyOnWriteArrayList<>();
+    private final Map<String, LongAdder> resolved = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> unresolved = new ConcurrentHashMap<>();
+    private final Map<RemapPhase, LongAdder> times = new EnumMap<>(RemapPhase.class);
+    private final Map<RemapPhase, LongAdder> counts = new EnumMap<>(RemapPhase.class);
+
+    public RemapMetrics() {
+        // Populate the maps up front, so they are safe to read concurrently
+        for (final RemapPhase phase : RemapPhase.values()) {
+            this.times.put(phase, new LongAdder());
+            this.counts.put(phase, new LongAdder());
+        }
+    }
+
+    @Override
+    public void mixinProcessed(final String mixin) {
+        this.mixins.increment();
+    }
+
+    @Override
+    public void unitSkipped() {
+        this.skippedUnits.increment();
+    }
+
+    @Override
+    public void literalRewritten() {
+        this.literals.increment();
+    }
+
+    @Override
+    public void targetResolved(final String annotationType, final boolean resolved) {
+        (resolved ? this.resolved : this.unresolved).computeIfAbsent(annotationType, type -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void mappingConflict(final String mixin, final String member, final Map<String, String> names) {
+        this.conflicts.add(mixin + " " + member + " " + names);
+    }
+
+    @Override
+    public void phaseCompleted(final RemapPhase phase, final long nanos) {
+        this.times.get(phase).add(nanos);
+        this.counts.get(phase).increment();
+    }
+
+    /**
+     * Gets the number of mixin classes processed.
+     *
+     * @return The number of mixins
+     */
+    public long getMixins() {
+        return this.mixins.sum();
+    }
+
+    /**
+     * Gets the number of compilation units skipped, as they couldn't
+     * declare a mixin.
+     *
+     * @return The number of skipped units
+     */
+    public long getSkippedUnits() {
+        return this.skippedUnits.sum();
+    }
+
+    /**
+     * Gets the number of string literals rewritten.
+     *
+     * @return The number of literals
+     */
+    public long getRewrittenLiterals() {
+        return this.literals.sum();
+    }
+
+    /**
+     * Gets the number of targets of the given annotation that were found in
+     * the mappings.
+     *
+     * @param annotationType The binary name of the annotation
+     * @return The number of resolved targets
+     */
+    public long getResolved(final String annotationType) {
+        final LongAdder count = this.resolved.get(annotationType);
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * Gets the number of targets of the given annotation that weren't found
+     * in the mappings.
+     *
+     * @param annotationType The binary name of the annotation
+     * @return The number of unresolved targets
+     */
+    public long getUnresolved(final String annotationType) {
+        final LongAdder count = this.unresolved.get(annotationType);
+        return count != null ? count.sum() : 0;
+    }
+
+    /**
+     * Gets the conflicts between the targets of mixins, each described as
+     * the mixin, the member and the names each target maps it to.
+     *
+     * @return The conflicts
+     */
+    public List<String> getConflicts() {
+        return Collections.unmodifiableList(this.conflicts);
+    }
+
+    /**
+     * Gets the total time spent in the given phase.
+     *
+     * @param phase The phase
+     * @return The time, in nanoseconds
+     */
+    public long getTime(final RemapPhase phase) {
+        return this.times.get(phase).sum();
+    }
+
+    /**
+     * Gets the number of times the given phase was completed.
+     *
+     * @param phase The phase
+     * @return The number of times
+     */
+    public long getCount(final RemapPhase phase) {
+        return this.counts.get(phase).sum();
+    }
+
+    /**
+     * Resets all of the metrics.
+     */
+    public void reset() {
+        this.mixins.reset();
+        this.skippedUnits.reset();
+        this.literals.reset();
+        this.conflicts.clear();
+        this.resolved.clear();
+        this.unresolved.clear();
+        this.times.values().forEach(LongAdder::reset);
+        this.counts.values().forEach(LongAdder::reset);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("mixins: ").append(this.getMixins()).append('\n');
+        builder.append("skipped units: ").append(this.getSkippedUnits()).append('\n');
+        builder.append("rewritten literals: ").append(this.getRewrittenLiterals()).append('\n');
+
+        final Set<String> types = new TreeSet<>(this.resolved.keySet());
+        types.addAll(this.unresolved.keySet());
+        for (final String type : types) {
+            builder.append('@').append(type.substring(type.lastIndexOf('.') + 1)).append(": ")
+                    .append(this.getResolved(type)).append(" resolved, ")
+                    .append(this.getUnresolved(type)).append(" unresolved\n");
+        }
+
+        for (final String conflict : this.conflicts) {
+            builder.append("conflict: ").append(conflict).append('\n');
+        }
+
+        for (final RemapPhase phase : RemapPhase.values()) {
+            final long count = this.getCount(phase);
+            if (count == 0) continue;
+
+            builder.append(phase.name().toLowerCase(Locale.ROOT)).append(": ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(this.getTime(phase))).append(" ms over ")
+                    .append(count).append('\n');
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+/**
+ * The phases of remapping, and cleaning, a mixin that are timed and
+ * reported to a {@link RemapListener}.
+ *
+ * @since 0.1.0
+ */
+public enum RemapPhase {
+
+    /**
+     * Remapping the private {@code targets} of {@code @Mixin}.
+     */
+    PRIVATE_TARGETS,
+
+    /**
+     * Completing the mappings of a mixin's targets.
+     */
+    TARGET_COMPLETION,
+
+    /**
+     * Copying the mappings of {@code @Shadow} fields and methods.
+     */
+    SHADOW,
+
+    /**
+     * Copying the mappings of {@code @Overwrite} methods.
+     */
+    OVERWRITE,
+
+    /**
+     * Copying the mappings of methods implementing {@code @Implements}
+     * interfaces.
+     */
+    IMPLEMENTS,
+
+    /**
+     * Inflecting and remapping {@code @Accessor} and {@code @Invoker}
+     * targets.
+     */
+    ACCESSOR,
+
+    /**
+     * Remapping the targets of injectors, such as {@code @Inject}, and
+     * their {@code @At} and {@code @Slice}s.
+     */
+    INJECTOR,
+
+    /**
+     * Correcting the use of {@code @Final} and {@code @Mutable}, in the
+     * cleaner.
+     */
+    CLEANER,
+
+    /**
+     * Applying the batch of rewrites collected for a compilation unit.
+     */
+    REWRITE
+
+}
@@ -0,0 +1,279 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.mercury.RewriteContext;
+import org.cadixdev.mercury.SourceContext;
+import org.cadixdev.mercury.mixin.annotation.MixinClass;
+import org.cadixdev.mercury.mixin.annotation.TargetResolver;
+import org.cadixdev.mercury.mixin.bytecode.ClassIndex;
+import org.cadixdev.mercury.mixin.bytecode.ClassMetadata;
+import org.cadixdev.mercury.mixin.cleaner.FinalVisitor;
+import org.cadixdev.mercury.mixin.handler.MethodAnnotationHandlers;
+import org.cadixdev.mercury.mixin.util.EditCollector;
+import org.cadixdev.mercury.mixin.util.MixinUnitFilter;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The state shared by every {@link MixinRemapperVisitor} during a single
+ * run of Mercury.
+ */
+final class RemapSession {
+
+    final MappingSet mappings;
+    final DerivedMappings derived;
+    final boolean derive;
+    final MixinRegistry registry;
+    final TargetCompletionTracker completions;
+    final MemberIndex members = new MemberIndex();
+    final SelectorMemo selectors = new SelectorMemo();
+    final Map<String, MixinTargets> targets = new ConcurrentHashMap<>();
+    private final Map<String, String> structures = new ConcurrentHashMap<>();
+    final MethodAnnotationHandlers handlers = MethodAnnotationHandlers.create();
+    RemapCache cache;
+    ClassIndex classes;
+    RemapListener listener = RemapListener.NONE;
+    boolean clean;
+    boolean literal;
+    final AtomicInteger skippedUnits = new AtomicInteger();
+    final AtomicInteger bindingFallbacks = new AtomicInteger();
+    final AtomicInteger cachedUnits = new AtomicInteger();
+
+    RemapSession(final MappingSet mappings, final DerivedMappings derived, final boolean derive) {
+        this.mappings = mappings;
+        this.derived = derived;
+        this.derive = derive;
+        this.completions = new TargetCompletionTracker(mappings);
+        this.registry = new MixinRegistry(mappings);
+    }
+
+    /**
+     * Visits a single compilation unit, reusing the work done for it on a
+     * previous run where possible.
+     *
+     * @param context The source context
+     * @param rewrite The rewrite context, or {@code null} to leave the unit
+     *                untouched
+     */
+    void visit(final SourceContext context, final RewriteContext rewrite) {
+        final CompilationUnit unit = context.getCompilationUnit();
+
+        // Most units have nothing to do with mixins, and are skipped before
+        // resolving any bindings
+        if (!MixinUnitFilter.mayDeclareMixin(unit)) {
+            this.skippedUnits.incrementAndGet();
+            this.listener.unitSkipped();
+            return;
+        }
+
+        String unitHash = null;
+        if (this.cache != null) {
+            unitHash = RemapCache.hash(unit);
+
+            final RemapCache.Entry cached = this.cache.get(unitHash, this.derive, rewrite != null,
+                    dependency -> this.fingerprint(context, dependency));
+            if (cached != null && this.replay(unit, rewrite, cached)) {
+                this.cachedUnits.incrementAndGet();
+                return;
+            }
+        }
+
+        final MixinRemapperVisitor visitor = new MixinRemapperVisitor(context, rewrite, this, this.derive);
+        if (this.literal && rewrite != null) {
+            // Rewrite the literals from the syntax tree, only going through
+            // the visitor for what can't be
+            unit.accept(new LiteralRemapperVisitor(visitor, this));
+        }
+        else {
+            unit.accept(visitor);
+        }
+        visitor.applyRewrites();
+
+        if (this.derive) {
+            this.contribute(visitor.getDerivedMappings());
+        }
+
+        if (unitHash != null) {
+            final RemapCache.Entry entry = new RemapCache.Entry(this.derive, rewrite != null, visitor.getDerivedMappings());
+            for (final String dependency : visitor.getDependencies()) {
+                entry.dependencies.put(dependency, this.fingerprint(context, dependency));
+            }
+            entry.edits.putAll(visitor.getEdits());
+            this.cache.put(unitHash, entry);
+        }
+    }
+
+    /**
+     * Fingerprints a class the work done for a compilation unit depended on,
+     * from both its mappings and its structure - so a change to either, such
+     * as to the supertypes or members of a target, invalidates the work.
+     * <p>
+     * The structure is read from the class index where possible, and from
+     * bindings otherwise. Without either, only the mappings are
+     * fingerprinted.
+     *
+     * @param context The source context of the unit
+     * @param className The obfuscated name of the class
+     * @return The fingerprint
+     */
+    private String fingerprint(final SourceContext context, final String className) {
+        final String structure = this.structures.computeIfAbsent(className, name -> {
+            final ClassMetadata indexed = this.classes != null ? this.classes.get(name) : null;
+            if (indexed != null) return RemapCache.fingerprint(indexed);
+
+            if (!context.getCompilationUnit().getAST().hasResolvedBindings()) return RemapCache.MISSING;
+            final ITypeBinding binding = TargetResolver.get(context.getMercury()).resolve(name);
+            return binding != null ? RemapCache.fingerprint(binding) : RemapCache.MISSING;
+        });
+        return this.cache.getFingerprint(className) + ' ' + structure;
+    }
+
+    private boolean replay(final CompilationUnit unit, final RewriteContext rewrite, final RemapCache.Entry entry) {
+        if (rewrite != null) {
+            // Locate every edit before making any, so we can fall back to
+            // processing the unit
+            final List<Expression> originals = new ArrayList<>(entry.edits.size());
+            for (final String path : entry.edits.keySet()) {
+                final ASTNode node = NodePath.resolve(unit, path);
+                if (!(node instanceof Expression)) return false;
+                originals.add((Expression) node);
+            }
+
+            final EditCollector batch = new EditCollector(rewrite);
+            int i = 0;
+            for (final String replacement : entry.edits.values()) {
+                batch.replace(originals.get(i++), replacement);
+                this.listener.literalRewritten();
+            }
+
+            // The cleaner's edits aren't cached, so it still needs to visit the unit
+            if (this.clean) {
+                unit.accept(new FinalVisitor(rewrite, this.listener, batch, this.registry::fetch));
+            }
+            batch.apply();
+        }
+
+        if (this.derive) {
+            this.contribute(entry.derived);
+        }
+        return true;
+    }
+
+    /**
+     * Contributes the mappings derived from a single compilation unit.
+     * <p>
+     * When the session has no shared buffer, the mappings are applied to the
+     * mapping set straight away.
+     *
+     * @param unit The mappings derived from the unit
+     */
+    void contribute(final DerivedMappings unit) {
+        if (unit.isEmpty()) return;
+
+        if (this.derived != null) {
+            this.derived.addAll(unit, this.listener);
+        }
+        else {
+            synchronized (this.mappings) {
+                unit.apply(this.mappings);
+            }
+        }
+    }
+
+    /**
+     * Gets the mappings of every target of the given mixin, creating the
+     * mappings on-demand.
+     *
+     * @param mixin The mixin
+     * @return The targets
+     */
+    MixinTargets getTargets(final MixinClass mixin) {
+        return this.targets.computeIfAbsent(mixin.getBinding().getKey(), key -> {
+            final String[] names = mixin.getTargetNames();
+            final List<ClassMapping<?, ?>> targets = new ArrayList<>(names.length);
+            synchronized (this.mappings) {
+                for (final String name : names) {
+                    targets.add(this.mappings.getOrCreateClassMapping(name));
+                }
+            }
+            return new MixinTargets(mixin.getBinding().getBinaryName(), targets, this.members, this.listener);
+        });
+    }
+
+    /**
+     * Prepares the session for a new run.
+     */
+    void reset() {
+        this.release();
+        this.completions.reset();
+        this.skippedUnits.set(0);
+        this.bindingFallbacks.set(0);
+        this.cachedUnits.set(0);
+        this.members.clear();
+        this.selectors.clear();
+        if (this.cache != null) {
+            this.cache.load(this.mappings, this.config());
+        }
+    }
+
+    /**
+     * Releases the state tied to the bindings of the current run, such as
+     * between the {@link UnitBatcher batches} of a single run.
+     */
+    void release() {
+        this.registry.clear();
+        this.targets.clear();
+        this.structures.clear();
+    }
+
+    /**
+     * Releases any state that can't outlive the run, keeping the statistics
+     * of the run around.
+     */
+    void finish() {
+        this.release();
+        this.members.clear();
+        this.selectors.clear();
+        if (this.cache != null) {
+            try {
+                this.cache.save();
+            }
+            catch (final IOException ex) {
+                // Only costs processing the units again next time
+                this.listener.cacheFailed(this.cache.getFile(), ex);
+            }
+        }
+    }
+
+    /**
+     * Describes the configuration of the session that affects the work done
+     * for each compilation unit, so work cached under another configuration
+     * isn't reused.
+     *
+     * @return The configuration
+     */
+    private String config() {
+        return config(this.clean, this.literal, this.handlers);
+    }
+
+    static String config(final boolean clean, final boolean literal, final MethodAnnotationHandlers handlers) {
+        return "clean=" + clean + " literal=" + literal + " handlers=" + handlers.fingerprint();
+    }
+
+}
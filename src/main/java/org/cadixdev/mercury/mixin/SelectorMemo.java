@@ -0,0 +1,100 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.cadixdev.lorenz.model.MemberMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A memo of the selectors remapped against a {@link ClassMapping class
+ * mapping}, such as the targets of injectors, by target class and
+ * selector.
+ * <p>
+ * Much like the {@link MemberIndex member index}, a remapped selector is
+ * only served while no members have been added to the class since (for
+ * example, when it is completed), and the member it was remapped to hasn't
+ * been renamed since - as deriving the mappings of another mixin may.
+ */
+final class SelectorMemo {
+
+    private final Map<String, Map<String, Entry>> classes = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the remapped selector for the given target class and selector.
+     *
+     * @param klass The target class
+     * @param selector The obfuscated selector
+     * @return The remapped selector, or {@code null} if it has yet to be
+     *         remapped, or the class has changed since
+     */
+    Entry get(final ClassMapping<?, ?> klass, final String selector) {
+        final Map<String, Entry> selectors = this.classes.get(klass.getFullObfuscatedName());
+        if (selectors == null) return null;
+
+        final Entry entry = selectors.get(selector);
+        return entry != null && !entry.isStale(klass) ? entry : null;
+    }
+
+    /**
+     * Records the remapped selector for the given target class and
+     * selector.
+     *
+     * @param klass The target class
+     * @param selector The obfuscated selector
+     * @param remapped The remapped selector
+     * @param member The mapping the selector was remapped with, or
+     *               {@code null} if none was found
+     */
+    void put(final ClassMapping<?, ?> klass, final String selector, final String remapped,
+             final MemberMapping<?, ?> member) {
+        this.classes.computeIfAbsent(klass.getFullObfuscatedName(), k -> new ConcurrentHashMap<>())
+                .put(selector, new Entry(klass, remapped, member));
+    }
+
+    void clear() {
+        this.classes.clear();
+    }
+
+    static final class Entry {
+
+        private final ClassMapping<?, ?> klass;
+        private final int fieldCount;
+        private final int methodCount;
+        private final String remapped;
+        private final MemberMapping<?, ?> member;
+        private final String memberName;
+
+        Entry(final ClassMapping<?, ?> klass, final String remapped, final MemberMapping<?, ?> member) {
+            this.klass = klass;
+            this.fieldCount = klass.getFieldMappings().size();
+            this.methodCount = klass.getMethodMappings().size();
+            this.remapped = remapped;
+            this.member = member;
+            this.memberName = member != null ? member.getDeobfuscatedName() : null;
+        }
+
+        boolean isStale(final ClassMapping<?, ?> klass) {
+            return this.klass != klass ||
+                    this.fieldCount != klass.getFieldMappings().size() ||
+                    this.methodCount != klass.getMethodMappings().size() ||
+                    (this.member != null && !this.member.getDeobfuscatedName().equals(this.memberName));
+        }
+
+        String getRemapped() {
+            return this.remapped;
+        }
+
+        boolean isResolved() {
+            return this.member != null;
+        }
+
+    }
+
+}
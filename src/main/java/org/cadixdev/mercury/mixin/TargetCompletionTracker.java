@@ -0,0 +1,85 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.model.ClassMapping;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of which mixin targets have had their {@link ClassMapping}
+ * completed during a run, so that each hierarchy is only walked once.
+ */
+final class TargetCompletionTracker {
+
+    private final MappingSet mappings;
+    private final Map<String, Boolean> completed = new ConcurrentHashMap<>();
+    private final AtomicInteger completions = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    /**
+     * Creates a tracker for the targets in the given mappings, which are
+     * locked while a target is completed - as completing it adds to them.
+     *
+     * @param mappings The mappings
+     */
+    TargetCompletionTracker(final MappingSet mappings) {
+        this.mappings = mappings;
+    }
+
+    void complete(final InheritanceProvider inheritanceProvider, final ClassMapping<?, ?> target, final ITypeBinding binding) {
+        this.complete(target.getFullObfuscatedName() + ';' + binding.getKey(),
+                () -> target.complete(inheritanceProvider, binding));
+    }
+
+    /**
+     * Completes the given target from an inheritance provider that doesn't
+     * need a binding, such as one backed by the class index.
+     */
+    void complete(final InheritanceProvider inheritanceProvider, final ClassMapping<?, ?> target) {
+        this.complete(target.getFullObfuscatedName(), () -> target.complete(inheritanceProvider));
+    }
+
+    private void complete(final String key, final Runnable completion) {
+        // Other threads completing the same target will wait for us
+        final boolean[] ran = { false };
+        this.completed.computeIfAbsent(key, k -> {
+            synchronized (this.mappings) {
+                completion.run();
+            }
+            ran[0] = true;
+            return Boolean.TRUE;
+        });
+
+        if (ran[0]) {
+            this.completions.incrementAndGet();
+        }
+        else {
+            this.skipped.incrementAndGet();
+        }
+    }
+
+    int getCompletions() {
+        return this.completions.get();
+    }
+
+    int getSkipped() {
+        return this.skipped.get();
+    }
+
+    void reset() {
+        this.completed.clear();
+        this.completions.set(0);
+        this.skipped.set(0);
+    }
+
+}
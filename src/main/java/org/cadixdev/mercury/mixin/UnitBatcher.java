@@ -0,0 +1,486 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.SourceProcessor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs Mercury over a source set in batches of compilation units, so that
+ * the syntax trees and bindings of only a single batch are held at once -
+ * capping the memory needed for large source sets.
+ * <p>
+ * Each mixin is batched together with those of its targets that are in the
+ * source set, along with any other mixins sharing them. The batches of
+ * mixins are processed before those of the remaining units. The rest of
+ * the source set stays available for resolving bindings, through the
+ * {@link Mercury#getSourcePath() source path} - with each unit being
+ * visible only once, either in the batch or on the source path.
+ * <p>
+ * The processors of this project keep their state, such as their caches and
+ * statistics, across the batches of a run - so they behave as though the
+ * source set had been processed at once. Batched runs are limited to a
+ * two-phase remap, with the mappings collected by a {@link MixinCollector}
+ * before a {@link MixinRemapper#createRewriter(org.cadixdev.lorenz.MappingSet)
+ * rewriter} runs - as a remapper deriving mappings while it rewrites would
+ * give a result depending on which batch each mixin landed in. The output
+ * of a batched run then matches that of an unbatched run.
+ *
+ * @since 0.1.0
+ */
+public final class UnitBatcher {
+
+    /**
+     * The number of compilation units in each batch, unless
+     * {@link #setBatchSize(int) set} otherwise.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * Creates a batcher for the given Mercury instance, and its processors.
+     *
+     * @param mercury The mercury instance
+     * @return The batcher
+     */
+    public static UnitBatcher create(final Mercury mercury) {
+        return new UnitBatcher(Objects.requireNonNull(mercury, "mercury"));
+    }
+
+    /**
+     * Gets whether the current run of the given Mercury instance starts a
+     * run, rather than continuing a batched one. Processors should only
+     * reset the state they keep for a whole run when it does.
+     *
+     * @param mercury The mercury instance
+     * @return {@code true} if the run isn't batched, or is the first batch
+     */
+    public static boolean isFirstBatch(final Mercury mercury) {
+        final Batch batch = (Batch) mercury.getContext().get(Batch.class);
+        return batch == null || batch.index == 0;
+    }
+
+    /**
+     * Gets whether the current run of the given Mercury instance ends a
+     * run, rather than being followed by further batches. Processors should
+     * only finish up the state they keep for a whole run when it does.
+     *
+     * @param mercury The mercury instance
+     * @return {@code true} if the run isn't batched, or is the last batch
+     */
+    public static boolean isLastBatch(final Mercury mercury) {
+        final Batch batch = (Batch) mercury.getContext().get(Batch.class);
+        return batch == null || batch.index == batch.count - 1;
+    }
+
+    private static final Pattern COMMENT = Pattern.compile("//[^\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final Pattern IMPORT = Pattern.compile("^\\s*import\\s+(?!static\\b)([\\w.]+?)(\\.\\*)?\\s*;", Pattern.MULTILINE);
+    private static final Pattern MIXIN = Pattern.compile("@(?:[\\w.]+\\.)?Mixin\\s*\\(");
+    private static final Pattern CLASS_LITERAL = Pattern.compile("([\\w$.]+)\\s*\\.\\s*class\\b");
+    private static final Pattern STRING_LITERAL = Pattern.compile("\"([^\"\\\\]*)\"");
+
+    private final Mercury mercury;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int batchCount;
+
+    private UnitBatcher(final Mercury mercury) {
+        this.mercury = mercury;
+    }
+
+    /**
+     * Sets the greatest number of compilation units in a single batch.
+     * <p>
+     * A mixin is never separated from its targets, so a group of mixins and
+     * targets larger than the batch size is processed in a batch of its
+     * own.
+     *
+     * @param batchSize The batch size
+     */
+    public void setBatchSize(final int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the number of batches the source set was processed in, during
+     * the last run.
+     *
+     * @return The number of batches
+     */
+    public int getBatchCount() {
+        return this.batchCount;
+    }
+
+    /**
+     * Processes the given source set, in batches.
+     *
+     * @param sourceDir The source set
+     * @throws IllegalStateException Should a processor be a remapper
+     *         deriving mappings as it goes
+     * @throws Exception Should Mercury fail
+     * @see Mercury#process(Path)
+     */
+    public void process(final Path sourceDir) throws Exception {
+        this.run(sourceDir, null);
+    }
+
+    /**
+     * Rewrites the given source set, in batches.
+     *
+     * @param sourceDir The source set
+     * @param outputDir The directory to write the rewritten sources to
+     * @throws IllegalStateException Should a processor be a remapper
+     *         deriving mappings as it goes
+     * @throws Exception Should Mercury fail
+     * @see Mercury#rewrite(Path, Path)
+     */
+    public void rewrite(final Path sourceDir, final Path outputDir) throws Exception {
+        this.run(sourceDir, Objects.requireNonNull(outputDir, "outputDir"));
+    }
+
+    private void run(final Path sourceDir, final Path outputDir) throws Exception {
+        for (final SourceProcessor processor : this.mercury.getProcessors()) {
+            if (processor instanceof MixinRemapper && ((MixinRemapper) processor).isDeriving()) {
+                throw new IllegalStateException("Batched runs require a two-phase remap, "
+                        + "using MixinCollector and MixinRemapper.createRewriter");
+            }
+        }
+
+        final List<List<Path>> batches = this.plan(sourceDir);
+        this.batchCount = batches.size();
+
+        // Nothing to gain from batching
+        if (batches.size() <= 1) {
+            this.runBatch(sourceDir, outputDir);
+            return;
+        }
+
+        // The units outside of the current batch are on the source path, and
+        // those of the batch are moved out of it - so no type is seen twice
+        final Path workDir = Files.createTempDirectory("mercurymixin-batch");
+        final Path restDir = workDir.resolve("rest");
+        final Path batchDir = workDir.resolve("batch");
+        final List<Path> sourcePath = this.mercury.getSourcePath();
+        final int sourceIndex = sourcePath.indexOf(sourceDir);
+
+        try {
+            for (final List<Path> batch : batches) {
+                for (final Path unit : batch) {
+                    final Path file = restDir.resolve(unit.toString());
+                    Files.createDirectories(file.getParent());
+                    Files.copy(sourceDir.resolve(unit), file);
+                }
+            }
+
+            if (sourceIndex >= 0) {
+                sourcePath.set(sourceIndex, restDir);
+            }
+            else {
+                sourcePath.add(restDir);
+            }
+
+            for (int i = 0; i < batches.size(); i++) {
+                this.mercury.getContext().put(Batch.class, new Batch(i, batches.size()));
+
+                move(batches.get(i), restDir, batchDir);
+                try {
+                    this.runBatch(batchDir, outputDir);
+                }
+                finally {
+                    move(batches.get(i), batchDir, restDir);
+                }
+            }
+        }
+        finally {
+            this.mercury.getContext().remove(Batch.class);
+            if (sourceIndex >= 0) {
+                sourcePath.set(sourceIndex, sourceDir);
+            }
+            else {
+                sourcePath.remove(restDir);
+            }
+            delete(workDir);
+        }
+    }
+
+    private void runBatch(final Path batchDir, final Path outputDir) throws Exception {
+        if (outputDir != null) {
+            this.mercury.rewrite(batchDir, outputDir);
+        }
+        else {
+            this.mercury.process(batchDir);
+        }
+    }
+
+    /**
+     * Splits the compilation units of the given source set into batches,
+     * the batches of mixins coming first.
+     *
+     * @param sourceDir The source set
+     * @return The batches, of paths relative to the source set
+     * @throws IOException Should the source set not be readable
+     */
+    private List<List<Path>> plan(final Path sourceDir) throws IOException {
+        final List<Path> units;
+        try (final Stream<Path> walk = Files.walk(sourceDir)) {
+            units = walk.filter(path -> path.toString().endsWith(".java") && Files.isRegularFile(path))
+                    .map(sourceDir::relativize)
+                    .sorted(Comparator.comparing(Path::toString))
+                    .collect(Collectors.toList());
+        }
+        if (units.size() <= this.batchSize) {
+            final List<List<Path>> batches = new ArrayList<>();
+            batches.add(units);
+            return batches;
+        }
+
+        // Units are assumed to declare the top-level class they're named
+        // after, which is all that's needed to find the targets in the
+        // source set
+        final String separator = sourceDir.getFileSystem().getSeparator();
+        final Map<String, Integer> types = new HashMap<>();
+        for (int i = 0; i < units.size(); i++) {
+            final String path = units.get(i).toString();
+            types.put(path.substring(0, path.length() - ".java".length()).replace(separator, "."), i);
+        }
+
+        final int[] groups = new int[units.size()];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = i;
+        }
+        final boolean[] mixins = new boolean[units.size()];
+        for (int i = 0; i < units.size(); i++) {
+            // Only the ASCII of the source matters, whatever its encoding
+            final String source = new String(Files.readAllBytes(sourceDir.resolve(units.get(i))), StandardCharsets.ISO_8859_1);
+            if (!source.contains("Mixin")) continue;
+
+            final List<Integer> targets = findTargets(source, types);
+            if (targets == null) continue;
+
+            mixins[i] = true;
+            for (final int target : targets) {
+                union(groups, i, target);
+            }
+        }
+
+        // Each group of mixins and their targets, in the order of the units
+        final Map<Integer, List<Path>> mixinGroups = new LinkedHashMap<>();
+        final List<Path> others = new ArrayList<>();
+        for (int i = 0; i < units.size(); i++) {
+            if (mixins[i]) {
+                mixinGroups.computeIfAbsent(find(groups, i), k -> new ArrayList<>());
+            }
+        }
+        for (int i = 0; i < units.size(); i++) {
+            final List<Path> group = mixinGroups.get(find(groups, i));
+            if (group != null) {
+                group.add(units.get(i));
+            }
+            else {
+                others.add(units.get(i));
+            }
+        }
+
+        final List<List<Path>> batches = new ArrayList<>();
+        List<Path> batch = new ArrayList<>();
+        for (final List<Path> group : mixinGroups.values()) {
+            if (!batch.isEmpty() && batch.size() + group.size() > this.batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+            // Groups are never split, those larger than a batch getting one
+            // of their own
+            batch.addAll(group);
+            if (batch.size() >= this.batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        // The mixins are kept apart from the units using them
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+            batch = new ArrayList<>();
+        }
+        for (final Path unit : others) {
+            batch.add(unit);
+            if (batch.size() == this.batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * Finds the targets of the mixin declared by the given source, that are
+     * in the source set.
+     * <p>
+     * This is a syntactic approximation, names being resolved against the
+     * imports and package of the source. Getting it wrong only affects
+     * which batch a unit is processed in, not how it is processed.
+     *
+     * @param source The source
+     * @param types The units of the source set, by the class they declare
+     * @return The targets, or {@code null} if the source doesn't declare a
+     *         mixin
+     */
+    private static List<Integer> findTargets(final String source, final Map<String, Integer> types) {
+        final String code = COMMENT.matcher(source).replaceAll("");
+        final Matcher mixin = MIXIN.matcher(code);
+        if (!mixin.find()) return null;
+
+        // The arguments of the annotation, up to the matching parenthesis
+        int end = mixin.end();
+        for (int depth = 1; end < code.length() && depth > 0; end++) {
+            final char c = code.charAt(end);
+            if (c == '(') {
+                depth++;
+            }
+            else if (c == ')') {
+                depth--;
+            }
+        }
+        final String arguments = code.substring(mixin.end(), end);
+
+        final Matcher packageMatcher = PACKAGE.matcher(code);
+        final String packageName = packageMatcher.find() ? packageMatcher.group(1) : "";
+        final Map<String, String> imports = new HashMap<>();
+        final List<String> onDemandImports = new ArrayList<>();
+        final Matcher importMatcher = IMPORT.matcher(code);
+        while (importMatcher.find()) {
+            final String name = importMatcher.group(1);
+            if (importMatcher.group(2) != null) {
+                onDemandImports.add(name);
+            }
+            else {
+                imports.put(name.substring(name.lastIndexOf('.') + 1), name);
+            }
+        }
+
+        final List<Integer> targets = new ArrayList<>();
+        final Matcher classLiteral = CLASS_LITERAL.matcher(arguments);
+        while (classLiteral.find()) {
+            final Integer target = resolve(classLiteral.group(1), packageName, imports, onDemandImports, types);
+            if (target != null) targets.add(target);
+        }
+        final Matcher stringLiteral = STRING_LITERAL.matcher(arguments);
+        while (stringLiteral.find()) {
+            // Private targets are given by their binary name
+            String name = stringLiteral.group(1).replace('/', '.');
+            if (name.indexOf('$') >= 0) name = name.substring(0, name.indexOf('$'));
+
+            final Integer target = findType(name, types);
+            if (target != null) targets.add(target);
+        }
+        return targets;
+    }
+
+    private static Integer resolve(final String name, final String packageName, final Map<String, String> imports,
+                                   final List<String> onDemandImports, final Map<String, Integer> types) {
+        final int dot = name.indexOf('.');
+        final String first = dot >= 0 ? name.substring(0, dot) : name;
+
+        final String imported = imports.get(first);
+        if (imported != null) return types.get(imported);
+
+        final Integer local = types.get(packageName.isEmpty() ? first : packageName + '.' + first);
+        if (local != null) return local;
+
+        for (final String onDemand : onDemandImports) {
+            final Integer target = types.get(onDemand + '.' + first);
+            if (target != null) return target;
+        }
+
+        // A fully qualified name, possibly of a member class
+        return dot >= 0 ? findType(name, types) : null;
+    }
+
+    private static Integer findType(final String name, final Map<String, Integer> types) {
+        // Strip any member classes off the name
+        String type = name;
+        while (true) {
+            final Integer unit = types.get(type);
+            if (unit != null) return unit;
+
+            final int dot = type.lastIndexOf('.');
+            if (dot < 0) return null;
+            type = type.substring(0, dot);
+        }
+    }
+
+    private static int find(final int[] groups, final int unit) {
+        int root = unit;
+        while (groups[root] != root) {
+            groups[root] = groups[groups[root]];
+            root = groups[root];
+        }
+        return root;
+    }
+
+    private static void union(final int[] groups, final int a, final int b) {
+        final int rootA = find(groups, a);
+        final int rootB = find(groups, b);
+        // The earliest unit is the root, keeping the groups in order
+        if (rootA < rootB) {
+            groups[rootB] = rootA;
+        }
+        else {
+            groups[rootA] = rootB;
+        }
+    }
+
+    private static void move(final List<Path> units, final Path from, final Path to) throws IOException {
+        for (final Path unit : units) {
+            final Path file = to.resolve(unit.toString());
+            Files.createDirectories(file.getParent());
+            Files.move(from.resolve(unit.toString()), file);
+        }
+    }
+
+    private static void delete(final Path dir) throws IOException {
+        try (final Stream<Path> walk = Files.walk(dir)) {
+            for (final Path path : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * The batch currently being processed by a Mercury instance.
+     */
+    private static final class Batch {
+
+        final int index;
+        final int count;
+
+        Batch(final int index, final int count) {
+            this.index = index;
+            this.count = count;
+        }
+
+    }
+
+}
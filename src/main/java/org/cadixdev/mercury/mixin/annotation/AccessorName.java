@@ -27,9 +27,6 @@
 
 import java.util.Arrays;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Accessor Name struct.
@@ -40,6 +37,11 @@
  */
 public final class AccessorName {
 
+    /**
+     * The suffix Mixin gives to the names of merged members.
+     */
+    private static final String MERGED_SUFFIX = "_$md";
+
     /**
      * Get an accessor name from the supplied string. If the string matches
      * the accessor name regex, split the string into the relevant parts
@@ -65,27 +67,37 @@ public static AccessorName of(final String methodName) {
      * accessor name
      */
     public static AccessorName of(final String methodName, final boolean toMemberCase) {
-        final Matcher nameMatcher = AccessorName.PATTERN.matcher(methodName);
-        if (nameMatcher.matches()) {
-            final String prefix = nameMatcher.group(1);
-            final String namePart = nameMatcher.group(2);
-            final String firstChar = nameMatcher.group(3);
-            final String remainder = nameMatcher.group(4);
-            final boolean nameIsUpperCase = AccessorName.isUpperCase(Locale.ROOT, namePart);
-            // If the entire name is upper case, do not lowercase the first char
-            final String name = String.format("%s%s", AccessorName.toLowerCaseIf(Locale.ROOT, firstChar, toMemberCase && !nameIsUpperCase), remainder);
-            return new AccessorName(methodName, prefix, name);
+        // Equivalent to matching ^(get|is|...)(([A-Z])(.*?))(_\$md.*)?$
+        // against the name, which is a Java identifier
+        final String prefix = AccessorName.PREFIXES.match(methodName);
+        if (prefix == null) return null;
+
+        final int start = prefix.length();
+        if (start >= methodName.length()) return null;
+        final char firstChar = methodName.charAt(start);
+        if (firstChar < 'A' || firstChar > 'Z') return null;
+
+        int end = methodName.indexOf(MERGED_SUFFIX, start + 1);
+        if (end < 0) end = methodName.length();
+
+        // If the entire name is upper case, do not lowercase the first char
+        if (!toMemberCase || AccessorName.isUpperCase(methodName, start, end)) {
+            return new AccessorName(methodName, prefix, methodName.substring(start, end));
         }
-        return null;
+
+        final char[] name = new char[end - start];
+        methodName.getChars(start, end, name, 0);
+        name[0] = (char) (firstChar + ('a' - 'A'));
+        return new AccessorName(methodName, prefix, new String(name));
     }
 
     /**
-     * Pattern for matching accessor names (for inflector)
+     * Trie of the prefixes of every accessor type (for inflector)
      */
-    private static final Pattern PATTERN = Pattern.compile("^(" + Arrays.stream(AccessorType.values())
+    private static final Node PREFIXES = Node.of(Arrays.stream(AccessorType.values())
             .map(AccessorType::getPrefixes)
             .flatMap(Arrays::stream)
-            .collect(Collectors.joining("|")) + ")(([A-Z])(.*?))(_\\$md.*)?$");
+            .toArray(String[]::new));
 
     /**
      * Name of the accessor method
@@ -121,21 +133,95 @@ public String getName() {
     }
 
     public String prefix(final String name) {
-        final String firstChar = name.substring(0, 1);
-        final String remainder = name.substring(1);
-        return this.prefix + toUpperCaseIf(Locale.ROOT, firstChar) + remainder;
-    }
+        final char firstChar = name.charAt(0);
+        if (firstChar >= 0x80) {
+            // Outside of ASCII, upper casing may change the length
+            return this.prefix + name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+        }
 
-    private static boolean isUpperCase(final Locale locale, final String string) {
-        return string.toUpperCase(locale).equals(string);
+        return new StringBuilder(this.prefix.length() + name.length())
+                .append(this.prefix)
+                .append(firstChar >= 'a' && firstChar <= 'z' ? (char) (firstChar - ('a' - 'A')) : firstChar)
+                .append(name, 1, name.length())
+                .toString();
     }
 
-    private static String toLowerCaseIf(final Locale locale, final String string, final boolean condition) {
-        return condition ? string.toLowerCase(locale) : string;
+    private static boolean isUpperCase(final String string, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = string.charAt(i);
+            if (c >= 0x80) {
+                // Outside of ASCII, defer to the locale rules
+                final String part = string.substring(start, end);
+                return part.toUpperCase(Locale.ROOT).equals(part);
+            }
+            if (c >= 'a' && c <= 'z') return false;
+        }
+        return true;
     }
 
-    private static String toUpperCaseIf(final Locale locale, final String string) {
-        return string.toUpperCase(locale);
+    /**
+     * A node in the prefix trie.
+     */
+    private static final class Node {
+
+        static Node of(final String... prefixes) {
+            final Node root = new Node();
+            for (final String prefix : prefixes) {
+                Node node = root;
+                for (int i = 0; i < prefix.length(); i++) {
+                    if (node.prefix != null) throw new IllegalArgumentException(node.prefix + " is the start of " + prefix);
+                    node = node.getOrCreate(prefix.charAt(i));
+                }
+                if (node.children.length != 0 || node.prefix != null) {
+                    throw new IllegalArgumentException(prefix + " is the start of another prefix");
+                }
+                node.prefix = prefix;
+            }
+            return root;
+        }
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private String prefix;
+
+        /**
+         * Finds the prefix the given string starts with.
+         *
+         * @param string The string
+         * @return The prefix, or {@code null} if the string doesn't start
+         *         with any of the prefixes
+         */
+        String match(final String string) {
+            // No prefix is the start of another, so the first one found is
+            // the only one that can match
+            Node node = this;
+            for (int i = 0; i < string.length(); i++) {
+                node = node.get(string.charAt(i));
+                if (node == null) return null;
+                if (node.prefix != null) return node.prefix;
+            }
+            return null;
+        }
+
+        private Node get(final char key) {
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.keys[i] == key) return this.children[i];
+            }
+            return null;
+        }
+
+        private Node getOrCreate(final char key) {
+            final Node existing = this.get(key);
+            if (existing != null) return existing;
+
+            final Node child = new Node();
+            this.keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+            this.children = Arrays.copyOf(this.children, this.children.length + 1);
+            this.keys[this.keys.length - 1] = key;
+            this.children[this.children.length - 1] = child;
+            return child;
+        }
+
     }
 
 }
@@ -22,30 +22,54 @@ public class AtData {
 
     // @At(value = "", target = "")
     public static AtData from(final IAnnotationBinding binding) {
+        return from(binding, null);
+    }
+
+    /**
+     * Reads the data held in an {@code @At} annotation, parsing its target
+     * through the given cache.
+     *
+     * @param binding The annotation binding
+     * @param cache The parse cache, or {@code null} to not cache
+     * @return The data
+     */
+    public static AtData from(final IAnnotationBinding binding, final ParseCache cache) {
         String injectionPoint = null;
-        String className = null;
-        InjectTarget target = null;
+        String target = null;
 
         for (final IMemberValuePairBinding pair : binding.getDeclaredMemberValuePairs()) {
             if (Objects.equals("value", pair.getName())) {
                 injectionPoint = (String) pair.getValue();
             }
             else if (Objects.equals("target", pair.getName())) {
-                final String combined = (String) pair.getValue();
-
-                final int semiIndex = combined.indexOf(';');
-                if (semiIndex >= 0) {
-                    className = combined.substring(1, semiIndex);
-                    target = InjectTarget.of(combined.substring(semiIndex + 1));
-                }
-                else {
-                    // it's just the class name, probably a NEW
-                    className = combined;
-                }
+                target = (String) pair.getValue();
             }
         }
 
-        return new AtData(injectionPoint, className, target);
+        return cache != null ? cache.at(injectionPoint, target) : of(injectionPoint, target);
+    }
+
+    /**
+     * Parses the values of an {@code @At} annotation.
+     *
+     * @param injectionPoint The injection point, may be {@code null}
+     * @param combined The target, may be {@code null}
+     * @return The data
+     */
+    public static AtData of(final String injectionPoint, final String combined) {
+        if (combined == null) return new AtData(injectionPoint, null, null);
+
+        final int semiIndex = combined.indexOf(';');
+        if (semiIndex >= 0) {
+            return new AtData(
+                    injectionPoint,
+                    combined.substring(1, semiIndex),
+                    InjectTarget.of(combined.substring(semiIndex + 1))
+            );
+        }
+
+        // it's just the class name, probably a NEW
+        return new AtData(injectionPoint, combined, null);
     }
 
     private final String injectionPoint;
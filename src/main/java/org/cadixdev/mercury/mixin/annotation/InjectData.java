@@ -22,6 +22,18 @@ public class InjectData {
 
     // @Inject(method={"example"}, at=@At(...))
     public static InjectData from(final IAnnotationBinding binding) {
+        return from(binding, null);
+    }
+
+    /**
+     * Reads the data held in an injector annotation, parsing its selectors
+     * and {@code @At} targets through the given cache.
+     *
+     * @param binding The annotation binding
+     * @param cache The parse cache, or {@code null} to not cache
+     * @return The data
+     */
+    public static InjectData from(final IAnnotationBinding binding, final ParseCache cache) {
         InjectTarget[] injectTargets = {};
         AtData[] atData = {};
         SliceData[] sliceData = {};
@@ -32,7 +44,7 @@ public static InjectData from(final IAnnotationBinding binding) {
 
                 injectTargets = new InjectTarget[raw.length];
                 for (int i = 0; i < raw.length; i++) {
-                    injectTargets[i] = InjectTarget.of((String) raw[i]);
+                    injectTargets[i] = cache != null ? cache.target((String) raw[i]) : InjectTarget.of((String) raw[i]);
                 }
             }
             else if (Objects.equals("at", pair.getName())) {
@@ -44,12 +56,12 @@ else if (Objects.equals("at", pair.getName())) {
 
                     atData = new AtData[raw.length];
                     for (int i = 0; i < raw.length; i++) {
-                        atData[i] = AtData.from((IAnnotationBinding) raw[i]);
+                        atData[i] = AtData.from((IAnnotationBinding) raw[i], cache);
                     }
                 }
                 else if (value instanceof IAnnotationBinding) {
                     // Redirects are only allowed one @At
-                    atData = new AtData[]{AtData.from((IAnnotationBinding) value)};
+                    atData = new AtData[]{AtData.from((IAnnotationBinding) value, cache)};
                 }
             }
             else if (Objects.equals("slice", pair.getName())) {
@@ -61,12 +73,12 @@ else if (Objects.equals("slice", pair.getName())) {
 
                     sliceData = new SliceData[raw.length];
                     for (int i = 0; i < raw.length; i++) {
-                        sliceData[i] = SliceData.from((IAnnotationBinding) raw[i]);
+                        sliceData[i] = SliceData.from((IAnnotationBinding) raw[i], cache);
                     }
                 }
                 else if (value instanceof IAnnotationBinding) {
                     // Redirects are only allowed one @At
-                    sliceData = new SliceData[]{SliceData.from((IAnnotationBinding) value)};
+                    sliceData = new SliceData[]{SliceData.from((IAnnotationBinding) value, cache)};
                 }
             }
         }
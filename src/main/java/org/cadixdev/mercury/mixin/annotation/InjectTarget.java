@@ -23,23 +23,27 @@ public class InjectTarget {
     private final String targetName;
     private final MethodDescriptor methodDescriptor;
     private final Type fieldType;
+    private final String fullTarget;
 
     public InjectTarget(final String targetName) {
         this.targetName = targetName;
         this.methodDescriptor = null;
         this.fieldType = null;
+        this.fullTarget = targetName;
     }
 
     public InjectTarget(final String targetName, final MethodDescriptor methodDescriptor) {
         this.targetName = targetName;
         this.methodDescriptor = methodDescriptor;
         this.fieldType = null;
+        this.fullTarget = methodDescriptor != null ? targetName + methodDescriptor : targetName;
     }
 
     public InjectTarget(final String targetName, final Type fieldType) {
         this.targetName = targetName;
         this.methodDescriptor = null;
         this.fieldType = fieldType;
+        this.fullTarget = fieldType != null ? targetName + ':' + fieldType : targetName;
     }
 
     public static InjectTarget of(final String target) {
@@ -68,15 +72,7 @@ public Optional<Type> getFieldType() {
     }
 
     public String getFullTarget() {
-        String full = targetName;
-
-        if (methodDescriptor != null) {
-            full += methodDescriptor.toString();
-        } else if (fieldType != null) {
-            full += ":" + fieldType.toString();
-        }
-
-        return full;
+        return this.fullTarget;
     }
 
     @Override
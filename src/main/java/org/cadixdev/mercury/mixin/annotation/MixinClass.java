@@ -12,6 +12,7 @@
 import org.cadixdev.lorenz.model.ClassMapping;
 import org.cadixdev.lorenz.model.FieldMapping;
 import org.cadixdev.lorenz.model.MethodMapping;
+import org.cadixdev.mercury.mixin.DerivedMappings;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 
 import java.util.HashMap;
@@ -79,21 +80,6 @@ public ITypeBinding getBinding() {
         return this.binding;
     }
 
-    /**
-     * Gets the <em>binary names</em> of all the mixin's targets, both
-     * public and private.
-     *
-     * @return The targets
-     */
-    public String[] getTargetNames() {
-        final String[] targets = new String[this.targets.length + this.privateTargets.length];
-        for (int i = 0; i < this.targets.length; i++) {
-            targets[i] = this.targets[i].getBinaryName();
-        }
-        System.arraycopy(this.privateTargets, 0, targets, this.targets.length, this.privateTargets.length);
-        return targets;
-    }
-
     public Map<String, ITypeBinding> getImplementsData() {
         return this.implementsData;
     }
@@ -111,114 +97,248 @@ public Map<String, ITypeBinding> getImplementsData() {
 
     /**
      * Copies the relevant {@link FieldMapping mapping} from the target's {@link ClassMapping mappings},
-     * if such information exists.
+     * if such information exists, recording the copy in the given {@link DerivedMappings buffer}.
      * <p>
      * To facilitate prefixing(/suffixing/etc), you can use a "deobf processor" argument to process the
      * de-obfuscation name applied to the mixin's mapping.
      *
+     * @param derived The buffer to record the copied mapping in
      * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
      *                     the given field mapping from
      * @param mixinSignature The {@link FieldSignature signature} of the field in the mixin
      * @param targetSignature The {@link FieldSignature signature} of the field in the target
      * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
      *                       copied mapping
+     * @return {@code true} if the target had a mapping to copy
      */
-    public void copyFieldMapping(final ClassMapping<?, ?> targetParent,
-                                 final FieldSignature mixinSignature, final FieldSignature targetSignature,
-                                 final Function<String, String> deobfProcessor) {
+    public boolean copyFieldMapping(final DerivedMappings derived, final ClassMapping<?, ?> targetParent,
+                                    final FieldSignature mixinSignature, final FieldSignature targetSignature,
+                                    final Function<String, String> deobfProcessor) {
         final FieldMapping targetField = targetParent.computeFieldMapping(targetSignature).orElse(null);
-        if (targetField == null) return;
-        final FieldMapping mixinField = this.getMixinMapping().computeFieldMapping(mixinSignature)
-                .orElseGet(() -> this.getMixinMapping().createFieldMapping(mixinSignature));
+        if (targetField == null) return false;
 
         // Copy de-obf information
-        mixinField.setDeobfuscatedName(deobfProcessor.apply(targetField.getDeobfuscatedName()));
+        derived.addFieldMapping(
+                this.binding.getBinaryName(), mixinSignature, targetParent.getFullObfuscatedName(),
+                deobfProcessor.apply(targetField.getDeobfuscatedName())
+        );
+        return true;
     }
 
     /**
      * Copies the relevant {@link FieldMapping mapping} from the target's {@link ClassMapping mappings},
-     * if such information exists.
+     * if such information exists, recording the copy in the given {@link DerivedMappings buffer}.
      * <p>
      * To facilitate prefixing(/suffixing/etc), you can use a "deobf processor" argument to process the
      * de-obfuscation name applied to the mixin's mapping.
      *
+     * @param derived The buffer to record the copied mapping in
      * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
      *                     the given field mapping from
      * @param signature The {@link FieldSignature signature} of the field you wish to copy
      * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
      *                       copied mapping
+     * @return {@code true} if the target had a mapping to copy
      */
-    public void copyFieldMapping(final ClassMapping<?, ?> targetParent, final FieldSignature signature,
-                                 final Function<String, String> deobfProcessor) {
-        this.copyFieldMapping(targetParent, signature, signature, deobfProcessor);
+    public boolean copyFieldMapping(final DerivedMappings derived, final ClassMapping<?, ?> targetParent,
+                                    final FieldSignature signature, final Function<String, String> deobfProcessor) {
+        return this.copyFieldMapping(derived, targetParent, signature, signature, deobfProcessor);
     }
 
     /**
      * Copies the relevant {@link MethodMapping mapping} from the target's {@link ClassMapping mappings},
-     * if such information exists.
+     * if such information exists, recording the copy in the given {@link DerivedMappings buffer}.
      * <p>
      * To facilitate prefixing(/suffixing/etc), you can use a "deobf processor" argument to process the
      * de-obfuscation name applied to the mixin's mapping.
      *
+     * @param derived The buffer to record the copied mapping in
      * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
      *                     the given method mapping from
      * @param mixinSignature The {@link MethodSignature signature} of the field in the mixin
      * @param targetSignature The {@link MethodSignature signature} of the field in the target
      * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
      *                       copied mapping
+     * @return {@code true} if the target had a mapping to copy
      */
-    public void copyMethodMapping(final ClassMapping<?, ?> targetParent,
-                                  final MethodSignature mixinSignature, final MethodSignature targetSignature,
-                                  final Function<String, String> deobfProcessor) {
+    public boolean copyMethodMapping(final DerivedMappings derived, final ClassMapping<?, ?> targetParent,
+                                     final MethodSignature mixinSignature, final MethodSignature targetSignature,
+                                     final Function<String, String> deobfProcessor) {
         final MethodMapping targetMethod = targetParent.getMethodMapping(targetSignature).orElse(null);
-        if (targetMethod == null) return;
-        final MethodMapping mixinMethod = this.getMixinMapping().getOrCreateMethodMapping(mixinSignature);
+        if (targetMethod == null) return false;
 
         // Copy de-obf information
-        mixinMethod.setDeobfuscatedName(deobfProcessor.apply(targetMethod.getDeobfuscatedName()));
+        derived.addMethodMapping(
+                this.binding.getBinaryName(), mixinSignature, targetParent.getFullObfuscatedName(),
+                deobfProcessor.apply(targetMethod.getDeobfuscatedName())
+        );
+        return true;
     }
 
     /**
      * Copies the relevant {@link MethodMapping mapping} from the target's {@link ClassMapping mappings},
-     * if such information exists.
+     * if such information exists, recording the copy in the given {@link DerivedMappings buffer}.
      * <p>
      * To facilitate prefixing(/suffixing/etc), you can use a "deobf processor" argument to process the
      * de-obfuscation name applied to the mixin's mapping.
      *
+     * @param derived The buffer to record the copied mapping in
      * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
      *                     the given method mapping from
      * @param signature The {@link MethodSignature signature} of the method you wish to copy
      * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
      *                       copied mapping
+     * @return {@code true} if the target had a mapping to copy
      */
-    public void copyMethodMapping(final ClassMapping<?, ?> targetParent, final MethodSignature signature,
-                                  final Function<String, String> deobfProcessor) {
-        this.copyMethodMapping(targetParent, signature, signature, deobfProcessor);
+    public boolean copyMethodMapping(final DerivedMappings derived, final ClassMapping<?, ?> targetParent,
+                                     final MethodSignature signature, final Function<String, String> deobfProcessor) {
+        return this.copyMethodMapping(derived, targetParent, signature, signature, deobfProcessor);
     }
 
     /**
      * Copies the relevant {@link FieldMapping mapping} from the target's {@link ClassMapping mappings},
-     * if such information exists.
+     * if such information exists, recording the copy in the given {@link DerivedMappings buffer}.
      * <p>
      * To facilitate prefixing(/suffixing/etc), you can use a "deobf processor" argument to process the
      * de-obfuscation name applied to the mixin's mapping.
      *
+     * @param derived The buffer to record the copied mapping in
      * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
      *                     the given mapping from
      * @param mixinSignature The {@link MethodSignature signature} of the field in the mixin
      * @param targetSignature The {@link FieldSignature signature} of the field in the target
      * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
      *                       copied mapping
+     * @return {@code true} if the target had a mapping to copy
      */
-    public void copyMethodMapping(final ClassMapping<?, ?> targetParent,
-                                  final MethodSignature mixinSignature, final FieldSignature targetSignature,
-                                  final Function<String, String> deobfProcessor) {
+    public boolean copyMethodMapping(final DerivedMappings derived, final ClassMapping<?, ?> targetParent,
+                                     final MethodSignature mixinSignature, final FieldSignature targetSignature,
+                                     final Function<String, String> deobfProcessor) {
         final FieldMapping targetField = targetParent.computeFieldMapping(targetSignature).orElse(null);
-        if (targetField == null) return;
-        final MethodMapping mixinMethod = this.getMixinMapping().getOrCreateMethodMapping(mixinSignature);
+        if (targetField == null) return false;
 
         // Copy de-obf information
-        mixinMethod.setDeobfuscatedName(deobfProcessor.apply(targetField.getDeobfuscatedName()));
+        derived.addMethodMapping(
+                this.binding.getBinaryName(), mixinSignature, targetParent.getFullObfuscatedName(),
+                deobfProcessor.apply(targetField.getDeobfuscatedName())
+        );
+        return true;
+    }
+
+    /**
+     * Copies the relevant mapping from the target's {@link ClassMapping mappings}, if such information
+     * exists, applying the copy to the mixin's mapping straight away.
+     *
+     * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
+     *                     the given mapping from
+     * @param mixinSignature The {@link FieldSignature signature} of the field in the mixin
+     * @param targetSignature The {@link FieldSignature signature} of the field in the target
+     * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
+     *                       copied mapping
+     * @deprecated Use
+     *             {@link #copyFieldMapping(DerivedMappings, ClassMapping, FieldSignature, FieldSignature, Function)},
+     *             which records the copy in a {@link DerivedMappings buffer} to be applied once every
+     *             mixin has been processed
+     */
+    @Deprecated
+    public void copyFieldMapping(final ClassMapping<?, ?> targetParent,
+                                 final FieldSignature mixinSignature, final FieldSignature targetSignature,
+                                 final Function<String, String> deobfProcessor) {
+        final DerivedMappings derived = new DerivedMappings();
+        this.copyFieldMapping(derived, targetParent, mixinSignature, targetSignature, deobfProcessor);
+        derived.apply(this.mappings);
+    }
+
+    /**
+     * Copies the relevant mapping from the target's {@link ClassMapping mappings}, if such information
+     * exists, applying the copy to the mixin's mapping straight away.
+     *
+     * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
+     *                     the given mapping from
+     * @param signature The {@link FieldSignature signature} of the field you wish to copy
+     * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
+     *                       copied mapping
+     * @deprecated Use
+     *             {@link #copyFieldMapping(DerivedMappings, ClassMapping, FieldSignature, Function)},
+     *             which records the copy in a {@link DerivedMappings buffer} to be applied once every
+     *             mixin has been processed
+     */
+    @Deprecated
+    public void copyFieldMapping(final ClassMapping<?, ?> targetParent, final FieldSignature signature,
+                                 final Function<String, String> deobfProcessor) {
+        final DerivedMappings derived = new DerivedMappings();
+        this.copyFieldMapping(derived, targetParent, signature, deobfProcessor);
+        derived.apply(this.mappings);
+    }
+
+    /**
+     * Copies the relevant mapping from the target's {@link ClassMapping mappings}, if such information
+     * exists, applying the copy to the mixin's mapping straight away.
+     *
+     * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
+     *                     the given mapping from
+     * @param mixinSignature The {@link MethodSignature signature} of the method in the mixin
+     * @param targetSignature The {@link MethodSignature signature} of the method in the target
+     * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
+     *                       copied mapping
+     * @deprecated Use
+     *             {@link #copyMethodMapping(DerivedMappings, ClassMapping, MethodSignature, MethodSignature, Function)},
+     *             which records the copy in a {@link DerivedMappings buffer} to be applied once every
+     *             mixin has been processed
+     */
+    @Deprecated
+    public void copyMethodMapping(final ClassMapping<?, ?> targetParent,
+                                  final MethodSignature mixinSignature, final MethodSignature targetSignature,
+                                  final Function<String, String> deobfProcessor) {
+        final DerivedMappings derived = new DerivedMappings();
+        this.copyMethodMapping(derived, targetParent, mixinSignature, targetSignature, deobfProcessor);
+        derived.apply(this.mappings);
+    }
+
+    /**
+     * Copies the relevant mapping from the target's {@link ClassMapping mappings}, if such information
+     * exists, applying the copy to the mixin's mapping straight away.
+     *
+     * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
+     *                     the given mapping from
+     * @param signature The {@link MethodSignature signature} of the method you wish to copy
+     * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
+     *                       copied mapping
+     * @deprecated Use
+     *             {@link #copyMethodMapping(DerivedMappings, ClassMapping, MethodSignature, Function)},
+     *             which records the copy in a {@link DerivedMappings buffer} to be applied once every
+     *             mixin has been processed
+     */
+    @Deprecated
+    public void copyMethodMapping(final ClassMapping<?, ?> targetParent, final MethodSignature signature,
+                                  final Function<String, String> deobfProcessor) {
+        final DerivedMappings derived = new DerivedMappings();
+        this.copyMethodMapping(derived, targetParent, signature, deobfProcessor);
+        derived.apply(this.mappings);
+    }
+
+    /**
+     * Copies the relevant mapping from the target's {@link ClassMapping mappings}, if such information
+     * exists, applying the copy to the mixin's mapping straight away.
+     *
+     * @param targetParent The {@link ClassMapping class mapping} of the mixin's target you wish to copy
+     *                     the given mapping from
+     * @param mixinSignature The {@link MethodSignature signature} of the method in the mixin
+     * @param targetSignature The {@link FieldSignature signature} of the field in the target
+     * @param deobfProcessor A processor to alter the de-obfuscation name before it is applied to the
+     *                       copied mapping
+     * @deprecated Use
+     *             {@link #copyMethodMapping(DerivedMappings, ClassMapping, MethodSignature, FieldSignature, Function)},
+     *             which records the copy in a {@link DerivedMappings buffer} to be applied once every
+     *             mixin has been processed
+     */
+    @Deprecated
+    public void copyMethodMapping(final ClassMapping<?, ?> targetParent,
+                                  final MethodSignature mixinSignature, final FieldSignature targetSignature,
+                                  final Function<String, String> deobfProcessor) {
+        final DerivedMappings derived = new DerivedMappings();
+        this.copyMethodMapping(derived, targetParent, mixinSignature, targetSignature, deobfProcessor);
+        derived.apply(this.mappings);
     }
 
 }
@@ -63,6 +63,10 @@ public static MixinData from(final IAnnotationBinding binding) {
     protected final ITypeBinding[] targets;
     protected final String[] privateTargets;
 
+    private TargetResolver resolver;
+    private int resolverGeneration;
+    private ITypeBinding[] resolvedTargets;
+
     public MixinData(final ITypeBinding[] targets, final String[] privateTargets) {
         this.targets = targets;
         this.privateTargets = privateTargets;
@@ -89,6 +93,51 @@ public ITypeBinding[] getTargets(final Mercury mercury) {
         return targets;
     }
 
+    /**
+     * Gets <em>all</em> targets of the mixin, using the given resolver for
+     * private targets.
+     * <p>
+     * The targets are only resolved once per resolver, so the returned
+     * array is shared and must not be modified.
+     *
+     * @param resolver The target resolver
+     * @return The targets
+     */
+    public ITypeBinding[] getTargets(final TargetResolver resolver) {
+        if (this.privateTargets.length == 0) return this.targets;
+        if (this.resolver == resolver && this.resolverGeneration == resolver.getGeneration()) {
+            return this.resolvedTargets;
+        }
+
+        final ITypeBinding[] targets = new ITypeBinding[this.targets.length + this.privateTargets.length];
+
+        System.arraycopy(this.targets, 0, targets, 0, this.targets.length);
+
+        for (int i = 0; i < this.privateTargets.length; i++) {
+            targets[this.targets.length + i] = resolver.resolve(this.privateTargets[i]);
+        }
+
+        this.resolvedTargets = targets;
+        this.resolver = resolver;
+        this.resolverGeneration = resolver.getGeneration();
+        return targets;
+    }
+
+    /**
+     * Gets the <em>binary names</em> of all the mixin's targets, both
+     * public and private.
+     *
+     * @return The targets
+     */
+    public String[] getTargetNames() {
+        final String[] targets = new String[this.targets.length + this.privateTargets.length];
+        for (int i = 0; i < this.targets.length; i++) {
+            targets[i] = this.targets[i].getBinaryName();
+        }
+        System.arraycopy(this.privateTargets, 0, targets, this.targets.length, this.privateTargets.length);
+        return targets;
+    }
+
     /**
      * Gets the <em>public</em> targets of the mixin.
      *
@@ -0,0 +1,199 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.annotation;
+
+import org.cadixdev.mercury.Mercury;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of parsed {@link InjectTarget selectors} and {@link AtData @At}
+ * targets, so the selectors repeated across mixins are only parsed once
+ * per run.
+ * <p>
+ * The cache holds at most {@link #getCapacity() capacity} entries of each
+ * kind; once full, further strings are parsed without being cached. A
+ * single cache is shared by everything processing the same {@link Mercury}
+ * instance, and is {@link #clear() cleared} at the start of each run.
+ *
+ * @since 0.1.0
+ */
+public final class ParseCache {
+
+    /**
+     * The number of entries of each kind held by default.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Gets the parse cache for the given Mercury instance.
+     *
+     * @param mercury The mercury instance
+     * @return The parse cache
+     */
+    public static ParseCache get(final Mercury mercury) {
+        return (ParseCache) mercury.getContext().computeIfAbsent(ParseCache.class, k -> new ParseCache(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Creates a parse cache, holding at most the given number of entries
+     * of each kind.
+     *
+     * @param capacity The capacity
+     * @return The parse cache
+     */
+    public static ParseCache create(final int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must not be negative");
+        return new ParseCache(capacity);
+    }
+
+    private final int capacity;
+    private final Map<String, InjectTarget> targets = new ConcurrentHashMap<>();
+    // By target, and then injection point - of which there are only a few
+    private final Map<String, Map<String, AtData>> ats = new ConcurrentHashMap<>();
+    private final LongAdder atCount = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ParseCache(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Parses the given selector, as {@link InjectTarget#of(String)} does.
+     *
+     * @param target The selector
+     * @return The parsed selector
+     */
+    public InjectTarget target(final String target) {
+        final InjectTarget cached = this.targets.get(target);
+        if (cached != null) {
+            this.hits.increment();
+            return cached;
+        }
+
+        this.misses.increment();
+        final InjectTarget parsed = InjectTarget.of(target);
+        if (this.targets.size() < this.capacity) {
+            this.targets.putIfAbsent(target, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses the values of an {@code @At} annotation, as
+     * {@link AtData#of(String, String)} does.
+     *
+     * @param injectionPoint The injection point, may be {@code null}
+     * @param combined The target, may be {@code null}
+     * @return The parsed data
+     */
+    public AtData at(final String injectionPoint, final String combined) {
+        // Nothing to parse
+        if (combined == null) return new AtData(injectionPoint, null, null);
+
+        final String point = injectionPoint != null ? injectionPoint : "";
+        final Map<String, AtData> byPoint = this.ats.get(combined);
+        final AtData cached = byPoint != null ? byPoint.get(point) : null;
+        if (cached != null) {
+            this.hits.increment();
+            return cached;
+        }
+
+        this.misses.increment();
+        final AtData parsed = byPoint != null && !byPoint.isEmpty() ?
+                // The target has already been parsed, for another injection point
+                this.reuse(injectionPoint, byPoint.values().iterator().next()) :
+                AtData.of(injectionPoint, combined);
+        if (this.atCount.sum() < this.capacity) {
+            final Map<String, AtData> points = byPoint != null ? byPoint :
+                    this.ats.computeIfAbsent(combined, k -> new ConcurrentHashMap<>(4));
+            if (points.putIfAbsent(point, parsed) == null) {
+                this.atCount.increment();
+            }
+        }
+        return parsed;
+    }
+
+    private AtData reuse(final String injectionPoint, final AtData parsed) {
+        return new AtData(
+                injectionPoint,
+                parsed.getClassName().orElse(null),
+                parsed.getTarget().orElse(null)
+        );
+    }
+
+    /**
+     * Gets the maximum number of entries held of each kind.
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of entries held.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return this.targets.size() + this.atCount.intValue();
+    }
+
+    /**
+     * Gets the number of strings served from the cache, since it was last
+     * cleared.
+     *
+     * @return The number of hits
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of strings that had to be parsed, since the cache was
+     * last cleared.
+     *
+     * @return The number of misses
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the proportion of strings served from the cache, since it was
+     * last cleared.
+     *
+     * @return The hit rate, between {@code 0} and {@code 1}
+     */
+    public double getHitRate() {
+        final long hits = this.hits.sum();
+        final long total = hits + this.misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Removes all of the entries, and resets the statistics.
+     */
+    public void clear() {
+        this.targets.clear();
+        this.ats.clear();
+        this.atCount.reset();
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ParseCache{size=%d, hits=%d, misses=%d, hitRate=%.2f}",
+                this.size(), this.getHits(), this.getMisses(), this.getHitRate());
+    }
+
+}
@@ -21,15 +21,27 @@ public class SliceData {
 
     // @Slice(from = @At(...), to = @At(...))
     public static SliceData from(final IAnnotationBinding binding) {
+        return from(binding, null);
+    }
+
+    /**
+     * Reads the data held in a {@code @Slice} annotation, parsing its
+     * {@code @At} targets through the given cache.
+     *
+     * @param binding The annotation binding
+     * @param cache The parse cache, or {@code null} to not cache
+     * @return The data
+     */
+    public static SliceData from(final IAnnotationBinding binding, final ParseCache cache) {
         AtData from = null;
         AtData to = null;
 
         for (final IMemberValuePairBinding pair : binding.getDeclaredMemberValuePairs()) {
             if (Objects.equals("from", pair.getName())) {
-                from = AtData.from((IAnnotationBinding) pair.getValue());
+                from = AtData.from((IAnnotationBinding) pair.getValue(), cache);
             }
             if (Objects.equals("to", pair.getName())) {
-                to = AtData.from((IAnnotationBinding) pair.getValue());
+                to = AtData.from((IAnnotationBinding) pair.getValue(), cache);
             }
         }
 
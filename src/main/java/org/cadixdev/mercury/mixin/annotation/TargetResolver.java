@@ -0,0 +1,85 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.annotation;
+
+import org.cadixdev.mercury.Mercury;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the <em>private</em> targets of mixins to type bindings,
+ * resolving each target name only once per run.
+ * <p>
+ * Names that can't be resolved are cached too. A single resolver is shared
+ * by everything processing the same {@link Mercury} instance, and it must
+ * be {@link #clear() cleared} between runs - as the bindings it holds are
+ * tied to the environment they were resolved in.
+ *
+ * @since 0.1.0
+ */
+public final class TargetResolver {
+
+    /**
+     * Gets the target resolver for the given Mercury instance.
+     *
+     * @param mercury The mercury instance
+     * @return The target resolver
+     */
+    public static TargetResolver get(final Mercury mercury) {
+        return (TargetResolver) mercury.getContext().computeIfAbsent(TargetResolver.class, k -> new TargetResolver(mercury));
+    }
+
+    private final Mercury mercury;
+    private final Map<String, Optional<ITypeBinding>> bindings = new ConcurrentHashMap<>();
+    private volatile int generation;
+
+    private TargetResolver(final Mercury mercury) {
+        this.mercury = mercury;
+    }
+
+    /**
+     * Resolves the type binding for the given class name.
+     *
+     * @param className The class name
+     * @return The binding, or {@code null} if the class couldn't be resolved
+     */
+    public ITypeBinding resolve(final String className) {
+        return this.bindings.computeIfAbsent(className, this.mercury::createTypeBinding).orElse(null);
+    }
+
+    /**
+     * Gets the number of class names resolved, successfully or not, since
+     * the resolver was last cleared.
+     *
+     * @return The number of resolved names
+     */
+    public int size() {
+        return this.bindings.size();
+    }
+
+    /**
+     * Gets the number of times the resolver has been cleared, so results
+     * derived from it can be invalidated.
+     *
+     * @return The generation
+     */
+    int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Removes all of the resolved bindings.
+     */
+    public void clear() {
+        this.bindings.clear();
+        this.generation++;
+    }
+
+}
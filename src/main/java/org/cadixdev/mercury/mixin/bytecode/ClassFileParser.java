@@ -0,0 +1,225 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.bytecode;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A parser for the parts of a class file the {@link ClassIndex} needs -
+ * stopping after the methods, without reading any code.
+ * <p>
+ * Only the constant pool entries that are actually used are decoded.
+ */
+final class ClassFileParser {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    /**
+     * Parses the class file held in the given buffer, from its position to
+     * its limit.
+     *
+     * @param buffer The buffer
+     * @return The metadata of the class
+     * @throws IllegalArgumentException If the buffer doesn't hold a valid
+     *                                  class file
+     */
+    static ClassMetadata parse(final ByteBuffer buffer) {
+        try {
+            return new ClassFileParser(buffer).parse();
+        }
+        catch (final IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Truncated class file", ex);
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private int position;
+    private int[] offsets;
+    private String[] strings;
+
+    private ClassFileParser(final ByteBuffer buffer) {
+        // Only absolute reads are made, so the buffer is left untouched
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.position = buffer.position();
+    }
+
+    private ClassMetadata parse() {
+        if (this.u4() != MAGIC) throw new IllegalArgumentException("Not a class file");
+        this.position += 4; // minor and major version
+
+        this.readConstantPool();
+
+        final int access = this.u2();
+        final String name = this.className(this.u2());
+        final int superIndex = this.u2();
+        final String superName = superIndex != 0 ? this.className(superIndex) : null;
+
+        final int interfaceCount = this.u2();
+        final List<String> interfaces;
+        if (interfaceCount == 0) {
+            interfaces = Collections.emptyList();
+        }
+        else {
+            final String[] names = new String[interfaceCount];
+            for (int i = 0; i < interfaceCount; i++) {
+                names[i] = this.className(this.u2());
+            }
+            interfaces = Collections.unmodifiableList(Arrays.asList(names));
+        }
+
+        final List<ClassMetadata.Member> fields = this.readMembers();
+        final List<ClassMetadata.Member> methods = this.readMembers();
+        return new ClassMetadata(name, access, superName, interfaces, fields, methods);
+    }
+
+    private void readConstantPool() {
+        final int count = this.u2();
+        this.offsets = new int[count];
+        this.strings = new String[count];
+
+        for (int i = 1; i < count; i++) {
+            final int tag = this.u1();
+            this.offsets[i] = this.position;
+
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    this.position += 2 + this.u2At(this.position);
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    this.position += 2;
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    this.position += 3;
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    this.position += 4;
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    // These take up two entries
+                    this.position += 8;
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag " + tag + " at entry " + i);
+            }
+        }
+    }
+
+    private List<ClassMetadata.Member> readMembers() {
+        final int count = this.u2();
+        if (count == 0) return Collections.emptyList();
+
+        final ClassMetadata.Member[] members = new ClassMetadata.Member[count];
+        for (int i = 0; i < count; i++) {
+            final int access = this.u2();
+            final String name = this.utf8(this.u2());
+            final String descriptor = this.utf8(this.u2());
+            members[i] = new ClassMetadata.Member(name, descriptor, access);
+
+            // Skip the attributes, such as the code of methods
+            final int attributes = this.u2();
+            for (int j = 0; j < attributes; j++) {
+                this.position += 2;
+                this.position += 4 + this.u4();
+            }
+        }
+        return Collections.unmodifiableList(Arrays.asList(members));
+    }
+
+    private String className(final int index) {
+        return this.utf8(this.u2At(this.offsets[index]));
+    }
+
+    private String utf8(final int index) {
+        final String cached = this.strings[index];
+        if (cached != null) return cached;
+
+        final int offset = this.offsets[index];
+        final String value = decode(this.buffer, offset + 2, this.u2At(offset));
+        this.strings[index] = value;
+        return value;
+    }
+
+    /**
+     * Decodes the <em>modified</em> UTF-8 strings of class files.
+     */
+    private static String decode(final ByteBuffer buffer, final int offset, final int length) {
+        final char[] chars = new char[length];
+        int count = 0;
+        int i = offset;
+        final int end = offset + length;
+
+        while (i < end) {
+            final int b = buffer.get(i++) & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            }
+            else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get(i++) & 0x3F));
+            }
+            else {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((buffer.get(i++) & 0x3F) << 6) | (buffer.get(i++) & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private int u1() {
+        return this.buffer.get(this.position++) & 0xFF;
+    }
+
+    private int u2() {
+        final int value = this.u2At(this.position);
+        this.position += 2;
+        return value;
+    }
+
+    private int u2At(final int offset) {
+        return this.buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private int u4() {
+        final int value = this.buffer.getInt(this.position);
+        this.position += 4;
+        return value;
+    }
+
+}
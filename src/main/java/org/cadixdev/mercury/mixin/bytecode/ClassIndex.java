@@ -0,0 +1,387 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.bytecode;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.mercury.Mercury;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An index of the classes on the classpath, read straight from their class
+ * files - giving the modifiers, supertypes, fields and methods of a class
+ * without resolving any bindings.
+ * <p>
+ * Once {@link #install(Mercury) installed}, the processors answer their
+ * queries about mixin targets from the index, such as when completing the
+ * mappings of a target or checking whether a shadowed field is final.
+ * Classes that aren't indexed, such as those only available as source, are
+ * still resolved through bindings.
+ * <p>
+ * The index can be {@link #setCacheFile(Path) cached} between runs, so only
+ * the jars that have changed since are read again. The cache is best-effort:
+ * should it not be readable or writable, the jars are simply read again.
+ *
+ * @since 0.1.0
+ */
+public final class ClassIndex {
+
+    /**
+     * Creates an empty class index.
+     *
+     * @return The class index
+     */
+    public static ClassIndex create() {
+        return new ClassIndex();
+    }
+
+    /**
+     * Gets the class index installed on the given Mercury instance.
+     *
+     * @param mercury The mercury instance
+     * @return The class index, or {@code null} if none is installed
+     */
+    public static ClassIndex get(final Mercury mercury) {
+        return (ClassIndex) mercury.getContext().get(ClassIndex.class);
+    }
+
+    private static final String HEADER = "mercurymixin-classes 1";
+
+    private final IndexInheritanceProvider inheritanceProvider = new IndexInheritanceProvider(this);
+    private final Map<String, Boolean> hierarchies = new ConcurrentHashMap<>();
+    private Map<Path, Entry> entries = Collections.emptyMap();
+    private volatile Map<String, ClassMetadata> classes = Collections.emptyMap();
+    private Path cacheFile;
+    private boolean loaded;
+
+    private ClassIndex() {
+    }
+
+    /**
+     * Sets the file used to cache the index between runs, or {@code null}
+     * to not use a cache.
+     * <p>
+     * Jars are only read again when their size or modification time
+     * changes. Directories are always read again.
+     *
+     * @param cacheFile The cache file
+     */
+    public synchronized void setCacheFile(final Path cacheFile) {
+        this.cacheFile = cacheFile;
+        this.loaded = false;
+    }
+
+    /**
+     * Indexes the classpath of the given Mercury instance, and installs the
+     * index on it - for the processors to use.
+     *
+     * @param mercury The mercury instance
+     */
+    public void install(final Mercury mercury) {
+        this.update(mercury.getClassPath());
+        mercury.getContext().put(ClassIndex.class, this);
+    }
+
+    /**
+     * Indexes the given classpath, replacing the classes previously
+     * indexed. Should a class be on the classpath more than once, the first
+     * is indexed - as it would be by the compiler.
+     *
+     * @param classPath The jars and directories of the classpath
+     */
+    public synchronized void update(final List<Path> classPath) {
+        if (!this.loaded) {
+            this.entries = this.load();
+            this.loaded = true;
+        }
+
+        final Map<Path, Entry> entries = new LinkedHashMap<>();
+        boolean dirty = false;
+        for (final Path path : classPath) {
+            final Path key = path.toAbsolutePath().normalize();
+            if (entries.containsKey(key)) continue;
+
+            final String fingerprint = fingerprint(key);
+            Entry entry = this.entries.get(key);
+            if (entry == null || fingerprint == null || !fingerprint.equals(entry.fingerprint)) {
+                entry = read(key, fingerprint);
+                dirty |= entry.fingerprint != null;
+            }
+            entries.put(key, entry);
+        }
+        dirty |= !cached(entries).keySet().equals(cached(this.entries).keySet());
+
+        final Map<String, ClassMetadata> classes = new HashMap<>();
+        for (final Entry entry : entries.values()) {
+            for (final ClassMetadata klass : entry.classes) {
+                classes.putIfAbsent(klass.getName(), klass);
+            }
+        }
+
+        this.entries = entries;
+        this.classes = classes;
+        this.hierarchies.clear();
+        this.inheritanceProvider.clear();
+
+        if (dirty && this.cacheFile != null) {
+            this.save();
+        }
+    }
+
+    /**
+     * Gets the metadata of the class with the given name.
+     *
+     * @param className The binary or internal name of the class
+     * @return The metadata, or {@code null} if the class isn't indexed
+     */
+    public ClassMetadata get(final String className) {
+        return this.classes.get(className.replace('.', '/'));
+    }
+
+    /**
+     * Gets whether the class with the given name, and every supertype it
+     * has, can be answered for without bindings. Classes of the JDK don't
+     * need to be indexed, as they have no mappings.
+     *
+     * @param className The binary or internal name of the class
+     * @return {@code true} if the hierarchy is indexed
+     */
+    public boolean isHierarchyIndexed(final String className) {
+        return this.isHierarchyIndexed(className.replace('.', '/'), new HashSet<>());
+    }
+
+    private boolean isHierarchyIndexed(final String name, final Set<String> walking) {
+        if (name.startsWith("java/")) return true;
+
+        final Boolean cached = this.hierarchies.get(name);
+        if (cached != null) return cached;
+
+        // A class that is its own supertype can only come from a malformed
+        // jar, and is left to bindings
+        if (!walking.add(name)) return false;
+
+        final ClassMetadata klass = this.classes.get(name);
+        boolean indexed = klass != null &&
+                (klass.getSuperName() == null || this.isHierarchyIndexed(klass.getSuperName(), walking));
+        if (indexed) {
+            for (final String iface : klass.getInterfaces()) {
+                if (!this.isHierarchyIndexed(iface, walking)) {
+                    indexed = false;
+                    break;
+                }
+            }
+        }
+
+        walking.remove(name);
+        this.hierarchies.put(name, indexed);
+        return indexed;
+    }
+
+    /**
+     * Gets an inheritance provider backed by the index, for completing the
+     * mappings of indexed classes.
+     *
+     * @return The inheritance provider
+     */
+    public InheritanceProvider getInheritanceProvider() {
+        return this.inheritanceProvider;
+    }
+
+    /**
+     * Gets the number of classes indexed.
+     *
+     * @return The number of classes
+     */
+    public int size() {
+        return this.classes.size();
+    }
+
+    @Override
+    public String toString() {
+        return "ClassIndex{entries=" + this.entries.size() + ", classes=" + this.classes.size() + '}';
+    }
+
+    private static Entry read(final Path path, final String fingerprint) {
+        try {
+            return new Entry(fingerprint, ClassPathReader.read(path));
+        }
+        catch (final IOException ex) {
+            // Left to the bindings, and tried again next time
+            return new Entry(null, Collections.emptyList());
+        }
+    }
+
+    /**
+     * Fingerprints the given jar, by its size and modification time.
+     *
+     * @param path The jar
+     * @return The fingerprint, or {@code null} for directories and missing
+     *         files - which aren't cached
+     */
+    private static String fingerprint(final Path path) {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) return null;
+            return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        }
+        catch (final IOException ex) {
+            return null;
+        }
+    }
+
+    private static Map<Path, Entry> cached(final Map<Path, Entry> entries) {
+        final Map<Path, Entry> cached = new HashMap<>();
+        for (final Map.Entry<Path, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().fingerprint != null) {
+                cached.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return cached;
+    }
+
+    private Map<Path, Entry> load() {
+        if (this.cacheFile == null || !Files.exists(this.cacheFile)) return Collections.emptyMap();
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(this.cacheFile))))) {
+            if (!HEADER.equals(in.readUTF())) return Collections.emptyMap();
+
+            final Map<Path, Entry> entries = new HashMap<>();
+            final int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                final Path path = this.cacheFile.getFileSystem().getPath(in.readUTF());
+                final String fingerprint = in.readUTF();
+
+                final int classCount = in.readInt();
+                final List<ClassMetadata> classes = new ArrayList<>(classCount);
+                for (int j = 0; j < classCount; j++) {
+                    final String name = in.readUTF();
+                    final int access = in.readInt();
+                    final String superName = in.readUTF();
+
+                    final String[] interfaces = new String[in.readInt()];
+                    for (int k = 0; k < interfaces.length; k++) {
+                        interfaces[k] = in.readUTF();
+                    }
+
+                    classes.add(new ClassMetadata(
+                            name, access, superName.isEmpty() ? null : superName,
+                            Collections.unmodifiableList(Arrays.asList(interfaces)),
+                            readMembers(in), readMembers(in)
+                    ));
+                }
+                entries.put(path, new Entry(fingerprint, classes));
+            }
+            return entries;
+        }
+        catch (final IOException | RuntimeException ex) {
+            // A corrupt cache is no worse than no cache
+            return Collections.emptyMap();
+        }
+    }
+
+    private static List<ClassMetadata.Member> readMembers(final DataInputStream in) throws IOException {
+        final ClassMetadata.Member[] members = new ClassMetadata.Member[in.readInt()];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = new ClassMetadata.Member(in.readUTF(), in.readUTF(), in.readInt());
+        }
+        return Collections.unmodifiableList(Arrays.asList(members));
+    }
+
+    private void save() {
+        final Path temp = this.cacheFile.resolveSibling(this.cacheFile.getFileName() + ".tmp");
+
+        try {
+            if (this.cacheFile.getParent() != null) {
+                Files.createDirectories(this.cacheFile.getParent());
+            }
+
+            final Map<Path, Entry> cached = cached(this.entries);
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeUTF(HEADER);
+                out.writeInt(cached.size());
+
+                for (final Map.Entry<Path, Entry> entry : cached.entrySet()) {
+                    out.writeUTF(entry.getKey().toString());
+                    out.writeUTF(entry.getValue().fingerprint);
+
+                    out.writeInt(entry.getValue().classes.size());
+                    for (final ClassMetadata klass : entry.getValue().classes) {
+                        out.writeUTF(klass.getName());
+                        out.writeInt(klass.getAccess());
+                        out.writeUTF(klass.getSuperName() != null ? klass.getSuperName() : "");
+
+                        out.writeInt(klass.getInterfaces().size());
+                        for (final String iface : klass.getInterfaces()) {
+                            out.writeUTF(iface);
+                        }
+
+                        writeMembers(out, klass.getFields());
+                        writeMembers(out, klass.getMethods());
+                    }
+                }
+            }
+
+            Files.move(temp, this.cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (final IOException ex) {
+            // Only costs reading the jars again next time
+            try {
+                Files.deleteIfExists(temp);
+            }
+            catch (final IOException ignored) {
+            }
+        }
+    }
+
+    private static void writeMembers(final DataOutputStream out, final List<ClassMetadata.Member> members)
+            throws IOException {
+        out.writeInt(members.size());
+        for (final ClassMetadata.Member member : members) {
+            out.writeUTF(member.getName());
+            out.writeUTF(member.getDescriptor());
+            out.writeInt(member.getAccess());
+        }
+    }
+
+    /**
+     * The classes read from a single classpath entry.
+     */
+    private static final class Entry {
+
+        final String fingerprint;
+        final List<ClassMetadata> classes;
+
+        Entry(final String fingerprint, final List<ClassMetadata> classes) {
+            this.fingerprint = fingerprint;
+            this.classes = classes;
+        }
+
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.bytecode;
+
+import org.cadixdev.bombe.type.FieldType;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+
+import java.util.List;
+
+/**
+ * The metadata of a single class, as read from its class file - its
+ * modifiers, supertypes, and the fields and methods it declares.
+ *
+ * @since 0.1.0
+ */
+public final class ClassMetadata {
+
+    /**
+     * The access flag of interfaces, including annotations.
+     */
+    public static final int ACC_INTERFACE = 0x0200;
+
+    private final String name;
+    private final int access;
+    private final String superName;
+    private final List<String> interfaces;
+    private final List<Member> fields;
+    private final List<Member> methods;
+
+    ClassMetadata(final String name, final int access, final String superName, final List<String> interfaces,
+                  final List<Member> fields, final List<Member> methods) {
+        this.name = name;
+        this.access = access;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.fields = fields;
+        this.methods = methods;
+    }
+
+    /**
+     * Gets the internal name of the class, such as {@code java/lang/Object}.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the access flags of the class, which match the modifiers of
+     * {@link java.lang.reflect.Modifier}.
+     *
+     * @return The access flags
+     */
+    public int getAccess() {
+        return this.access;
+    }
+
+    /**
+     * Gets whether the class is an interface.
+     *
+     * @return {@code true} if an interface
+     */
+    public boolean isInterface() {
+        return (this.access & ACC_INTERFACE) != 0;
+    }
+
+    /**
+     * Gets the internal name of the superclass.
+     *
+     * @return The superclass, or {@code null} for {@code java/lang/Object}
+     *         and modules
+     */
+    public String getSuperName() {
+        return this.superName;
+    }
+
+    /**
+     * Gets the internal names of the interfaces the class implements
+     * directly.
+     *
+     * @return The interfaces
+     */
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    /**
+     * Gets the fields declared by the class.
+     *
+     * @return The fields
+     */
+    public List<Member> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * Gets the methods declared by the class, including constructors.
+     *
+     * @return The methods
+     */
+    public List<Member> getMethods() {
+        return this.methods;
+    }
+
+    /**
+     * Gets the field with the given name and descriptor.
+     *
+     * @param name The name of the field
+     * @param descriptor The descriptor, or {@code null} to match any field
+     *                   with the name
+     * @return The field, or {@code null} if the class doesn't declare it
+     */
+    public Member getField(final String name, final String descriptor) {
+        return find(this.fields, name, descriptor);
+    }
+
+    /**
+     * Gets the modifiers of the field with the given signature.
+     *
+     * @param signature The signature of the field
+     * @return The modifiers, or {@code null} if the class doesn't declare
+     *         the field
+     */
+    public Integer getFieldModifiers(final FieldSignature signature) {
+        final Member field = this.getField(
+                signature.getName(),
+                signature.getType().map(FieldType::toString).orElse(null)
+        );
+        return field != null ? field.getAccess() : null;
+    }
+
+    /**
+     * Gets the method with the given name and descriptor.
+     *
+     * @param name The name of the method
+     * @param descriptor The descriptor, or {@code null} to match the first
+     *                   method with the name
+     * @return The method, or {@code null} if the class doesn't declare it
+     */
+    public Member getMethod(final String name, final String descriptor) {
+        return find(this.methods, name, descriptor);
+    }
+
+    private static Member find(final List<Member> members, final String name, final String descriptor) {
+        for (final Member member : members) {
+            if (member.name.equals(name) && (descriptor == null || member.descriptor.equals(descriptor))) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassMetadata{" + this.name + ", fields=" + this.fields.size() + ", methods=" + this.methods.size() + '}';
+    }
+
+    /**
+     * A field or method declared by a class.
+     */
+    public static final class Member {
+
+        private final String name;
+        private final String descriptor;
+        private final int access;
+
+        Member(final String name, final String descriptor, final int access) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.access = access;
+        }
+
+        /**
+         * Gets the name of the member.
+         *
+         * @return The name
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * Gets the descriptor of the member, such as {@code (I)V}.
+         *
+         * @return The descriptor
+         */
+        public String getDescriptor() {
+            return this.descriptor;
+        }
+
+        /**
+         * Gets the access flags of the member, which match the modifiers of
+         * {@link java.lang.reflect.Modifier}.
+         *
+         * @return The access flags
+         */
+        public int getAccess() {
+            return this.access;
+        }
+
+        @Override
+        public String toString() {
+            return this.name + ' ' + this.descriptor;
+        }
+
+    }
+
+}
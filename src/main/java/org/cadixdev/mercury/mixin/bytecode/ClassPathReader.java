@@ -0,0 +1,298 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the class files of a single classpath entry, a jar or a directory,
+ * parsing the class files in parallel.
+ * <p>
+ * Jars are memory-mapped, and their central directory is read directly -
+ * so each class file is only inflated once, straight from the mapping.
+ * Jars this can't be done for, such as those over 2 GiB, are read through
+ * {@link ZipFile} instead.
+ */
+final class ClassPathReader {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final int ENCRYPTED = 0x1;
+
+    /**
+     * Reads the metadata of every class in the given classpath entry.
+     * Class files that can't be parsed are left out.
+     *
+     * @param entry The jar or directory
+     * @return The metadata of the classes
+     * @throws IOException Should the entry not be readable
+     */
+    static List<ClassMetadata> read(final Path entry) throws IOException {
+        if (Files.isDirectory(entry)) return readDirectory(entry);
+        if (!Files.isRegularFile(entry)) return Collections.emptyList();
+
+        try (final FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) return readZip(entry);
+
+            // The mapping stays valid once the channel is closed
+            final ByteBuffer jar = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            final List<Entry> entries = readCentralDirectory(jar);
+            if (entries == null) return readZip(entry);
+
+            return entries.parallelStream()
+                    .map(classFile -> parse(jar, classFile))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Reads the class files listed in the central directory of the given
+     * jar.
+     *
+     * @param jar The jar
+     * @return The class files, or {@code null} if the jar can't be read
+     *         directly - such as for zip64 archives
+     */
+    private static List<Entry> readCentralDirectory(final ByteBuffer jar) {
+        final int end = findEndOfCentralDirectory(jar);
+        if (end < 0) return null;
+
+        final int count = u2(jar, end + 10);
+        final long offset = u4(jar, end + 16);
+        // Left to zip64
+        if (count == 0xFFFF || offset >= jar.limit()) return null;
+
+        final List<Entry> entries = new ArrayList<>(count);
+        int position = (int) offset;
+        for (int i = 0; i < count; i++) {
+            if (jar.getInt(position) != CENTRAL_HEADER) return null;
+
+            final int flags = u2(jar, position + 8);
+            final int method = u2(jar, position + 10);
+            final long compressedSize = u4(jar, position + 20);
+            final long size = u4(jar, position + 24);
+            final int nameLength = u2(jar, position + 28);
+            final int extraLength = u2(jar, position + 30);
+            final int commentLength = u2(jar, position + 32);
+            final long localOffset = u4(jar, position + 42);
+
+            if (isClassFile(jar, position + 46, nameLength) && (flags & ENCRYPTED) == 0) {
+                // Sizes this large are zip64
+                if (compressedSize >= Integer.MAX_VALUE || size >= Integer.MAX_VALUE || localOffset >= jar.limit()) {
+                    return null;
+                }
+                entries.add(new Entry(method, (int) compressedSize, (int) size, (int) localOffset));
+            }
+
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private static int findEndOfCentralDirectory(final ByteBuffer jar) {
+        final int last = jar.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        final int first = Math.max(0, last - MAX_COMMENT_SIZE);
+        for (int i = last; i >= first; i--) {
+            if (jar.getInt(i) == END_OF_CENTRAL_DIRECTORY) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the entry with the given name is a class file, leaving
+     * out those under {@code META-INF}, such as the versioned classes of
+     * multi-release jars.
+     */
+    private static boolean isClassFile(final ByteBuffer jar, final int name, final int length) {
+        if (length < 6) return false;
+
+        final int suffix = name + length - 6;
+        if (jar.get(suffix) != '.' || jar.get(suffix + 1) != 'c' || jar.get(suffix + 2) != 'l' ||
+                jar.get(suffix + 3) != 'a' || jar.get(suffix + 4) != 's' || jar.get(suffix + 5) != 's') {
+            return false;
+        }
+
+        return length < 9 || !(jar.get(name) == 'M' && jar.get(name + 1) == 'E' && jar.get(name + 2) == 'T' &&
+                jar.get(name + 3) == 'A' && jar.get(name + 4) == '-' && jar.get(name + 5) == 'I' &&
+                jar.get(name + 6) == 'N' && jar.get(name + 7) == 'F' && jar.get(name + 8) == '/');
+    }
+
+    private static ClassMetadata parse(final ByteBuffer jar, final Entry entry) {
+        try {
+            if (jar.getInt(entry.offset) != LOCAL_HEADER) return null;
+            final int data = entry.offset + 30 + u2(jar, entry.offset + 26) + u2(jar, entry.offset + 28);
+
+            final ByteBuffer compressed = jar.duplicate();
+            ((Buffer) compressed).limit(data + entry.compressedSize);
+            ((Buffer) compressed).position(data);
+
+            switch (entry.method) {
+                case STORED:
+                    return ClassFileParser.parse(compressed);
+                case DEFLATED:
+                    return ClassFileParser.parse(ByteBuffer.wrap(inflate(compressed, entry.size)));
+                default:
+                    return null;
+            }
+        }
+        catch (final IllegalArgumentException | IndexOutOfBoundsException | DataFormatException ex) {
+            // Left to the bindings
+            return null;
+        }
+    }
+
+    private static byte[] inflate(final ByteBuffer compressed, final int size) throws DataFormatException {
+        // Raw deflate needs an extra byte of input to finish
+        final byte[] input = new byte[compressed.remaining() + 1];
+        compressed.get(input, 0, input.length - 1);
+
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            final byte[] output = new byte[size];
+            int read = 0;
+            while (read < size && !inflater.finished()) {
+                final int inflated = inflater.inflate(output, read, size - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated entry");
+                }
+                read += inflated;
+            }
+            return output;
+        }
+        finally {
+            inflater.end();
+        }
+    }
+
+    private static List<ClassMetadata> readZip(final Path jar) throws IOException {
+        try (final ZipFile zip = new ZipFile(jar.toFile())) {
+            final List<ZipEntry> entries = zip.stream()
+                    .filter(entry -> entry.getName().endsWith(".class") && !entry.getName().startsWith("META-INF/"))
+                    .collect(Collectors.toList());
+
+            return entries.parallelStream()
+                    .map(entry -> {
+                        try (final InputStream in = zip.getInputStream(entry)) {
+                            return parse(readAll(in));
+                        }
+                        catch (final IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+        catch (final UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static List<ClassMetadata> readDirectory(final Path directory) throws IOException {
+        final List<Path> files;
+        try (final Stream<Path> walk = Files.walk(directory)) {
+            files = walk.filter(path -> path.toString().endsWith(".class") && Files.isRegularFile(path))
+                    .collect(Collectors.toList());
+        }
+
+        try {
+            return files.parallelStream()
+                    .map(file -> {
+                        try {
+                            return parse(Files.readAllBytes(file));
+                        }
+                        catch (final IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+        catch (final UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static ClassMetadata parse(final byte[] classFile) {
+        try {
+            return ClassFileParser.parse(ByteBuffer.wrap(classFile));
+        }
+        catch (final IllegalArgumentException ex) {
+            // Left to the bindings
+            return null;
+        }
+    }
+
+    private static byte[] readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static int u2(final ByteBuffer buffer, final int offset) {
+        return buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private static long u4(final ByteBuffer buffer, final int offset) {
+        return buffer.getInt(offset) & 0xFFFFFFFFL;
+    }
+
+    private ClassPathReader() {
+    }
+
+    /**
+     * A class file in the central directory of a jar.
+     */
+    private static final class Entry {
+
+        final int method;
+        final int compressedSize;
+        final int size;
+        final int offset;
+
+        Entry(final int method, final int compressedSize, final int size, final int offset) {
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.offset = offset;
+        }
+
+    }
+
+}
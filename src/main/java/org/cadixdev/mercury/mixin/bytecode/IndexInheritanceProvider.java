@@ -0,0 +1,73 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.bytecode;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.analysis.InheritanceType;
+import org.cadixdev.bombe.type.FieldType;
+import org.cadixdev.bombe.type.MethodDescriptor;
+import org.cadixdev.bombe.type.TypeReader;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link InheritanceProvider} backed by a {@link ClassIndex}, providing
+ * the information of each class only once.
+ */
+final class IndexInheritanceProvider implements InheritanceProvider {
+
+    private final ClassIndex index;
+    private final Map<String, Optional<ClassInfo>> classes = new ConcurrentHashMap<>();
+
+    IndexInheritanceProvider(final ClassIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass) {
+        final Optional<ClassInfo> info = this.classes.get(klass);
+        if (info != null) return info;
+
+        return this.classes.computeIfAbsent(klass, k -> {
+            final ClassMetadata metadata = this.index.get(k);
+            return metadata != null ? Optional.of(new IndexClassInfo(metadata)) : Optional.empty();
+        });
+    }
+
+    void clear() {
+        this.classes.clear();
+    }
+
+    private static final class IndexClassInfo extends ClassInfo.Impl {
+
+        IndexClassInfo(final ClassMetadata klass) {
+            super(
+                    klass.getName(),
+                    klass.isInterface(),
+                    klass.getSuperName() != null ? klass.getSuperName() : "",
+                    klass.getInterfaces()
+            );
+
+            for (final ClassMetadata.Member field : klass.getFields()) {
+                final InheritanceType type = InheritanceType.fromModifiers(field.getAccess());
+                this.fields.put(new FieldSignature(field.getName(),
+                        (FieldType) new TypeReader(field.getDescriptor()).readType()), type);
+                this.fieldsByName.put(field.getName(), type);
+            }
+            for (final ClassMetadata.Member method : klass.getMethods()) {
+                this.methods.put(new MethodSignature(method.getName(),
+                        MethodDescriptor.of(method.getDescriptor())), InheritanceType.fromModifiers(method.getAccess()));
+            }
+        }
+
+    }
+
+}
@@ -14,7 +14,13 @@
 import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.mercury.RewriteContext;
 import org.cadixdev.mercury.analysis.MercuryInheritanceProvider;
+import org.cadixdev.mercury.mixin.RemapListener;
+import org.cadixdev.mercury.mixin.RemapPhase;
 import org.cadixdev.mercury.mixin.annotation.MixinData;
+import org.cadixdev.mercury.mixin.annotation.TargetResolver;
+import org.cadixdev.mercury.mixin.bytecode.ClassIndex;
+import org.cadixdev.mercury.mixin.bytecode.ClassMetadata;
+import org.cadixdev.mercury.mixin.util.EditCollector;
 import org.cadixdev.mercury.util.BombeBindings;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
@@ -26,18 +32,60 @@
 import org.eclipse.jdt.core.dom.MarkerAnnotation;
 import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
-import org.eclipse.jdt.core.dom.rewrite.ListRewrite;
 
 import java.util.Objects;
+import java.util.function.Function;
 
 public class FinalVisitor extends ASTVisitor {
 
     final RewriteContext context;
     private final InheritanceProvider inheritanceProvider;
+    private final TargetResolver resolver;
+    private final TargetFieldIndex fields;
+    private final ClassIndex classes;
+    private final RemapListener listener;
+    private final boolean listening;
+    private final EditCollector batch;
+    private final Function<ITypeBinding, ? extends MixinData> mixins;
+
+    FinalVisitor(final RewriteContext context, final RemapListener listener) {
+        this(context, listener, new EditCollector(context), MixinData::fetch);
+    }
 
-    FinalVisitor(final RewriteContext context) {
+    /**
+     * Creates a visitor that cleans a compilation unit alongside other
+     * rewrites, collecting its edits into a shared batch - which is left
+     * for the caller to apply.
+     *
+     * @param context The rewrite context
+     * @param listener The listener
+     * @param batch The batch to collect edits into
+     * @param mixins The function to fetch the mixin data of a class with,
+     *               returning {@code null} for classes that aren't mixins
+     */
+    public FinalVisitor(final RewriteContext context, final RemapListener listener, final EditCollector batch,
+                        final Function<ITypeBinding, ? extends MixinData> mixins) {
         this.context = context;
         this.inheritanceProvider = MercuryInheritanceProvider.get(context.getMercury());
+        this.resolver = TargetResolver.get(context.getMercury());
+        this.fields = TargetFieldIndex.get(context.getMercury());
+        this.classes = ClassIndex.get(context.getMercury());
+        this.listener = listener;
+        this.listening = listener != RemapListener.NONE;
+        this.batch = batch;
+        this.mixins = mixins;
+    }
+
+    /**
+     * Applies the rewrites collected while visiting the compilation unit,
+     * in a single batch.
+     */
+    void applyRewrites() {
+        final long start = this.listening ? System.nanoTime() : 0;
+        this.batch.apply();
+        if (this.listening) {
+            this.listener.phaseCompleted(RemapPhase.REWRITE, System.nanoTime() - start);
+        }
     }
 
     @Override
@@ -48,9 +96,11 @@ public boolean visit(final FieldDeclaration node) {
             final FieldSignature signature = BombeBindings.convertSignature(binding);
 
             final ITypeBinding declaringClass = binding.getDeclaringClass();
-            final MixinData mixin = MixinData.fetch(declaringClass);
-            if (mixin == null || mixin.getTargets(this.context.getMercury()).length == 0) continue;
-            final ITypeBinding targetClass = mixin.getTargets(this.context.getMercury())[0];
+            final MixinData mixin = this.mixins.apply(declaringClass);
+            if (mixin == null) continue;
+            final String[] targetNames = mixin.getTargetNames();
+            if (targetNames.length == 0) continue;
+            final long start = this.listening ? System.nanoTime() : 0;
 
             int shadowIndex = -1;
             int mutableIndex = -1;
@@ -78,15 +128,32 @@ public boolean visit(final FieldDeclaration node) {
 
             if (shadowIndex != -1) {
                 boolean isTargetFinal = false;
+                boolean found = false;
+
+                // The field must be treated as final if it is final in any target
+                ITypeBinding[] targets = null;
+                for (int i = 0; i < targetNames.length; i++) {
+                    // Check the target field is final or not, only resolving
+                    // bindings for targets that aren't indexed
+                    final Integer modifiers;
+                    final ClassMetadata indexed = this.classes != null && targetNames[i] != null ?
+                            this.classes.get(targetNames[i]) : null;
+                    if (indexed != null) {
+                        modifiers = indexed.getFieldModifiers(signature);
+                    }
+                    else {
+                        if (targets == null) targets = mixin.getTargets(this.resolver);
+                        if (targets[i] == null) continue;
+                        modifiers = this.fields.getModifiers(targets[i], signature);
+                    }
+                    if (modifiers == null) continue;
 
-                for (final IVariableBinding field : targetClass.getDeclaredFields()) {
-                    final FieldSignature fieldSignature = BombeBindings.convertSignature(field);
+                    isTargetFinal |= Modifier.isFinal(modifiers);
+                    found = true;
+                }
 
-                    // Check the target field is final or not
-                    if (signature.equals(fieldSignature)) {
-                        isTargetFinal = Modifier.isFinal(field.getModifiers());
-                        break;
-                    }
+                if (this.listening) {
+                    this.listener.targetResolved(SHADOW_CLASS, found);
                 }
 
                 if (isTargetFinal) {
@@ -97,26 +164,28 @@ public boolean visit(final FieldDeclaration node) {
                         final MarkerAnnotation finalA = ast.newMarkerAnnotation();
                         finalA.setTypeName(ast.newSimpleName("Final"));
 
-                        this.context.createImportRewrite().addImport(FINAL_CLASS);
-                        this.context.createASTRewrite().getListRewrite(node, FieldDeclaration.MODIFIERS2_PROPERTY).insertAt(finalA, shadowIndex + 1, null);
+                        this.batch.addImport(FINAL_CLASS);
+                        this.batch.insert(node, FieldDeclaration.MODIFIERS2_PROPERTY, finalA, shadowIndex + 1);
                     }
                 }
                 else {
                     // Remove @Mutable when target field isn't final
                     if (mutableIndex != -1) {
-                        final ListRewrite rewrite = this.context.createASTRewrite().getListRewrite(node, FieldDeclaration.MODIFIERS2_PROPERTY);
-                        final ASTNode mutableNode = (ASTNode) rewrite.getOriginalList().get(mutableIndex);
-                        rewrite.remove(mutableNode, null);
+                        final ASTNode mutableNode = (ASTNode) node.modifiers().get(mutableIndex);
+                        this.batch.remove(node, FieldDeclaration.MODIFIERS2_PROPERTY, mutableNode);
                     }
 
                     // Remove @Final when target field isn't final
                     if (finalIndex != -1) {
-                        final ListRewrite rewrite = this.context.createASTRewrite().getListRewrite(node, FieldDeclaration.MODIFIERS2_PROPERTY);
-                        final ASTNode finalNode = (ASTNode) rewrite.getOriginalList().get(finalIndex);
-                        rewrite.remove(finalNode, null);
+                        final ASTNode finalNode = (ASTNode) node.modifiers().get(finalIndex);
+                        this.batch.remove(node, FieldDeclaration.MODIFIERS2_PROPERTY, finalNode);
                     }
                 }
             }
+
+            if (this.listening) {
+                this.listener.phaseCompleted(RemapPhase.CLEANER, System.nanoTime() - start);
+            }
         }
 
         return super.visit(node);
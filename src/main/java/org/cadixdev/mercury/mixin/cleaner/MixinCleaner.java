@@ -6,26 +6,110 @@
 
 package org.cadixdev.mercury.mixin.cleaner;
 
+import org.cadixdev.mercury.Mercury;
 import org.cadixdev.mercury.RewriteContext;
 import org.cadixdev.mercury.SourceRewriter;
+import org.cadixdev.mercury.mixin.RemapListener;
+import org.cadixdev.mercury.mixin.UnitBatcher;
+import org.cadixdev.mercury.mixin.annotation.TargetResolver;
+import org.cadixdev.mercury.mixin.bytecode.ClassIndex;
+import org.cadixdev.mercury.mixin.util.MixinUnitFilter;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class MixinCleaner implements SourceRewriter {
 
     public static SourceRewriter create() {
+        return createCleaner();
+    }
+
+    /**
+     * Creates a mixin cleaner, as {@link #create()} does, giving the cleaner
+     * itself - so it can be configured, and its statistics read after a run.
+     *
+     * @return The cleaner
+     */
+    public static MixinCleaner createCleaner() {
         return new MixinCleaner();
     }
 
+    private final AtomicInteger skippedUnits = new AtomicInteger();
+    private RemapListener listener = RemapListener.NONE;
+    private ClassIndex classes;
+
     private MixinCleaner() {
     }
 
+    /**
+     * Sets the listener notified of the work done by the cleaner, or
+     * {@link RemapListener#NONE} to not listen.
+     *
+     * @param listener The listener
+     */
+    public void setListener(final RemapListener listener) {
+        this.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    /**
+     * Sets the index of the classes on the classpath, which is used to check
+     * the fields of mixin targets without resolving bindings - or
+     * {@code null} to only use bindings.
+     * <p>
+     * The index is brought up to date with the classpath at the start of
+     * each run.
+     *
+     * @param classes The class index
+     */
+    public void setClassIndex(final ClassIndex classes) {
+        this.classes = classes;
+    }
+
     @Override
     public int getFlags() {
         return FLAG_RESOLVE_BINDINGS;
     }
 
+    @Override
+    public void initialize(final Mercury mercury) {
+        // Bindings from a previous run can't be reused
+        TargetResolver.get(mercury).clear();
+        TargetFieldIndex.get(mercury).clear();
+        if (UnitBatcher.isFirstBatch(mercury)) {
+            this.skippedUnits.set(0);
+            if (this.classes != null) {
+                this.classes.install(mercury);
+            }
+        }
+    }
+
     @Override
     public void rewrite(final RewriteContext context) {
-        context.getCompilationUnit().accept(new FinalVisitor(context));
+        if (!MixinUnitFilter.mayDeclareMixin(context.getCompilationUnit())) {
+            this.skippedUnits.incrementAndGet();
+            this.listener.unitSkipped();
+            return;
+        }
+
+        final FinalVisitor visitor = new FinalVisitor(context, this.listener);
+        context.getCompilationUnit().accept(visitor);
+        visitor.applyRewrites();
+    }
+
+    @Override
+    public void finish(final Mercury mercury) {
+        TargetResolver.get(mercury).clear();
+        TargetFieldIndex.get(mercury).clear();
+    }
+
+    /**
+     * Gets the number of compilation units skipped during the last run, as
+     * they couldn't declare a mixin.
+     *
+     * @return The number of skipped units
+     */
+    public int getSkippedUnits() {
+        return this.skippedUnits.get();
     }
 
 }
@@ -0,0 +1,98 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.cleaner;
+
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.util.BombeBindings;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of the fields declared by mixin targets, by their
+ * {@link FieldSignature signature}, giving the modifiers of each field.
+ * <p>
+ * The index for a target is built the first time it is needed. A single
+ * index is shared by everything processing the same {@link Mercury}
+ * instance, and it must be {@link #clear() cleared} between runs - as it
+ * is keyed by bindings, which are tied to the environment they were
+ * resolved in.
+ *
+ * @since 0.1.0
+ */
+public final class TargetFieldIndex {
+
+    /**
+     * Gets the field index for the given Mercury instance.
+     *
+     * @param mercury The mercury instance
+     * @return The field index
+     */
+    public static TargetFieldIndex get(final Mercury mercury) {
+        return (TargetFieldIndex) mercury.getContext().computeIfAbsent(TargetFieldIndex.class, k -> new TargetFieldIndex());
+    }
+
+    private final Map<String, Map<FieldSignature, Integer>> targets = new ConcurrentHashMap<>();
+
+    private TargetFieldIndex() {
+    }
+
+    /**
+     * Gets the modifiers of the field with the given signature, declared
+     * by the given target.
+     *
+     * @param target The target
+     * @param signature The signature of the field
+     * @return The modifiers, or {@code null} if the target doesn't declare
+     *         the field
+     */
+    public Integer getModifiers(final ITypeBinding target, final FieldSignature signature) {
+        return this.getFields(target).get(signature);
+    }
+
+    private Map<FieldSignature, Integer> getFields(final ITypeBinding target) {
+        final String key = target.getKey();
+        if (key == null) return index(target);
+
+        final Map<FieldSignature, Integer> fields = this.targets.get(key);
+        if (fields != null) return fields;
+        return this.targets.computeIfAbsent(key, k -> index(target));
+    }
+
+    /**
+     * Gets the number of targets indexed since the index was last cleared.
+     *
+     * @return The number of targets
+     */
+    public int size() {
+        return this.targets.size();
+    }
+
+    /**
+     * Removes all of the indexed targets.
+     */
+    public void clear() {
+        this.targets.clear();
+    }
+
+    private static Map<FieldSignature, Integer> index(final ITypeBinding target) {
+        final IVariableBinding[] declared = target.getDeclaredFields();
+        if (declared.length == 0) return Collections.emptyMap();
+
+        final Map<FieldSignature, Integer> fields = new HashMap<>(declared.length * 4 / 3 + 1);
+        for (final IVariableBinding field : declared) {
+            fields.putIfAbsent(BombeBindings.convertSignature(field), field.getModifiers());
+        }
+        return fields;
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.handler;
+
+import org.cadixdev.mercury.mixin.annotation.InjectData;
+import org.cadixdev.mercury.mixin.annotation.MixinClass;
+import org.cadixdev.mercury.mixin.annotation.ParseCache;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.IAnnotationBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+/**
+ * The context a {@link MethodAnnotationHandler} is called with, giving
+ * access to the annotated method and the remapping operations of the
+ * remapper.
+ * <p>
+ * A context is only valid for the duration of the call to the handler.
+ *
+ * @since 0.1.0
+ */
+public interface MethodAnnotationContext {
+
+    /**
+     * Gets the declaration of the annotated method.
+     *
+     * @return The method declaration
+     */
+    MethodDeclaration getMethod();
+
+    /**
+     * Gets the binding of the annotated method.
+     *
+     * @return The method binding
+     */
+    IMethodBinding getBinding();
+
+    /**
+     * Gets the mixin declaring the method.
+     *
+     * @return The mixin
+     */
+    MixinClass getMixin();
+
+    /**
+     * Gets the binding of the annotation being handled.
+     *
+     * @return The annotation binding
+     */
+    IAnnotationBinding getAnnotation();
+
+    /**
+     * Gets the source node of the annotation being handled.
+     *
+     * @return The annotation node
+     */
+    Annotation getAnnotationNode();
+
+    /**
+     * Gets the binary name of the annotation being handled.
+     *
+     * @return The annotation type
+     */
+    String getAnnotationType();
+
+    /**
+     * Gets whether the remapper derives mappings for mixin members.
+     *
+     * @return {@code true} if deriving mappings
+     */
+    boolean isDeriving();
+
+    /**
+     * Gets whether the remapper rewrites the compilation unit.
+     *
+     * @return {@code true} if rewriting
+     */
+    boolean isRewriting();
+
+    /**
+     * Gets the cache to parse selectors through, shared by everything
+     * processing the same source set.
+     *
+     * @return The parse cache
+     */
+    ParseCache getParseCache();
+
+    /**
+     * Derives the mapping of the method from the target method it shadows,
+     * as for {@code @Shadow}.
+     */
+    void remapShadow();
+
+    /**
+     * Derives the mapping of the method from the target method it
+     * overwrites, as for {@code @Overwrite}.
+     */
+    void remapOverwrite();
+
+    /**
+     * Derives the mapping of the method, or rewrites the target in the
+     * annotation, from the target member it gives access to, as for
+     * {@code @Accessor} and {@code @Invoker}.
+     */
+    void remapAccessor();
+
+    /**
+     * Rewrites the targets of an injector annotation, including its
+     * {@code @At} and {@code @Slice} annotations.
+     *
+     * @param inject The data held in the annotation
+     */
+    void remapInjector(final InjectData inject);
+
+}
@@ -0,0 +1,30 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.handler;
+
+/**
+ * A handler for an annotation on the methods of a mixin, such as
+ * {@code @Shadow} or {@code @Inject}.
+ * <p>
+ * Handlers are {@link MethodAnnotationHandlers#register(String, MethodAnnotationHandler) registered}
+ * by the binary name of the annotation they handle, and may be called
+ * from several threads at once.
+ *
+ * @see MethodAnnotationHandlers
+ * @since 0.1.0
+ */
+@FunctionalInterface
+public interface MethodAnnotationHandler {
+
+    /**
+     * Handles a single annotation on a mixin method.
+     *
+     * @param context The context of the annotation
+     */
+    void handle(final MethodAnnotationContext context);
+
+}
@@ -0,0 +1,167 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.handler;
+
+import static org.cadixdev.mercury.mixin.util.MixinConstants.ACCESSOR_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.INJECT_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.INVOKER_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MODIFY_ARGS_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MODIFY_ARG_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MODIFY_CONSTANT_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MODIFY_EXPRESSION_VALUE_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MODIFY_RETURN_VALUE_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MODIFY_VARIABLE_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.OVERWRITE_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.REDIRECT_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.SHADOW_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.WRAP_OPERATION_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.WRAP_WITH_CONDITION_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.WRAP_WITH_CONDITION_V2_CLASS;
+
+import org.cadixdev.mercury.mixin.annotation.InjectData;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A table of the {@link MethodAnnotationHandler handlers} for annotations
+ * on mixin methods, by the binary name of the annotation.
+ * <p>
+ * Annotations without a handler are ignored, so support for further
+ * annotations can be added by registering a handler for them:
+ * <pre>
+ *     remapper.getHandlers().register("com.example.MyInjector", MethodAnnotationHandlers.INJECTOR);
+ * </pre>
+ *
+ * @since 0.1.0
+ */
+public final class MethodAnnotationHandlers {
+
+    /**
+     * A handler for {@code @Shadow}.
+     */
+    public static final MethodAnnotationHandler SHADOW = MethodAnnotationContext::remapShadow;
+
+    /**
+     * A handler for {@code @Overwrite}.
+     */
+    public static final MethodAnnotationHandler OVERWRITE = MethodAnnotationContext::remapOverwrite;
+
+    /**
+     * A handler for {@code @Accessor} and {@code @Invoker}.
+     */
+    public static final MethodAnnotationHandler ACCESSOR = MethodAnnotationContext::remapAccessor;
+
+    /**
+     * A handler for injectors that take their targets from the
+     * {@code method}, {@code at} and {@code slice} values of the
+     * annotation, as {@code @Inject} does.
+     */
+    public static final MethodAnnotationHandler INJECTOR = context -> {
+        // Injectors only have literals to rewrite
+        if (!context.isRewriting()) return;
+
+        context.remapInjector(InjectData.from(context.getAnnotation(), context.getParseCache()));
+    };
+
+    /**
+     * Creates a table with the handlers for the annotations supported out
+     * of the box.
+     *
+     * @return The handlers
+     */
+    public static MethodAnnotationHandlers create() {
+        return new MethodAnnotationHandlers()
+                .register(SHADOW_CLASS, SHADOW)
+                .register(OVERWRITE_CLASS, OVERWRITE)
+                .register(ACCESSOR_CLASS, ACCESSOR)
+                .register(INVOKER_CLASS, ACCESSOR)
+                .register(INJECT_CLASS, INJECTOR)
+                .register(REDIRECT_CLASS, INJECTOR)
+                .register(MODIFY_CONSTANT_CLASS, INJECTOR)
+                .register(MODIFY_VARIABLE_CLASS, INJECTOR)
+                .register(MODIFY_ARG_CLASS, INJECTOR)
+                .register(MODIFY_ARGS_CLASS, INJECTOR)
+                // MixinExtras
+                .register(WRAP_OPERATION_CLASS, INJECTOR)
+                .register(MODIFY_EXPRESSION_VALUE_CLASS, INJECTOR)
+                .register(MODIFY_RETURN_VALUE_CLASS, INJECTOR)
+                .register(WRAP_WITH_CONDITION_CLASS, INJECTOR)
+                .register(WRAP_WITH_CONDITION_V2_CLASS, INJECTOR);
+    }
+
+    private final Map<String, MethodAnnotationHandler> handlers = new ConcurrentHashMap<>();
+
+    private MethodAnnotationHandlers() {
+    }
+
+    /**
+     * Registers the handler for the given annotation, replacing any
+     * existing handler.
+     *
+     * @param annotationType The binary name of the annotation
+     * @param handler The handler
+     * @return {@code this}, for chaining
+     */
+    public MethodAnnotationHandlers register(final String annotationType, final MethodAnnotationHandler handler) {
+        this.handlers.put(
+                Objects.requireNonNull(annotationType, "annotationType"),
+                Objects.requireNonNull(handler, "handler")
+        );
+        return this;
+    }
+
+    /**
+     * Removes the handler for the given annotation, if any.
+     *
+     * @param annotationType The binary name of the annotation
+     * @return {@code this}, for chaining
+     */
+    public MethodAnnotationHandlers unregister(final String annotationType) {
+        this.handlers.remove(annotationType);
+        return this;
+    }
+
+    /**
+     * Gets the handler for the given annotation.
+     *
+     * @param annotationType The binary name of the annotation
+     * @return The handler, or {@code null} if the annotation isn't handled
+     */
+    public MethodAnnotationHandler get(final String annotationType) {
+        return annotationType != null ? this.handlers.get(annotationType) : null;
+    }
+
+    /**
+     * Describes the annotations in the table and the handler of each, such
+     * that work done with one table isn't reused with another.
+     * <p>
+     * The handlers above are described by their name, and any other by its
+     * class. The class of a lambda may differ between runs, so a handler
+     * implemented by a named class is best for work to be reused.
+     *
+     * @return The description of the table
+     */
+    public String fingerprint() {
+        final StringBuilder fingerprint = new StringBuilder();
+        for (final Map.Entry<String, MethodAnnotationHandler> entry : new TreeMap<>(this.handlers).entrySet()) {
+            fingerprint.append(entry.getKey()).append('=').append(name(entry.getValue())).append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    private static String name(final MethodAnnotationHandler handler) {
+        if (handler == SHADOW) return "SHADOW";
+        if (handler == OVERWRITE) return "OVERWRITE";
+        if (handler == ACCESSOR) return "ACCESSOR";
+        if (handler == INJECTOR) return "INJECTOR";
+        return handler.getClass().getName();
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.util;
+
+import org.cadixdev.mercury.RewriteContext;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ChildListPropertyDescriptor;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+import org.eclipse.jdt.core.dom.rewrite.ListRewrite;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Collects the edits made to a single compilation unit, so they can be
+ * applied to its {@link ASTRewrite rewrite} in one batch.
+ * <p>
+ * Repeated edits are only applied once: replacing the same expression
+ * again overrides the earlier replacement, and removing the same node, or
+ * inserting the same node at the same position, again has no effect.
+ *
+ * @since 0.1.0
+ */
+public final class EditCollector {
+
+    private final RewriteContext context;
+    private final Map<Expression, String> replacements = new LinkedHashMap<>();
+    private final Map<ListKey, ListEdits> lists = new LinkedHashMap<>();
+    private final Set<String> imports = new LinkedHashSet<>();
+    private int duplicates;
+
+    public EditCollector(final RewriteContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Replaces the given expression with a string literal.
+     *
+     * @param original The expression to replace
+     * @param value The value of the string literal
+     * @return {@code true} if the expression wasn't already being replaced
+     */
+    public boolean replace(final Expression original, final String value) {
+        final String previous = this.replacements.put(original, value);
+        if (previous == null) return true;
+
+        this.duplicates++;
+        return false;
+    }
+
+    /**
+     * Inserts a node into a list property of the given node.
+     *
+     * @param node The node owning the list
+     * @param property The list property
+     * @param child The node to insert
+     * @param index The index to insert the node at
+     */
+    public void insert(final ASTNode node, final ChildListPropertyDescriptor property, final ASTNode child,
+                       final int index) {
+        final ListEdits edits = this.lists.computeIfAbsent(new ListKey(node, property), key -> new ListEdits());
+        for (final Insertion insertion : edits.insertions) {
+            if (insertion.index == index && Objects.equals(insertion.child.toString(), child.toString())) {
+                this.duplicates++;
+                return;
+            }
+        }
+        edits.insertions.add(new Insertion(child, index));
+    }
+
+    /**
+     * Removes a node from a list property of the given node.
+     *
+     * @param node The node owning the list
+     * @param property The list property
+     * @param child The node to remove
+     */
+    public void remove(final ASTNode node, final ChildListPropertyDescriptor property, final ASTNode child) {
+        final ListEdits edits = this.lists.computeIfAbsent(new ListKey(node, property), key -> new ListEdits());
+        if (!edits.removals.add(child)) {
+            this.duplicates++;
+        }
+    }
+
+    /**
+     * Adds an import for the given class.
+     *
+     * @param qualifiedName The qualified name of the class
+     */
+    public void addImport(final String qualifiedName) {
+        if (!this.imports.add(qualifiedName)) {
+            this.duplicates++;
+        }
+    }
+
+    /**
+     * Gets the number of distinct edits collected.
+     *
+     * @return The number of edits
+     */
+    public int size() {
+        int size = this.replacements.size() + this.imports.size();
+        for (final ListEdits edits : this.lists.values()) {
+            size += edits.insertions.size() + edits.removals.size();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of edits that were discarded, as they repeated an
+     * edit already collected.
+     *
+     * @return The number of duplicate edits
+     */
+    public int getDuplicates() {
+        return this.duplicates;
+    }
+
+    /**
+     * Applies every collected edit to the rewrite of the compilation unit,
+     * and then forgets them.
+     */
+    public void apply() {
+        if (this.size() == 0) return;
+
+        final AST ast = this.context.getCompilationUnit().getAST();
+        final ASTRewrite rewrite = this.context.createASTRewrite();
+
+        for (final Map.Entry<Expression, String> replacement : this.replacements.entrySet()) {
+            final StringLiteral literal = ast.newStringLiteral();
+            literal.setLiteralValue(replacement.getValue());
+            rewrite.replace(replacement.getKey(), literal, null);
+        }
+
+        for (final Map.Entry<ListKey, ListEdits> entry : this.lists.entrySet()) {
+            final ListRewrite list = rewrite.getListRewrite(entry.getKey().node, entry.getKey().property);
+            for (final Insertion insertion : entry.getValue().insertions) {
+                list.insertAt(insertion.child, insertion.index, null);
+            }
+            for (final ASTNode removal : entry.getValue().removals) {
+                list.remove(removal, null);
+            }
+        }
+
+        for (final String qualifiedName : this.imports) {
+            this.context.createImportRewrite().addImport(qualifiedName);
+        }
+
+        this.replacements.clear();
+        this.lists.clear();
+        this.imports.clear();
+    }
+
+    private static final class ListKey {
+
+        private final ASTNode node;
+        private final ChildListPropertyDescriptor property;
+
+        ListKey(final ASTNode node, final ChildListPropertyDescriptor property) {
+            this.node = node;
+            this.property = property;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ListKey)) return false;
+            final ListKey that = (ListKey) obj;
+            return this.node == that.node && this.property == that.property;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.node.hashCode() + this.property.hashCode();
+        }
+
+    }
+
+    private static final class ListEdits {
+
+        private final List<Insertion> insertions = new ArrayList<>(1);
+        private final Set<ASTNode> removals = new LinkedHashSet<>();
+
+    }
+
+    private static final class Insertion {
+
+        private final ASTNode child;
+        private final int index;
+
+        Insertion(final ASTNode child, final int index) {
+            this.child = child;
+            this.index = index;
+        }
+
+    }
+
+}
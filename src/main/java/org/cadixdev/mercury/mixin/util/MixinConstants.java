@@ -30,6 +30,18 @@ public final class MixinConstants {
     public static final String CONSTANT_CLASS = INJECTION_PACKAGE + ".Constant";
     public static final String MODIFY_CONSTANT_CLASS = INJECTION_PACKAGE + ".ModifyConstant";
     public static final String MODIFY_VARIABLE_CLASS = INJECTION_PACKAGE + ".ModifyVariable";
+    public static final String MODIFY_ARG_CLASS = INJECTION_PACKAGE + ".ModifyArg";
+    public static final String MODIFY_ARGS_CLASS = INJECTION_PACKAGE + ".ModifyArgs";
+
+    // MixinExtras
+    public static final String MIXIN_EXTRAS_PACKAGE = "com.llamalad7.mixinextras";
+    public static final String MIXIN_EXTRAS_INJECTOR_PACKAGE = MIXIN_EXTRAS_PACKAGE + ".injector";
+
+    public static final String WRAP_OPERATION_CLASS = MIXIN_EXTRAS_INJECTOR_PACKAGE + ".wrapoperation.WrapOperation";
+    public static final String MODIFY_EXPRESSION_VALUE_CLASS = MIXIN_EXTRAS_INJECTOR_PACKAGE + ".ModifyExpressionValue";
+    public static final String MODIFY_RETURN_VALUE_CLASS = MIXIN_EXTRAS_INJECTOR_PACKAGE + ".ModifyReturnValue";
+    public static final String WRAP_WITH_CONDITION_CLASS = MIXIN_EXTRAS_INJECTOR_PACKAGE + ".WrapWithCondition";
+    public static final String WRAP_WITH_CONDITION_V2_CLASS = MIXIN_EXTRAS_INJECTOR_PACKAGE + ".v2.WrapWithCondition";
 
     private MixinConstants() {
     }
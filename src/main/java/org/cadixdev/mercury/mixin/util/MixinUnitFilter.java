@@ -0,0 +1,71 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.util;
+
+import static org.cadixdev.mercury.mixin.util.MixinConstants.MIXIN_CLASS;
+
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IExtendedModifier;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+
+import java.util.List;
+
+/**
+ * A cheap, purely syntactic, check for whether a compilation unit may
+ * declare a mixin - so units that can't are skipped without resolving any
+ * bindings.
+ * <p>
+ * The check only looks at the annotations of the unit's type declarations,
+ * including member types, so costs O(declarations). It errs on the side of
+ * caution: any annotation named {@code Mixin}, whatever it resolves to,
+ * counts.
+ *
+ * @since 0.1.0
+ */
+public final class MixinUnitFilter {
+
+    private static final String MIXIN_SIMPLE_NAME = MIXIN_CLASS.substring(MIXIN_CLASS.lastIndexOf('.') + 1);
+
+    /**
+     * Checks whether the given compilation unit may declare a mixin.
+     *
+     * @param unit The compilation unit
+     * @return {@code true} if the unit may declare a mixin
+     */
+    public static boolean mayDeclareMixin(final CompilationUnit unit) {
+        for (final Object type : unit.types()) {
+            // Mixins can only be classes or interfaces
+            if (type instanceof TypeDeclaration && mayDeclareMixin((TypeDeclaration) type)) return true;
+        }
+        return false;
+    }
+
+    private static boolean mayDeclareMixin(final TypeDeclaration type) {
+        if (isMixinAnnotated(type.modifiers())) return true;
+
+        for (final TypeDeclaration member : type.getTypes()) {
+            if (mayDeclareMixin(member)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isMixinAnnotated(final List<?> modifiers) {
+        for (final Object raw : modifiers) {
+            final IExtendedModifier modifier = (IExtendedModifier) raw;
+            if (!modifier.isAnnotation()) continue;
+
+            final String name = ((Annotation) modifier).getTypeName().getFullyQualifiedName();
+            if (MIXIN_SIMPLE_NAME.equals(name) || MIXIN_CLASS.equals(name)) return true;
+        }
+        return false;
+    }
+
+    private MixinUnitFilter() {
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.mixin.handler.MethodAnnotationHandlers;
+import org.cadixdev.mercury.mixin.test.MixinCorpus;
+import org.cadixdev.mercury.mixin.test.TestGroup;
+import org.cadixdev.mercury.remapper.MercuryRemapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tests the {@link RemapCache}, which lives in the same package as it - as
+ * some of the tests write the cache directly.
+ */
+public class RemapCacheTests {
+
+    private static final int MIXINS = 3;
+    // The mixin, accessor and hidden mixin of each target
+    private static final int UNITS = MIXINS * 3;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testReplay() throws Exception {
+        final MixinCorpus corpus = this.writeCorpus();
+
+        final MappingSet first = corpus.readMappings();
+        assertEquals(0, this.rewrite(this.cached(first), first, "first").getCachedUnits());
+        final MappingSet second = corpus.readMappings();
+        assertEquals(UNITS, this.rewrite(this.cached(second), second, "second").getCachedUnits());
+        this.assertSameOutput("first", "second");
+    }
+
+    @Test
+    void testMappingsChanged() throws Exception {
+        final MixinCorpus corpus = this.writeCorpus();
+        final MappingSet first = corpus.readMappings();
+        this.rewrite(this.cached(first), first, "first");
+
+        // Only the hidden mixin of d1 depends on its mappings
+        final MappingSet mappings = corpus.readMappings();
+        mappings.getClassMapping("t/d1").get().getFieldMapping("h").get().setDeobfuscatedName("secret");
+        assertEquals(UNITS - 1, this.rewrite(this.cached(mappings), mappings, "actual").getCachedUnits());
+
+        final MappingSet expected = corpus.readMappings();
+        expected.getClassMapping("t/d1").get().getFieldMapping("h").get().setDeobfuscatedName("secret");
+        this.rewrite(MixinRemapper.createRemapper(expected), expected, "expected");
+        this.assertSameOutput("expected", "actual");
+        assertTrue(this.read("actual/m/Hidden1Mixin.java").contains("private int secret;"));
+    }
+
+    @Test
+    void testStructureChanged() throws Exception {
+        final MixinCorpus corpus = this.writeCorpus();
+        final MappingSet first = corpus.readMappings();
+        this.rewrite(this.cached(first), first, "first");
+
+        // Only the hidden mixin of d1 depends on its members
+        final Path target = this.dir.resolve("a/t/d1.java");
+        final String source = new String(Files.readAllBytes(target), StandardCharsets.UTF_8);
+        Files.write(target, source.replace("private int h;", "private int h;\n    private int g;")
+                .getBytes(StandardCharsets.UTF_8));
+        final MappingSet mappings = corpus.readMappings();
+        assertEquals(UNITS - 1, this.rewrite(this.cached(mappings), mappings, "actual").getCachedUnits());
+
+        final MappingSet expected = corpus.readMappings();
+        this.rewrite(MixinRemapper.createRemapper(expected), expected, "expected");
+        this.assertSameOutput("expected", "actual");
+    }
+
+    @Test
+    void testSharedFile() throws Exception {
+        final MixinCorpus corpus = this.writeCorpus();
+
+        final MappingSet first = corpus.readMappings();
+        assertEquals(0, this.collect(first).getCachedUnits());
+        final MixinRemapper firstRewriter = MixinRemapper.createRewriter(first);
+        firstRewriter.setCacheFile(this.cacheFile());
+        assertEquals(0, this.rewrite(firstRewriter, first, "first").getCachedUnits());
+
+        // Neither evicted the work of the other
+        final MappingSet second = corpus.readMappings();
+        assertEquals(UNITS, this.collect(second).getCachedUnits());
+        final MixinRemapper secondRewriter = MixinRemapper.createRewriter(second);
+        secondRewriter.setCacheFile(this.cacheFile());
+        assertEquals(UNITS, this.rewrite(secondRewriter, second, "second").getCachedUnits());
+        this.assertSameOutput("first", "second");
+    }
+
+    @Test
+    void testUnresolvedEdit() throws Exception {
+        final MixinCorpus corpus = this.writeCorpus();
+
+        final List<String> hashes = Collections.synchronizedList(new ArrayList<>());
+        final Mercury hasher = new Mercury();
+        hasher.getProcessors().add(context -> hashes.add(RemapCache.hash(context.getCompilationUnit())));
+        hasher.process(this.dir.resolve("a"));
+        assertFalse(hashes.isEmpty());
+
+        // Entries without any edits are replayed as they are
+        this.writeCache(hashes, Collections.emptyMap());
+        final MappingSet mappings = corpus.readMappings();
+        final MixinRemapper replayed = MixinRemapper.createRewriter(mappings);
+        replayed.setCacheFile(this.cacheFile());
+        assertEquals(UNITS, this.rewrite(replayed, mappings, "replayed").getCachedUnits());
+
+        // While those with an edit that can't be located are processed
+        this.writeCache(hashes, Collections.singletonMap("types.0/missing", "\"missing\""));
+        final MixinRemapper actual = MixinRemapper.createRewriter(mappings);
+        actual.setCacheFile(this.cacheFile());
+        assertEquals(0, this.rewrite(actual, mappings, "actual").getCachedUnits());
+
+        this.rewrite(MixinRemapper.createRewriter(mappings), mappings, "expected");
+        this.assertSameOutput("expected", "actual");
+    }
+
+    @Test
+    void testCleaningChanged() throws Exception {
+        final MixinCorpus corpus = this.writeCorpus();
+        final MappingSet first = corpus.readMappings();
+        this.rewrite(this.cached(first), first, "first");
+
+        // Work done without cleaning isn't reused when cleaning, or the
+        // other way around
+        final MappingSet cleaned = corpus.readMappings();
+        final MixinRemapper cleaner = this.cached(cleaned);
+        cleaner.setCleaning(true);
+        assertEquals(0, this.rewrite(cleaner, cleaned, "cleaned").getCachedUnits());
+
+        final MappingSet expected = corpus.readMappings();
+        final MixinRemapper uncached = MixinRemapper.createRemapper(expected);
+        uncached.setCleaning(true);
+        this.rewrite(uncached, expected, "expected");
+        this.assertSameOutput("expected", "cleaned");
+
+        // While the work of both is kept
+        final MappingSet second = corpus.readMappings();
+        assertEquals(UNITS, this.rewrite(this.cached(second), second, "second").getCachedUnits());
+        this.assertSameOutput("first", "second");
+    }
+
+    @Test
+    void testUnwritableCache() throws Exception {
+        final MixinCorpus corpus = this.writeCorpus();
+
+        // The cache can't be written under a regular file
+        Files.createFile(this.dir.resolve("file"));
+        final Path cacheFile = this.dir.resolve("file/mixin.cache");
+        final List<Path> failures = new ArrayList<>();
+
+        final MappingSet mappings = corpus.readMappings();
+        final MixinRemapper remapper = MixinRemapper.createRemapper(mappings);
+        remapper.setCacheFile(cacheFile);
+        remapper.setListener(new RemapListener() {
+            @Override
+            public void cacheFailed(final Path file, final IOException ex) {
+                failures.add(file);
+            }
+        });
+        this.rewrite(remapper, mappings, "actual");
+        assertEquals(Collections.singletonList(cacheFile), failures);
+
+        final MappingSet expected = corpus.readMappings();
+        this.rewrite(MixinRemapper.createRemapper(expected), expected, "expected");
+        this.assertSameOutput("expected", "actual");
+    }
+
+    private MixinCorpus writeCorpus() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(MIXINS)
+                .injectors(4)
+                .members(4);
+        corpus.writeSources(this.dir.resolve("a"));
+        return corpus;
+    }
+
+    private Path cacheFile() {
+        return this.dir.resolve("mixin.cache");
+    }
+
+    private MixinRemapper cached(final MappingSet mappings) {
+        final MixinRemapper remapper = MixinRemapper.createRemapper(mappings);
+        remapper.setCacheFile(this.cacheFile());
+        return remapper;
+    }
+
+    private void writeCache(final List<String> hashes, final Map<String, String> edits) throws IOException {
+        final RemapCache cache = new RemapCache(this.cacheFile());
+        cache.load(MappingSet.create(), RemapSession.config(false, false, MethodAnnotationHandlers.create()));
+        for (final String hash : hashes) {
+            final RemapCache.Entry entry = new RemapCache.Entry(false, true);
+            entry.edits.putAll(edits);
+            cache.put(hash, entry);
+        }
+        cache.save();
+    }
+
+    private MixinCollector collect(final MappingSet mappings) throws Exception {
+        final MixinCollector collector = MixinCollector.create(mappings);
+        collector.setCacheFile(this.cacheFile());
+
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(TestGroup.getMixinJar());
+        mercury.getProcessors().add(collector);
+        mercury.process(this.dir.resolve("a"));
+        return collector;
+    }
+
+    private MixinRemapper rewrite(final MixinRemapper remapper, final MappingSet mappings, final String out)
+            throws Exception {
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(TestGroup.getMixinJar());
+        mercury.getProcessors().add(remapper);
+        mercury.getProcessors().add(MercuryRemapper.create(mappings));
+        mercury.rewrite(this.dir.resolve("a"), this.dir.resolve(out));
+        return remapper;
+    }
+
+    private void assertSameOutput(final String expected, final String actual) throws Exception {
+        final List<Path> files;
+        try (final Stream<Path> walk = Files.walk(this.dir.resolve(expected))) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty());
+
+        for (final Path file : files) {
+            final Path relative = this.dir.resolve(expected).relativize(file);
+            final Path other = this.dir.resolve(actual).resolve(relative.toString());
+            assertTrue(Files.exists(other), relative + " wasn't rewritten");
+            assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(other), "Rewritten code for " + relative);
+        }
+    }
+
+    private String read(final String path) throws Exception {
+        return new String(Files.readAllBytes(this.dir.resolve(path)), StandardCharsets.UTF_8);
+    }
+
+}
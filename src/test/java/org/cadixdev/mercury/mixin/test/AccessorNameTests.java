@@ -0,0 +1,56 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.cadixdev.mercury.mixin.annotation.AccessorName;
+import org.junit.jupiter.api.Test;
+
+public class AccessorNameTests {
+
+    private static final String[] NAMES = {
+            // Prefixes
+            "getName", "isEnabled", "setName", "callTick", "invokeTick", "newEntity", "createEntity",
+            // Constants, and mixed case
+            "getMAX_ENTITIES", "getX", "getUUID", "getXPos", "setA_b",
+            // Merged members
+            "getName_$md$abc123$0", "callTick_$md", "getA_$md_$md", "getN_$mdx", "get_$mdName",
+            // Not accessors
+            "get", "getname", "name", "gettingName", "is", "Name", "", "get_Name",
+            // Outside of ASCII
+            "getÉtat", "getNaïve", "getSTRAßE", "getΣΙΓΜΑ", "setÆon"
+    };
+
+    @Test
+    void testMatchesRegex() {
+        for (final String methodName : NAMES) {
+            for (final boolean toMemberCase : new boolean[]{true, false}) {
+                final String[] expected = RegexAccessorName.of(methodName, toMemberCase);
+                final AccessorName actual = AccessorName.of(methodName, toMemberCase);
+
+                if (expected == null) {
+                    assertNull(actual, methodName);
+                    continue;
+                }
+                assertEquals(expected[0], actual.getPrefix(), methodName);
+                assertEquals(expected[1], actual.getName(), methodName);
+                assertEquals(methodName, actual.getMethodName());
+            }
+        }
+    }
+
+    @Test
+    void testPrefix() {
+        final AccessorName accessor = AccessorName.of("getName");
+        for (final String name : new String[]{"name", "Name", "x", "_name", "$name", "état", "ßtraße", "ǆemal"}) {
+            assertEquals(RegexAccessorName.prefix("get", name), accessor.prefix(name), name);
+        }
+    }
+
+}
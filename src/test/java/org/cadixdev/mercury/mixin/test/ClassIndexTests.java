@@ -0,0 +1,289 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.mercury.mixin.MixinRemapper;
+import org.cadixdev.mercury.mixin.bytecode.ClassIndex;
+import org.cadixdev.mercury.mixin.bytecode.ClassMetadata;
+import org.cadixdev.mercury.mixin.cleaner.MixinCleaner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ClassIndexTests {
+
+    private static final String FIXTURE = "org/cadixdev/mercury/mixin/test/ClassIndexTests$Fixture";
+    private static final String CALLBACK = "org/cadixdev/mercury/mixin/test/ClassIndexTests$Callback";
+    private static final String INDEXED_TARGET = "org/cadixdev/mercury/mixin/test/IndexedTarget";
+    private static final String INDEXED_CALLBACK = "org/cadixdev/mercury/mixin/test/IndexedCallback";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testJar() throws IOException {
+        final Path jar = this.writeJar("classes.jar");
+
+        final ClassIndex index = ClassIndex.create();
+        index.update(Collections.singletonList(jar));
+        assertEquals(2, index.size());
+        assertFixture(index);
+        assertNull(index.get("org/cadixdev/mercury/mixin/test/ClassIndexTests"));
+    }
+
+    @Test
+    void testDirectory() throws IOException {
+        final ClassIndex index = ClassIndex.create();
+        index.update(Collections.singletonList(this.writeClasses("classes", FIXTURE, CALLBACK)));
+        assertEquals(2, index.size());
+        assertFixture(index);
+    }
+
+    @Test
+    void testCache() throws IOException {
+        final Path jar = this.writeJar("classes.jar");
+        final Path cacheFile = this.dir.resolve("classes.cache");
+
+        final ClassIndex first = ClassIndex.create();
+        first.setCacheFile(cacheFile);
+        first.update(Collections.singletonList(jar));
+        assertTrue(Files.exists(cacheFile));
+
+        // Corrupt the jar, without changing its fingerprint, to show the
+        // classes come from the cache
+        final long modified = Files.getLastModifiedTime(jar).toMillis();
+        final byte[] bytes = Files.readAllBytes(jar);
+        Arrays.fill(bytes, (byte) 0);
+        Files.write(jar, bytes);
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(modified));
+
+        final ClassIndex second = ClassIndex.create();
+        second.setCacheFile(cacheFile);
+        second.update(Collections.singletonList(jar));
+        assertEquals(2, second.size());
+        assertFixture(second);
+    }
+
+    @Test
+    void testUnwritableCache() throws IOException {
+        // The cache can't be created under a file
+        final Path file = Files.createFile(this.dir.resolve("file"));
+
+        final ClassIndex index = ClassIndex.create();
+        index.setCacheFile(file.resolve("classes.cache"));
+        index.update(Collections.singletonList(this.writeJar("classes.jar")));
+        assertEquals(2, index.size());
+        assertFixture(index);
+    }
+
+    @Test
+    void testHierarchy() throws IOException {
+        final ClassIndex index = ClassIndex.create();
+        index.update(Collections.singletonList(this.writeJar("classes.jar")));
+
+        assertTrue(index.isHierarchyIndexed(FIXTURE));
+        assertTrue(index.isHierarchyIndexed(FIXTURE.replace('/', '.')));
+        assertFalse(index.isHierarchyIndexed("org/cadixdev/mercury/mixin/test/Missing"));
+        assertTrue(index.getInheritanceProvider().provide(FIXTURE).isPresent());
+        assertFalse(index.getInheritanceProvider().provide("org/cadixdev/mercury/mixin/test/Missing").isPresent());
+    }
+
+    @Test
+    void testCyclicHierarchy() throws IOException {
+        // Only a malformed jar could have classes extending each other
+        final Path classes = this.dir.resolve("cyclic");
+        writeClass(classes, "t/a", "t/b");
+        writeClass(classes, "t/b", "t/a");
+        writeClass(classes, "t/c", "t/a");
+
+        final ClassIndex index = ClassIndex.create();
+        index.update(Collections.singletonList(classes));
+        assertEquals(3, index.size());
+        assertFalse(index.isHierarchyIndexed("t/c"));
+        assertFalse(index.isHierarchyIndexed("t/a"));
+        assertFalse(index.isHierarchyIndexed("t/b"));
+    }
+
+    @Test
+    void testRemap() throws Exception {
+        final Path targets = this.writeClasses("targets", INDEXED_TARGET, INDEXED_CALLBACK);
+        final ClassIndex classes = ClassIndex.create();
+
+        final TestGroup group = new TestGroup("classindex", (mercury, mappings) -> {
+            mercury.getClassPath().add(targets);
+            final MixinRemapper remapper = MixinRemapper.createRemapper(mappings);
+            remapper.setClassIndex(classes);
+            mercury.getProcessors().add(remapper);
+            final MixinCleaner cleaner = MixinCleaner.createCleaner();
+            cleaner.setClassIndex(classes);
+            mercury.getProcessors().add(cleaner);
+        })
+                .register("IndexedTargetMixin", "IndexedTargetMixin");
+        group.test();
+        assertTrue(classes.isHierarchyIndexed(INDEXED_TARGET));
+
+        // Completing the target, and checking which of its fields are
+        // final, gives the same result from the index as from bindings
+        group.testSame((mercury, mappings) -> {
+            mercury.getClassPath().add(targets);
+            mercury.getProcessors().add(MixinRemapper.create(mappings));
+            mercury.getProcessors().add(MixinCleaner.create());
+        });
+    }
+
+    private static void assertFixture(final ClassIndex index) {
+        final ClassMetadata fixture = index.get(FIXTURE);
+        assertNotNull(fixture);
+        assertEquals("java/lang/Object", fixture.getSuperName());
+        assertEquals(Collections.singletonList(CALLBACK), fixture.getInterfaces());
+        assertFalse(fixture.isInterface());
+        assertTrue(Modifier.isAbstract(fixture.getAccess()));
+
+        assertTrue(Modifier.isFinal(fixture.getField("constant", "I").getAccess()));
+        assertFalse(Modifier.isFinal(fixture.getField("name", "Ljava/lang/String;").getAccess()));
+        assertTrue(Modifier.isStatic(fixture.getField("instances", null).getAccess()));
+        assertNull(fixture.getField("name", "I"));
+
+        assertNotNull(fixture.getMethod("<init>", "()V"));
+        assertNotNull(fixture.getMethod("call", "(Ljava/lang/String;[J)V"));
+        assertTrue(Modifier.isAbstract(fixture.getMethod("tick", "()Z").getAccess()));
+
+        final ClassMetadata callback = index.get(CALLBACK.replace('/', '.'));
+        assertNotNull(callback);
+        assertTrue(callback.isInterface());
+        assertEquals("java/lang/Object", callback.getSuperName());
+    }
+
+    private Path writeClasses(final String name, final String... classes) throws IOException {
+        final Path directory = this.dir.resolve(name);
+        for (final String klass : classes) {
+            final Path file = directory.resolve(klass + ".class");
+            Files.createDirectories(file.getParent());
+            Files.write(file, readClass(klass));
+        }
+        return directory;
+    }
+
+    private Path writeJar(final String name) throws IOException {
+        final Path jar = this.dir.resolve(name);
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            // One class deflated, the other stored
+            out.putNextEntry(new ZipEntry(FIXTURE + ".class"));
+            out.write(readClass(FIXTURE));
+            out.closeEntry();
+
+            final byte[] callback = readClass(CALLBACK);
+            final CRC32 crc = new CRC32();
+            crc.update(callback);
+
+            final ZipEntry stored = new ZipEntry(CALLBACK + ".class");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(callback.length);
+            stored.setCompressedSize(callback.length);
+            stored.setCrc(crc.getValue());
+            out.putNextEntry(stored);
+            out.write(callback);
+            out.closeEntry();
+
+            // Left out of the index
+            out.putNextEntry(new ZipEntry("META-INF/versions/9/" + FIXTURE + ".class"));
+            out.write(new byte[]{ 1, 2, 3 });
+            out.closeEntry();
+        }
+        return jar;
+    }
+
+    /**
+     * Writes a bare class file, of a class with the given superclass and
+     * no members.
+     */
+    private static void writeClass(final Path directory, final String name, final String superName) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+
+            // The constant pool: the names, and the classes
+            out.writeShort(5);
+            out.writeByte(1);
+            out.writeUTF(name);
+            out.writeByte(7);
+            out.writeShort(1);
+            out.writeByte(1);
+            out.writeUTF(superName);
+            out.writeByte(7);
+            out.writeShort(3);
+
+            out.writeShort(Modifier.PUBLIC | 0x20);
+            out.writeShort(2);
+            out.writeShort(4);
+            // No interfaces, fields, methods or attributes
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+
+        final Path file = directory.resolve(name + ".class");
+        Files.createDirectories(file.getParent());
+        Files.write(file, bytes.toByteArray());
+    }
+
+    private static byte[] readClass(final String name) throws IOException {
+        try (final InputStream in = ClassIndexTests.class.getClassLoader().getResourceAsStream(name + ".class")) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    interface Callback {
+
+        void call(final String name, final long... values);
+
+    }
+
+    static abstract class Fixture implements Callback {
+
+        static int instances;
+
+        final int constant = 1;
+        String name;
+
+        @Override
+        public void call(final String name, final long... values) {
+        }
+
+        abstract boolean tick();
+
+    }
+
+}
@@ -6,6 +6,7 @@
 
 package org.cadixdev.mercury.mixin.test;
 
+import org.cadixdev.mercury.mixin.MixinRemapper;
 import org.cadixdev.mercury.mixin.cleaner.MixinCleaner;
 import org.junit.jupiter.api.Test;
 
@@ -21,4 +22,19 @@ void testMixins() throws Exception {
                 .test();
     }
 
+    @Test
+    void testCleaningWhileRemapping() throws Exception {
+        new TestGroup("cleaner", (mercury, mappings) -> {
+            mercury.getProcessors().add(MixinRemapper.create(mappings));
+            mercury.getProcessors().add(MixinCleaner.create());
+        })
+                .register("PrivateTestTargetMixin", "PrivateTestTargetMixin")
+                .register("TestTargetMixin", "TestTargetMixin")
+                .testSame((mercury, mappings) -> {
+                    final MixinRemapper remapper = MixinRemapper.createRemapper(mappings);
+                    remapper.setCleaning(true);
+                    mercury.getProcessors().add(remapper);
+                });
+    }
+
 }
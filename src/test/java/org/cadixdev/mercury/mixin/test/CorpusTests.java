@@ -0,0 +1,253 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.SourceContext;
+import org.cadixdev.mercury.SourceProcessor;
+import org.cadixdev.mercury.mixin.MixinCollector;
+import org.cadixdev.mercury.mixin.MixinRemapper;
+import org.cadixdev.mercury.mixin.UnitBatcher;
+import org.cadixdev.mercury.remapper.MercuryRemapper;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CorpusTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLargeCorpus() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(200)
+                .injectors(12)
+                .members(32);
+
+        final Path mixin = TestGroup.getMixinJar();
+        corpus.writeSources(this.dir.resolve("a"));
+
+        final MappingSet mappings = corpus.readMappings();
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(mixin);
+        mercury.getProcessors().add(MixinRemapper.create(mappings));
+        mercury.getProcessors().add(MercuryRemapper.create(mappings));
+        mercury.rewrite(this.dir.resolve("a"), this.dir.resolve("b"));
+
+        for (int i = 0; i < corpus.getMixins(); i++) {
+            final String target = "Lnet/example/Target" + i + ";";
+
+            final String mixinSource = read(this.dir.resolve("b/m/Target" + i + "Mixin.java"));
+            assertTrue(mixinSource.contains("@Mixin(Target" + i + ".class)"), "Target of mixin " + i);
+            assertTrue(mixinSource.contains("private int field0;"), "Shadow field of mixin " + i);
+            assertTrue(mixinSource.contains("public abstract void method0();"), "Shadow method of mixin " + i);
+            assertTrue(mixinSource.contains("public void method31()"), "Overwrite of mixin " + i);
+            assertTrue(mixinSource.contains("target = \"" + target + "method2()V\""), "Injector of mixin " + i);
+            assertTrue(mixinSource.contains("target = \"" + target + "field3:I\""), "Slice of mixin " + i);
+            assertTrue(mixinSource.contains("public String if$getName()"), "Interface of mixin " + i);
+            assertFalse(mixinSource.contains("Lt/c"), "Unmapped selector in mixin " + i);
+
+            final String accessorSource = read(this.dir.resolve("b/m/Target" + i + "Accessor.java"));
+            assertTrue(accessorSource.contains("int getField0();"), "Accessor of " + i);
+            assertTrue(accessorSource.contains("@Accessor(\"field1\")"), "Named accessor of " + i);
+            assertTrue(accessorSource.contains("void callProcess(final int value);"), "Invoker of " + i);
+
+            final String hiddenSource = read(this.dir.resolve("b/m/Hidden" + i + "Mixin.java"));
+            assertTrue(hiddenSource.contains("@Mixin(targets = \"net/example/Hidden" + i + "\")"), "Private target " + i);
+            assertTrue(hiddenSource.contains("private int hidden;"), "Private target shadow " + i);
+        }
+    }
+
+    @Test
+    void testBatchedCorpus() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(50)
+                .injectors(4)
+                .members(8);
+
+        final Path mixin = TestGroup.getMixinJar();
+        corpus.writeSources(this.dir.resolve("a"));
+
+        // All at once
+        final MappingSet expectedMappings = corpus.readMappings();
+        final Mercury collect = new Mercury();
+        collect.getClassPath().add(mixin);
+        collect.getProcessors().add(MixinCollector.create(expectedMappings));
+        collect.process(this.dir.resolve("a"));
+
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(mixin);
+        mercury.getProcessors().add(MixinRemapper.createRewriter(expectedMappings));
+        mercury.getProcessors().add(MercuryRemapper.create(expectedMappings));
+        mercury.rewrite(this.dir.resolve("a"), this.dir.resolve("expected"));
+
+        // In batches
+        final MappingSet actualMappings = corpus.readMappings();
+        final Mercury batchedCollect = new Mercury();
+        batchedCollect.getClassPath().add(mixin);
+        batchedCollect.getProcessors().add(MixinCollector.create(actualMappings));
+        final UnitBatcher collectBatches = UnitBatcher.create(batchedCollect);
+        collectBatches.setBatchSize(16);
+        collectBatches.process(this.dir.resolve("a"));
+
+        final Mercury batched = new Mercury();
+        batched.getClassPath().add(mixin);
+        batched.getProcessors().add(MixinRemapper.createRewriter(actualMappings));
+        batched.getProcessors().add(MercuryRemapper.create(actualMappings));
+        final UnitBatcher batches = UnitBatcher.create(batched);
+        batches.setBatchSize(16);
+        batches.rewrite(this.dir.resolve("a"), this.dir.resolve("actual"));
+        assertTrue(batches.getBatchCount() > 1, "Batch count");
+
+        final List<Path> files;
+        try (final Stream<Path> walk = Files.walk(this.dir.resolve("expected"))) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty());
+        for (final Path expected : files) {
+            final Path relative = this.dir.resolve("expected").relativize(expected);
+            final Path actual = this.dir.resolve("actual").resolve(relative.toString());
+            assertTrue(Files.exists(actual), relative + " wasn't rewritten");
+            assertEquals(read(expected), read(actual), "Rewritten code for " + relative + " does not match");
+        }
+    }
+
+    @Test
+    void testOversizedGroups() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(4);
+        corpus.writeSources(this.dir.resolve("a"));
+
+        // Each target is batched with its mixin and accessor, despite the
+        // batches being smaller than that
+        final BatchProbe probe = this.collect(corpus, 2);
+        final Set<String> seen = new HashSet<>();
+        for (final List<String> run : probe.runs) {
+            for (final String unit : run) {
+                assertTrue(seen.add(unit), unit + " was processed twice");
+            }
+            for (int i = 0; i < corpus.getMixins(); i++) {
+                if (run.contains("m.Target" + i + "Mixin")) {
+                    assertEquals(3, run.size(), "Batch of mixin " + i);
+                    assertTrue(run.contains("t.c" + i), "Target of mixin " + i);
+                    assertTrue(run.contains("m.Target" + i + "Accessor"), "Accessor of " + i);
+                }
+            }
+        }
+        // The shared interface, and for each mixin: its target, the mixin,
+        // the accessor, the private target and its mixin
+        assertEquals(1 + corpus.getMixins() * 5, seen.size());
+    }
+
+    @Test
+    void testBatchBounds() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(100)
+                .injectors(4)
+                .members(32);
+        corpus.writeSources(this.dir.resolve("a"));
+
+        final BatchProbe unbatched = this.collect(corpus, Integer.MAX_VALUE);
+        final BatchProbe batched = this.collect(corpus, 50);
+        assertEquals(1, unbatched.runs.size());
+        assertTrue(batched.runs.size() > 1, "Batch count");
+
+        // Every batch is bounded, and every unit is seen in exactly one
+        final Set<String> seen = new HashSet<>();
+        for (final List<String> run : batched.runs) {
+            assertTrue(run.size() <= 50, "Batch of " + run.size() + " units");
+            for (final String unit : run) {
+                assertTrue(seen.add(unit), unit + " was processed twice");
+            }
+        }
+        assertEquals(new HashSet<>(unbatched.runs.get(0)), seen);
+
+        // Each unit sees the rest of the source set once, so it compiles as
+        // it would unbatched
+        assertEquals(unbatched.errors, batched.errors, "Compiler errors");
+    }
+
+    @Test
+    void testBatchedRemapperRefused() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(4);
+        corpus.writeSources(this.dir.resolve("a"));
+
+        // A remapper deriving mappings would depend on the batch of each mixin
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(TestGroup.getMixinJar());
+        mercury.getProcessors().add(MixinRemapper.create(corpus.readMappings()));
+        final UnitBatcher batches = UnitBatcher.create(mercury);
+        batches.setBatchSize(2);
+        assertThrows(IllegalStateException.class, () -> batches.rewrite(this.dir.resolve("a"), this.dir.resolve("b")));
+        assertFalse(Files.exists(this.dir.resolve("b")));
+    }
+
+    private BatchProbe collect(final MixinCorpus corpus, final int batchSize) throws Exception {
+        final BatchProbe probe = new BatchProbe();
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(TestGroup.getMixinJar());
+        mercury.getProcessors().add(MixinCollector.create(corpus.readMappings()));
+        mercury.getProcessors().add(probe);
+
+        final UnitBatcher batches = UnitBatcher.create(mercury);
+        batches.setBatchSize(batchSize);
+        batches.process(this.dir.resolve("a"));
+        return probe;
+    }
+
+    private static String read(final Path path) throws Exception {
+        return new String(Files.readAllBytes(path));
+    }
+
+    /**
+     * Records the units processed in each run of Mercury, along with the
+     * number of compiler errors in them.
+     */
+    private static final class BatchProbe implements SourceProcessor {
+
+        final List<List<String>> runs = new ArrayList<>();
+        int errors;
+        private List<String> units;
+
+        @Override
+        public int getFlags() {
+            return FLAG_RESOLVE_BINDINGS;
+        }
+
+        @Override
+        public void initialize(final Mercury mercury) {
+            this.units = new ArrayList<>();
+            this.runs.add(this.units);
+        }
+
+        @Override
+        public synchronized void process(final SourceContext context) {
+            final CompilationUnit unit = context.getCompilationUnit();
+            final String packageName = unit.getPackage() != null ? unit.getPackage().getName().getFullyQualifiedName() + '.' : "";
+            this.units.add(packageName + ((AbstractTypeDeclaration) unit.types().get(0)).getName().getIdentifier());
+            for (final IProblem problem : unit.getProblems()) {
+                if (problem.isError()) this.errors++;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,16 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+/**
+ * A supertype of {@link IndexedTarget}, whose mappings the target inherits.
+ */
+public interface IndexedCallback {
+
+    void call(final String name);
+
+}
@@ -0,0 +1,25 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+/**
+ * The target of the mixins in the {@code classindex} tests, which is only
+ * given to Mercury as a class file - so it can be indexed.
+ */
+public abstract class IndexedTarget implements IndexedCallback {
+
+    private final int constant = 1;
+    private String name;
+
+    @Override
+    public void call(final String name) {
+        this.name = name;
+    }
+
+    protected abstract boolean tick();
+
+}
@@ -0,0 +1,242 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.mixin.DerivedMappings;
+import org.cadixdev.mercury.mixin.MixinCollector;
+import org.cadixdev.mercury.mixin.MixinRemapper;
+import org.cadixdev.mercury.mixin.RemapListener;
+import org.cadixdev.mercury.mixin.RemapMetrics;
+import org.cadixdev.mercury.remapper.MercuryRemapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ParallelTests {
+
+    private static final int PARTITIONS = 2;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testPartitions() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(20)
+                .injectors(4)
+                .members(8);
+        this.partition(corpus);
+
+        // In serial
+        final MappingSet expected = corpus.readMappings();
+        final Mercury collect = new Mercury();
+        collect.getClassPath().add(TestGroup.getMixinJar());
+        collect.getProcessors().add(MixinCollector.create(expected));
+        collect.process(this.dir.resolve("a"));
+
+        // In parallel, sharing the mappings and a buffer
+        final MappingSet actual = corpus.readMappings();
+        final DerivedMappings derived = new DerivedMappings();
+        final RemapMetrics metrics = new RemapMetrics();
+        final ExecutorService executor = Executors.newFixedThreadPool(PARTITIONS);
+        try {
+            final List<Future<?>> partitions = new ArrayList<>();
+            for (int i = 0; i < PARTITIONS; i++) {
+                final Path partition = this.dir.resolve("p" + i);
+                partitions.add(executor.submit(() -> {
+                    final MixinCollector collector = MixinCollector.create(actual, derived);
+                    collector.setListener(metrics);
+
+                    final Mercury mercury = new Mercury();
+                    mercury.getClassPath().add(TestGroup.getMixinJar());
+                    mercury.getSourcePath().add(this.dir.resolve("targets"));
+                    mercury.getProcessors().add(collector);
+                    mercury.process(partition);
+                    return null;
+                }));
+            }
+            for (final Future<?> partition : partitions) {
+                partition.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertEquals(Collections.emptyList(), metrics.getConflicts());
+        derived.apply(actual);
+
+        this.rewrite(expected, "expected");
+        this.rewrite(actual, "actual");
+
+        final List<Path> files;
+        try (final Stream<Path> walk = Files.walk(this.dir.resolve("expected"))) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty());
+        for (final Path file : files) {
+            final Path relative = this.dir.resolve("expected").relativize(file);
+            final Path other = this.dir.resolve("actual").resolve(relative.toString());
+            assertTrue(Files.exists(other), relative + " wasn't rewritten");
+            assertEquals(read(file), read(other), "Rewritten code for " + relative + " does not match");
+        }
+    }
+
+    @Test
+    void testConflict() {
+        final List<Map<String, String>> conflicts = new ArrayList<>();
+        final RemapListener listener = new RemapListener() {
+            @Override
+            public void mappingConflict(final String mixin, final String member, final Map<String, String> names) {
+                assertEquals("m/Mixin", mixin);
+                assertEquals("h", member);
+                conflicts.add(names);
+            }
+        };
+
+        final DerivedMappings first = new DerivedMappings();
+        first.addFieldMapping("m/Mixin", new FieldSignature("h"), "t/b", "second");
+        final DerivedMappings second = new DerivedMappings();
+        second.addFieldMapping("m/Mixin", new FieldSignature("h"), "t/a", "first");
+
+        final DerivedMappings derived = new DerivedMappings();
+        derived.addAll(first, listener);
+        derived.addAll(first, listener);
+        assertTrue(conflicts.isEmpty());
+        derived.addAll(second, listener);
+
+        final Map<String, String> names = new LinkedHashMap<>();
+        names.put("t/a", "first");
+        names.put("t/b", "second");
+        assertEquals(Collections.singletonList(names), conflicts);
+
+        // The same name is applied, whichever order the names were added in
+        final DerivedMappings reversed = new DerivedMappings();
+        reversed.addAll(second);
+        reversed.addAll(first);
+        for (final DerivedMappings buffer : new DerivedMappings[] { derived, reversed }) {
+            final MappingSet mappings = MappingSet.create();
+            buffer.apply(mappings);
+            assertEquals("first", mappings.getClassMapping("m/Mixin").get()
+                    .getFieldMapping("h").get().getDeobfuscatedName());
+        }
+    }
+
+    @Test
+    void testPartitionsOverlap() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(20)
+                .members(8);
+        this.partition(corpus);
+
+        // Each partition waits for the other once it has resolved a member,
+        // which it does outside of the lock on the mappings - so they only
+        // meet should both be processing mixins at once
+        final MappingSet mappings = corpus.readMappings();
+        final DerivedMappings derived = new DerivedMappings();
+        final CyclicBarrier barrier = new CyclicBarrier(PARTITIONS);
+        final AtomicInteger met = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(PARTITIONS);
+        try {
+            final List<Future<?>> partitions = new ArrayList<>();
+            for (int i = 0; i < PARTITIONS; i++) {
+                final Path partition = this.dir.resolve("p" + i);
+                partitions.add(executor.submit(() -> {
+                    final MixinCollector collector = MixinCollector.create(mappings, derived);
+                    collector.setListener(new RemapListener() {
+                        private final AtomicBoolean waited = new AtomicBoolean();
+
+                        @Override
+                        public void targetResolved(final String annotationType, final boolean resolved) {
+                            if (!this.waited.compareAndSet(false, true)) return;
+
+                            try {
+                                barrier.await(30, TimeUnit.SECONDS);
+                                met.incrementAndGet();
+                            }
+                            catch (final InterruptedException | BrokenBarrierException | TimeoutException ignored) {
+                            }
+                        }
+                    });
+
+                    final Mercury mercury = new Mercury();
+                    mercury.getClassPath().add(TestGroup.getMixinJar());
+                    mercury.getSourcePath().add(this.dir.resolve("targets"));
+                    mercury.getProcessors().add(collector);
+                    mercury.process(partition);
+                    return null;
+                }));
+            }
+            for (final Future<?> partition : partitions) {
+                partition.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertEquals(PARTITIONS, met.get(), "Partitions processing mixins at once");
+    }
+
+    /**
+     * Writes the sources of the given corpus to a partition each, sharing
+     * the targets between every partition - while the mixins of each target
+     * are in a single partition.
+     *
+     * @param corpus The corpus
+     * @throws Exception Should the sources fail to write
+     */
+    private void partition(final MixinCorpus corpus) throws Exception {
+        corpus.writeSources(this.dir.resolve("a"));
+
+        try (final Stream<Path> walk = Files.walk(this.dir.resolve("a"))) {
+            for (final Path file : walk.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                final Path relative = this.dir.resolve("a").relativize(file);
+                final String name = file.getFileName().toString();
+                final Path root = relative.startsWith("t") ?
+                        this.dir.resolve("targets") :
+                        this.dir.resolve("p" + (Integer.parseInt(name.replaceAll("\\D", "")) % PARTITIONS));
+                Files.createDirectories(root.resolve(relative.toString()).getParent());
+                Files.copy(file, root.resolve(relative.toString()));
+            }
+        }
+    }
+
+    private void rewrite(final MappingSet mappings, final String out) throws Exception {
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(TestGroup.getMixinJar());
+        mercury.getProcessors().add(MixinRemapper.createRewriter(mappings));
+        mercury.getProcessors().add(MercuryRemapper.create(mappings));
+        mercury.rewrite(this.dir.resolve("a"), this.dir.resolve(out));
+    }
+
+    private static String read(final Path path) throws Exception {
+        return new String(Files.readAllBytes(path));
+    }
+
+}
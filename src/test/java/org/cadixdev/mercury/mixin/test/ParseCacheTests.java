@@ -0,0 +1,144 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.Mercury;
+import org.cadixdev.mercury.mixin.MixinRemapper;
+import org.cadixdev.mercury.mixin.annotation.AtData;
+import org.cadixdev.mercury.mixin.annotation.InjectTarget;
+import org.cadixdev.mercury.mixin.annotation.ParseCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+public class ParseCacheTests {
+
+    private static final String[] TARGETS = {
+            "tick", "tick()V", "process(ILjava/lang/String;)Z", "field:I", "values:[Ljava/util/List;"
+    };
+
+    private static final String[][] ATS = {
+            { "HEAD", null },
+            { "INVOKE", "Lnet/example/Target;tick()V" },
+            { "FIELD", "Lnet/example/Target;field:I" },
+            { null, "Lnet/example/Target;process(ILjava/lang/String;)Z" },
+            { "NEW", "net/example/Target" }
+    };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSameAsParsed() {
+        final ParseCache cache = ParseCache.create(ParseCache.DEFAULT_CAPACITY);
+
+        // Parsed once, and then served from the cache
+        for (int i = 0; i < 2; i++) {
+            for (final String target : TARGETS) {
+                assertEquals(InjectTarget.of(target).toString(), cache.target(target).toString(), target);
+                assertEquals(target, cache.target(target).getFullTarget(), target);
+            }
+            for (final String[] at : ATS) {
+                assertEquals(AtData.of(at[0], at[1]).toString(), cache.at(at[0], at[1]).toString(), at[1]);
+            }
+        }
+        assertSame(cache.target("tick()V"), cache.target("tick()V"));
+
+        // The same target, at another injection point
+        final AtData at = cache.at("INVOKE_ASSIGN", ATS[1][1]);
+        assertEquals(AtData.of("INVOKE_ASSIGN", ATS[1][1]).toString(), at.toString());
+        assertNotSame(cache.at(ATS[1][0], ATS[1][1]), at);
+        assertSame(cache.at(ATS[1][0], ATS[1][1]).getTarget().get(), at.getTarget().get());
+
+        assertTrue(cache.getHits() > 0, "Hits");
+    }
+
+    @Test
+    void testCapacity() {
+        final ParseCache cache = ParseCache.create(2);
+
+        for (final String target : TARGETS) {
+            cache.target(target);
+        }
+        assertEquals(2, cache.size());
+
+        // Past the capacity, strings are still parsed - but not cached
+        final InjectTarget first = cache.target("field:I");
+        final InjectTarget second = cache.target("field:I");
+        assertNotSame(first, second);
+        assertEquals(InjectTarget.of("field:I").toString(), second.toString());
+        assertEquals(2, cache.size());
+        assertEquals(TARGETS.length + 2, cache.getMisses());
+
+        final ParseCache empty = ParseCache.create(0);
+        assertEquals(AtData.of(ATS[1][0], ATS[1][1]).toString(), empty.at(ATS[1][0], ATS[1][1]).toString());
+        assertNotSame(empty.target("tick()V"), empty.target("tick()V"));
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.getHits());
+    }
+
+    @Test
+    void testClear() {
+        final ParseCache cache = ParseCache.create(ParseCache.DEFAULT_CAPACITY);
+        final InjectTarget target = cache.target("tick()V");
+        cache.target("tick()V");
+        cache.at(ATS[1][0], ATS[1][1]);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertNotSame(target, cache.target("tick()V"));
+    }
+
+    @Test
+    void testClearedBetweenRuns() throws Exception {
+        final MixinCorpus corpus = MixinCorpus.create(10)
+                .injectors(4)
+                .members(4);
+        corpus.writeSources(this.dir.resolve("a"));
+
+        final MappingSet mappings = corpus.readMappings();
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(TestGroup.getMixinJar());
+        mercury.getProcessors().add(MixinRemapper.createRewriter(mappings));
+
+        mercury.rewrite(this.dir.resolve("a"), this.dir.resolve("b"));
+        final ParseCache cache = ParseCache.get(mercury);
+        final long hits = cache.getHits();
+        final long misses = cache.getMisses();
+        final int size = cache.size();
+        assertTrue(misses > 0, "Misses");
+
+        // Nothing is carried over from the first run
+        mercury.rewrite(this.dir.resolve("a"), this.dir.resolve("c"));
+        assertSame(cache, ParseCache.get(mercury));
+        assertEquals(hits, cache.getHits());
+        assertEquals(misses, cache.getMisses());
+        assertEquals(size, cache.size());
+    }
+
+    @Test
+    void testUncachedRemap() throws Exception {
+        // Injectors parsed without the cache are remapped the same
+        StandardTests.injectorGroup((mercury, mappings) -> {
+            mercury.getProcessors().add(MixinRemapper.create(mappings));
+        })
+                .testSame((mercury, mappings) -> {
+                    mercury.getContext().put(ParseCache.class, ParseCache.create(0));
+                    mercury.getProcessors().add(MixinRemapper.create(mappings));
+                });
+    }
+
+}
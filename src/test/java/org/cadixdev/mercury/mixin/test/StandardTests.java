@@ -6,9 +6,28 @@
 
 package org.cadixdev.mercury.mixin.test;
 
+import static org.cadixdev.mercury.mixin.util.MixinConstants.ACCESSOR_CLASS;
+import static org.cadixdev.mercury.mixin.util.MixinConstants.INVOKER_CLASS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.cadixdev.bombe.util.ByteStreams;
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.mercury.Mercury;
 import org.cadixdev.mercury.mixin.MixinRemapper;
+import org.cadixdev.mercury.mixin.RemapListener;
+import org.cadixdev.mercury.mixin.RemapMetrics;
+import org.cadixdev.mercury.mixin.RemapPhase;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
 public class StandardTests {
 
     @Test
@@ -35,6 +54,94 @@ void testMixins() throws Exception {
                 .test();
     }
 
+    @Test
+    void testInjectors() throws Exception {
+        injectorGroup((mercury, mappings) -> {
+            mercury.getProcessors().add(MixinRemapper.create(mappings));
+        }).test();
+    }
+
+    @Test
+    void testLiteralAccessors() throws Exception {
+        final MixinRemapper[] remapper = new MixinRemapper[1];
+        new TestGroup("accessor", (mercury, mappings) -> {
+            mercury.getProcessors().add(MixinRemapper.createRewriter(mappings));
+        })
+                .register("TestTargetAccessor", "TestTargetAccessor")
+                .testSame((mercury, mappings) -> {
+                    remapper[0] = MixinRemapper.createLiteralRewriter(mappings);
+                    mercury.getProcessors().add(remapper[0]);
+                });
+
+        // Every target is in the mappings of hj itself, so needs no bindings
+        assertEquals(0, remapper[0].getBindingFallbacks());
+    }
+
+    @Test
+    void testLiteralInjectors() throws Exception {
+        final MixinRemapper[] remapper = new MixinRemapper[1];
+        injectorGroup((mercury, mappings) -> {
+            mercury.getProcessors().add(MixinRemapper.createRewriter(mappings));
+        })
+                .testSame((mercury, mappings) -> {
+                    remapper[0] = MixinRemapper.createLiteralRewriter(mappings);
+                    mercury.getProcessors().add(remapper[0]);
+                });
+
+        assertEquals(0, remapper[0].getBindingFallbacks());
+    }
+
+    @Test
+    void testTargetCompletion() throws Exception {
+        final MixinRemapper[] remapper = new MixinRemapper[1];
+        new TestGroup("mixin", (mercury, mappings) -> {
+            remapper[0] = MixinRemapper.createRemapper(mappings);
+            mercury.getProcessors().add(remapper[0]);
+        })
+                .register("TestTargetMixin", "TestTargetMixin")
+                .test();
+
+        // Every method of the mixin targets hj, which should only be completed once
+        assertEquals(1, remapper[0].getCompletedTargets());
+        assertTrue(remapper[0].getSkippedCompletions() > 0);
+    }
+
+    @Test
+    void testMetrics() throws Exception {
+        final RemapMetrics metrics = new RemapMetrics();
+        new TestGroup("accessor", (mercury, mappings) -> {
+            final MixinRemapper remapper = MixinRemapper.createRemapper(mappings);
+            remapper.setListener(metrics);
+            mercury.getProcessors().add(remapper);
+        })
+                .register("TestTargetAccessor", "TestTargetAccessor")
+                .test();
+
+        assertEquals(1, metrics.getMixins());
+        // The common sources don't declare any mixins
+        assertEquals(4, metrics.getSkippedUnits());
+        assertEquals(3, metrics.getResolved(ACCESSOR_CLASS));
+        assertEquals(2, metrics.getResolved(INVOKER_CLASS));
+        assertEquals(2, metrics.getRewrittenLiterals());
+        assertEquals(5, metrics.getCount(RemapPhase.ACCESSOR));
+    }
+
+    @Test
+    void testMultipleTargets() throws Exception {
+        final RemapMetrics metrics = new RemapMetrics();
+        new TestGroup("multitarget", (mercury, mappings) -> {
+            final MixinRemapper remapper = MixinRemapper.createRemapper(mappings);
+            remapper.setListener(metrics);
+            mercury.getProcessors().add(remapper);
+        })
+                .register("kl", "SecondTarget")
+                .register("MultiTargetMixin", "MultiTargetMixin")
+                .test();
+
+        // hj and kl map yu differently
+        assertEquals(1, metrics.getConflicts().size());
+    }
+
     @Test
     void testInheritance() throws Exception {
         new TestGroup("inheritance", (mercury, mappings) -> {
@@ -44,4 +151,57 @@ void testInheritance() throws Exception {
                 .test();
     }
 
+    @Test
+    void testRenamedDuringRun() throws Exception {
+        // Renaming a target's method after the first lookup, as deriving
+        // the mappings of another mixin may, is seen by later injectors
+        final AtomicBoolean renamed = new AtomicBoolean();
+        final Path out = injectorGroup((mercury, mappings) -> {
+            final MixinRemapper remapper = MixinRemapper.createRemapper(mappings);
+            remapper.setListener(new RemapListener() {
+                @Override
+                public void targetResolved(final String annotationType, final boolean resolved) {
+                    if (renamed.compareAndSet(false, true)) {
+                        mappings.getClassMapping("hj").get()
+                                .getMethodMapping("hhj", "()V").get()
+                                .setDeobfuscatedName("begin");
+                    }
+                }
+            });
+            mercury.getProcessors().add(remapper);
+        }).rewrite();
+        assertTrue(renamed.get());
+
+        // The first injector of hhj is remapped before the rename, and every
+        // later one after it - despite their selectors being memoised
+        final String expected;
+        try (final InputStream is = StandardTests.class.getResourceAsStream("/injector/b/InjectorMixin.java")) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ByteStreams.copy(is, baos);
+            expected = baos.toString()
+                    .replace("method = \"start", "method = \"begin")
+                    .replaceFirst("method = \"begin\"", "method = \"start\"");
+        }
+        assertEquals(expected, new String(Files.readAllBytes(out.resolve("InjectorMixin.java"))));
+    }
+
+    /**
+     * Creates the injector test group, with the MixinExtras annotations its
+     * mixin uses.
+     *
+     * @param handler The group's processors
+     * @return The test group
+     * @throws IOException Should the sources fail to copy
+     */
+    static TestGroup injectorGroup(final BiConsumer<Mercury, MappingSet> handler) throws IOException {
+        return new TestGroup("injector", handler)
+                .register("com/llamalad7/mixinextras/injector/ModifyExpressionValue", "com/llamalad7/mixinextras/injector/ModifyExpressionValue")
+                .register("com/llamalad7/mixinextras/injector/ModifyReturnValue", "com/llamalad7/mixinextras/injector/ModifyReturnValue")
+                .register("com/llamalad7/mixinextras/injector/WrapWithCondition", "com/llamalad7/mixinextras/injector/WrapWithCondition")
+                .register("com/llamalad7/mixinextras/injector/v2/WrapWithCondition", "com/llamalad7/mixinextras/injector/v2/WrapWithCondition")
+                .register("com/llamalad7/mixinextras/injector/wrapoperation/Operation", "com/llamalad7/mixinextras/injector/wrapoperation/Operation")
+                .register("com/llamalad7/mixinextras/injector/wrapoperation/WrapOperation", "com/llamalad7/mixinextras/injector/wrapoperation/WrapOperation")
+                .register("InjectorMixin", "InjectorMixin");
+    }
+
 }
@@ -47,6 +47,8 @@ public class TestGroup {
         COMMON_SOURCES = Collections.unmodifiableSet(commonSources);
     }
 
+    private static Path mixinJar;
+
     private final Map<String, String> expected = new HashMap<>();
     private final String name;
     private final BiConsumer<Mercury, MappingSet> mercuryHandler;
@@ -63,20 +65,9 @@ public TestGroup(final String name, final BiConsumer<Mercury, MappingSet> mercur
         this.dir = Files.createTempDirectory("mercury-test");
         Files.createDirectories(this.dir.resolve("a"));
         Files.createDirectories(this.dir.resolve("b"));
-        this.mixin = this.dir.resolve("mixin.jar");
-        downloadMixin(this.mixin);
+        this.mixin = getMixinJar();
 
-        this.mappings = MappingSet.create();
-        // Read the common mappings
-        try (final MappingsReader reader = MappingFormats.TSRG
-                .createReader(TestGroup.class.getResourceAsStream("/common/test.tsrg"))) {
-            reader.read(this.mappings);
-        }
-        // Read the test's mappings
-        try (final MappingsReader reader = MappingFormats.TSRG
-                .createReader(TestGroup.class.getResourceAsStream("/" + this.name + "/test.tsrg"))) {
-            reader.read(this.mappings);
-        }
+        this.mappings = this.readMappings();
 
         // Copy common sources to a
         for (final String file : COMMON_SOURCES) {
@@ -97,14 +88,7 @@ public TestGroup register(final String a, final String b) throws IOException {
     }
 
     public void test() throws Exception {
-        final Path in = this.dir.resolve("a");
-        final Path out = this.dir.resolve("b");
-
-        final Mercury mercury = new Mercury();
-        mercury.getClassPath().add(this.mixin);
-        this.mercuryHandler.accept(mercury, this.mappings);
-        mercury.getProcessors().add(MercuryRemapper.create(this.mappings));
-        mercury.rewrite(in, out);
+        final Path out = this.rewrite();
 
         for (final String file : this.expected.values()) {
             final Path path = out.resolve(file);
@@ -124,6 +108,63 @@ public void test() throws Exception {
         }
     }
 
+    /**
+     * Rewrites the group with the group's processors, leaving the output
+     * to be checked by the caller.
+     *
+     * @return The directory the group was rewritten to
+     * @throws Exception Should the rewrite fail
+     */
+    public Path rewrite() throws Exception {
+        final Path out = this.dir.resolve("b");
+        this.rewrite(this.mercuryHandler, this.mappings, out);
+        return out;
+    }
+
+    /**
+     * Checks the group is rewritten the same by both the group's processors,
+     * and the given processors - each with their own copy of the mappings.
+     *
+     * @param other The other processors
+     * @throws Exception Should the rewrite fail
+     */
+    public void testSame(final BiConsumer<Mercury, MappingSet> other) throws Exception {
+        final Path expectedOut = this.dir.resolve("expected");
+        final Path actualOut = this.dir.resolve("actual");
+        this.rewrite(this.mercuryHandler, this.readMappings(), expectedOut);
+        this.rewrite(other, this.readMappings(), actualOut);
+
+        for (final String file : this.expected.values()) {
+            final String expected = new String(Files.readAllBytes(expectedOut.resolve(file)));
+            final String actual = new String(Files.readAllBytes(actualOut.resolve(file)));
+            assertEquals(expected, actual, "Rewritten code for " + file + " does not match");
+        }
+    }
+
+    private void rewrite(final BiConsumer<Mercury, MappingSet> handler, final MappingSet mappings,
+                         final Path out) throws Exception {
+        final Mercury mercury = new Mercury();
+        mercury.getClassPath().add(this.mixin);
+        handler.accept(mercury, mappings);
+        mercury.getProcessors().add(MercuryRemapper.create(mappings));
+        mercury.rewrite(this.dir.resolve("a"), out);
+    }
+
+    private MappingSet readMappings() throws IOException {
+        final MappingSet mappings = MappingSet.create();
+        // Read the common mappings
+        try (final MappingsReader reader = MappingFormats.TSRG
+                .createReader(TestGroup.class.getResourceAsStream("/common/test.tsrg"))) {
+            reader.read(mappings);
+        }
+        // Read the test's mappings
+        try (final MappingsReader reader = MappingFormats.TSRG
+                .createReader(TestGroup.class.getResourceAsStream("/" + this.name + "/test.tsrg"))) {
+            reader.read(mappings);
+        }
+        return mappings;
+    }
+
     private void copy(final String prefix, final String file) throws IOException {
         final Path path = this.dir.resolve("a").resolve(file + ".java");
 
@@ -141,6 +182,23 @@ private void copy(final String prefix, final String file) throws IOException {
         assertTrue(Files.exists(path), file + " failed to copy!");
     }
 
+    /**
+     * Gets the Mixin jar, downloading it the first time it is needed - so
+     * it is shared by every test.
+     *
+     * @return The Mixin jar
+     * @throws IOException Should the download fail
+     */
+    public static synchronized Path getMixinJar() throws IOException {
+        if (mixinJar == null) {
+            final Path path = Files.createTempFile("mixin", ".jar");
+            path.toFile().deleteOnExit();
+            downloadMixin(path);
+            mixinJar = path;
+        }
+        return mixinJar;
+    }
+
     private static void downloadMixin(final Path path) throws IOException {
         final URL url = new URL("https://repo.spongepowered.org/maven/org/spongepowered/mixin/0.8/mixin-0.8.jar");
         try (final ReadableByteChannel rbc = Channels.newChannel(url.openStream());
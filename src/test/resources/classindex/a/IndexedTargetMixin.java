@@ -0,0 +1,29 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+import org.cadixdev.mercury.mixin.test.IndexedTarget;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(IndexedTarget.class)
+public abstract class IndexedTargetMixin {
+
+    @Shadow
+    private int constant;
+
+    @Shadow
+    @Final
+    private String name;
+
+    @Inject(method = "call", at = @At("HEAD"))
+    private void onCall(final String name, final CallbackInfo ci) {
+    }
+
+}
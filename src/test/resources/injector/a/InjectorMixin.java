@@ -0,0 +1,59 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import com.llamalad7.mixinextras.injector.ModifyReturnValue;
+import com.llamalad7.mixinextras.injector.WrapWithCondition;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+import org.spongepowered.asm.mixin.injection.ModifyArgs;
+import org.spongepowered.asm.mixin.injection.Slice;
+import org.spongepowered.asm.mixin.injection.invoke.arg.Args;
+
+@Mixin(hj.class)
+public abstract class InjectorMixin {
+
+    @ModifyArg(method = "hhj", at = @At(value = "INVOKE", target = "Lhj;ghy(I)V"))
+    private int modifyYear(final int year) {
+        return year + 1;
+    }
+
+    @ModifyArgs(method = "hhj",
+            at = @At(value = "INVOKE", target = "Lhj;ghy(I)V"),
+            slice = @Slice(from = @At(value = "INVOKE", target = "Lhj;julp()I")))
+    private void modifyYears(final Args args) {
+        args.set(0, 2000);
+    }
+
+    @WrapOperation(method = "hhj", at = @At(value = "INVOKE", target = "Lhj;julp()I"))
+    private int wrapAge(final hj instance, final Operation<Integer> original) {
+        return original.call(instance) + 1;
+    }
+
+    @ModifyExpressionValue(method = "hhj()V", at = @At(value = "INVOKE", target = "Lhj;julp()I"))
+    private int modifyAge(final int age) {
+        return age * 2;
+    }
+
+    @ModifyReturnValue(method = "jei", at = @At("RETURN"))
+    private String modifyName(final String name) {
+        return name.trim();
+    }
+
+    @WrapWithCondition(method = "hhj", at = @At(value = "INVOKE", target = "Lhj;gyhu()V"))
+    private boolean shouldRun(final hj instance) {
+        return true;
+    }
+
+    @com.llamalad7.mixinextras.injector.v2.WrapWithCondition(method = "hhj", at = @At(value = "INVOKE", target = "Lhj;gyhu()V"))
+    private boolean shouldRunAgain(final hj instance) {
+        return false;
+    }
+
+}
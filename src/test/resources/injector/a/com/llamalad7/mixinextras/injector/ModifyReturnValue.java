@@ -0,0 +1,21 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.llamalad7.mixinextras.injector;
+
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Slice;
+
+// A stand-in for the MixinExtras annotation, which isn't on the test classpath
+public @interface ModifyReturnValue {
+
+    String[] method() default {};
+
+    At[] at();
+
+    Slice[] slice() default {};
+
+}
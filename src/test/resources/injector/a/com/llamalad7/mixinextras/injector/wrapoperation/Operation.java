@@ -0,0 +1,14 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package com.llamalad7.mixinextras.injector.wrapoperation;
+
+// A stand-in for the MixinExtras interface, which isn't on the test classpath
+public interface Operation<R> {
+
+    R call(Object... args);
+
+}
@@ -0,0 +1,35 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+// Members are resolved against every target, with the first target declared
+// winning should the targets map a member differently (as with yu).
+@Mixin({TestTarget.class, SecondTarget.class})
+public abstract class MultiTargetMixin {
+
+    @Shadow
+    private String test;
+
+    @Shadow
+    private int age;
+
+    @Shadow
+    private int counter;
+
+    @Shadow
+    public abstract void tick();
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    public void onTy(final CallbackInfo callbackInfo) {
+        System.out.println(this.counter + this.age);
+    }
+
+}
@@ -0,0 +1,17 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+public class SecondTarget {
+
+    private String test;
+    private int years;
+    private int counter;
+
+    public void tick() {
+        this.counter++;
+    }
+
+}
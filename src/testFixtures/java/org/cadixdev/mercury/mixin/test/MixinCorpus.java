@@ -0,0 +1,286 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+import org.cadixdev.lorenz.MappingSet;
+import org.cadixdev.lorenz.io.MappingFormats;
+import org.cadixdev.lorenz.io.MappingsReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A generator for synthetic source trees of obfuscated classes, and the
+ * mixins targeting them, of arbitrary size.
+ * <p>
+ * For every mixin of the corpus, the following is generated:
+ * <ul>
+ *     <li>{@code t/c<i>}, the obfuscated target, with a field
+ *     {@code f<j>} and method {@code m<j>} for every member, and a
+ *     private method {@code p};</li>
+ *     <li>{@code t/d<i>}, an obfuscated package-private class with a
+ *     single field {@code h};</li>
+ *     <li>{@code m/Target<i>Mixin}, using {@code @Shadow},
+ *     {@code @Overwrite}, {@code @Implements} and the given number of
+ *     {@code @Inject}s, with {@code @At}s and {@code @Slice}s;</li>
+ *     <li>{@code m/Target<i>Accessor}, using {@code @Accessor} and
+ *     {@code @Invoker};</li>
+ *     <li>{@code m/Hidden<i>Mixin}, targeting {@code t/d<i>} through
+ *     its private {@code targets}.</li>
+ * </ul>
+ * All of which share a single obfuscated interface, {@code t/a}.
+ * <p>
+ * The corpus is deterministic, so the same configuration will always
+ * produce the same sources and mappings.
+ *
+ * @since 0.1.0
+ */
+public final class MixinCorpus {
+
+    /**
+     * Creates a corpus of the given number of mixins, with 4 injectors per
+     * mixin and 16 members per target.
+     *
+     * @param mixins The number of mixins
+     * @return The corpus
+     */
+    public static MixinCorpus create(final int mixins) {
+        return new MixinCorpus(mixins);
+    }
+
+    private final int mixins;
+    private int injectors = 4;
+    private int members = 16;
+
+    private MixinCorpus(final int mixins) {
+        this.mixins = mixins;
+    }
+
+    /**
+     * Sets the number of injectors in each mixin.
+     *
+     * @param injectors The number of injectors
+     * @return {@code this}, for chaining
+     */
+    public MixinCorpus injectors(final int injectors) {
+        this.injectors = injectors;
+        return this;
+    }
+
+    /**
+     * Sets the number of fields, and of methods, in each target.
+     *
+     * @param members The number of members
+     * @return {@code this}, for chaining
+     */
+    public MixinCorpus members(final int members) {
+        if (members < 2) throw new IllegalArgumentException("A target must have at least 2 members");
+        this.members = members;
+        return this;
+    }
+
+    public int getMixins() {
+        return this.mixins;
+    }
+
+    public int getInjectors() {
+        return this.injectors;
+    }
+
+    public int getMembers() {
+        return this.members;
+    }
+
+    /**
+     * Writes the sources of the corpus, targets and mixins, to the given
+     * source root.
+     *
+     * @param root The source root
+     * @throws IOException Should an I/O error occur
+     */
+    public void writeSources(final Path root) throws IOException {
+        Files.createDirectories(root.resolve("t"));
+        Files.createDirectories(root.resolve("m"));
+
+        write(root.resolve("t/a.java"), "package t;\n\npublic interface a {\n\n    String n();\n\n}\n");
+        for (int i = 0; i < this.mixins; i++) {
+            write(root.resolve("t/c" + i + ".java"), this.target(i));
+            write(root.resolve("t/d" + i + ".java"), "package t;\n\nclass d" + i + " {\n\n    private int h;\n\n}\n");
+            write(root.resolve("m/Target" + i + "Mixin.java"), this.mixin(i));
+            write(root.resolve("m/Target" + i + "Accessor.java"), this.accessor(i));
+            write(root.resolve("m/Hidden" + i + "Mixin.java"), this.hiddenMixin(i));
+        }
+    }
+
+    /**
+     * Writes the mappings of the corpus, in the TSRG format, to the
+     * given file.
+     *
+     * @param file The mappings file
+     * @throws IOException Should an I/O error occur
+     */
+    public void writeMappings(final Path file) throws IOException {
+        write(file, this.getMappings());
+    }
+
+    /**
+     * Gets the mappings of the corpus, in the TSRG format.
+     *
+     * @return The mappings
+     */
+    public String getMappings() {
+        final StringBuilder mappings = new StringBuilder();
+        mappings.append("t/a net/example/Named\n");
+        mappings.append("\tn ()Ljava/lang/String; getName\n");
+        for (int i = 0; i < this.mixins; i++) {
+            mappings.append("t/c").append(i).append(" net/example/Target").append(i).append('\n');
+            for (int j = 0; j < this.members; j++) {
+                mappings.append("\tf").append(j).append(" field").append(j).append('\n');
+                mappings.append("\tm").append(j).append(" ()V method").append(j).append('\n');
+            }
+            mappings.append("\tp (I)V process\n");
+            mappings.append("t/d").append(i).append(" net/example/Hidden").append(i).append('\n');
+            mappings.append("\th hidden\n");
+        }
+        return mappings.toString();
+    }
+
+    /**
+     * Reads a fresh copy of the mappings of the corpus.
+     *
+     * @return The mappings
+     * @throws IOException Should an I/O error occur
+     */
+    public MappingSet readMappings() throws IOException {
+        final MappingSet mappings = MappingSet.create();
+        try (final MappingsReader reader = MappingFormats.TSRG
+                .createReader(new ByteArrayInputStream(this.getMappings().getBytes(StandardCharsets.UTF_8)))) {
+            reader.read(mappings);
+        }
+        return mappings;
+    }
+
+    private String target(final int i) {
+        final StringBuilder source = new StringBuilder();
+        source.append("package t;\n\n");
+        source.append("public class c").append(i).append(" {\n\n");
+        for (int j = 0; j < this.members; j++) {
+            // Every other field is final, to give the cleaner some work
+            source.append(j % 2 == 0 ? "    private int f" : "    private final int f").append(j)
+                    .append(j % 2 == 0 ? ";\n" : " = " + j + ";\n");
+        }
+        for (int j = 0; j < this.members; j++) {
+            source.append("\n    public void m").append(j).append("() {\n");
+            source.append("        this.f0 = this.f").append((j + 1) % this.members).append(";\n");
+            source.append("    }\n");
+        }
+        source.append("\n    private void p(final int value) {\n    }\n\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private String mixin(final int i) {
+        final String target = "Lt/c" + i + ";";
+
+        final StringBuilder source = new StringBuilder();
+        source.append("package m;\n\n");
+        source.append("import org.spongepowered.asm.mixin.Final;\n");
+        source.append("import org.spongepowered.asm.mixin.Implements;\n");
+        source.append("import org.spongepowered.asm.mixin.Interface;\n");
+        source.append("import org.spongepowered.asm.mixin.Mixin;\n");
+        source.append("import org.spongepowered.asm.mixin.Mutable;\n");
+        source.append("import org.spongepowered.asm.mixin.Overwrite;\n");
+        source.append("import org.spongepowered.asm.mixin.Shadow;\n");
+        source.append("import org.spongepowered.asm.mixin.injection.At;\n");
+        source.append("import org.spongepowered.asm.mixin.injection.Inject;\n");
+        source.append("import org.spongepowered.asm.mixin.injection.Slice;\n");
+        source.append("import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;\n");
+        source.append("import t.a;\n");
+        source.append("import t.c").append(i).append(";\n\n");
+        source.append("@Mixin(c").append(i).append(".class)\n");
+        source.append("@Implements(@Interface(iface = a.class, prefix = \"if$\"))\n");
+        source.append("public abstract class Target").append(i).append("Mixin {\n\n");
+
+        source.append("    @Shadow\n    private int f0;\n\n");
+        source.append("    @Shadow\n    @Final\n    @Mutable\n    private int f1;\n\n");
+        source.append("    @Shadow\n    public abstract void m0();\n\n");
+
+        source.append("    @Overwrite\n");
+        source.append("    public void m").append(this.members - 1).append("() {\n");
+        source.append("        this.f0 = this.f1;\n");
+        source.append("    }\n\n");
+
+        for (int k = 0; k < this.injectors; k++) {
+            final int method = k % this.members;
+            final int next = (k + 1) % this.members;
+
+            switch (k % 3) {
+                case 0:
+                    source.append("    @Inject(method = \"m").append(method).append("\", at = @At(\"HEAD\"))\n");
+                    break;
+                case 1:
+                    source.append("    @Inject(method = \"m").append(method).append("()V\", ")
+                            .append("at = @At(value = \"INVOKE\", target = \"").append(target)
+                            .append('m').append(next).append("()V\"))\n");
+                    break;
+                default:
+                    source.append("    @Inject(method = \"m").append(method).append("\",\n");
+                    source.append("            at = @At(value = \"FIELD\", target = \"").append(target)
+                            .append('f').append(next).append(":I\"),\n");
+                    source.append("            slice = @Slice(\n");
+                    source.append("                    from = @At(value = \"INVOKE\", target = \"").append(target)
+                            .append('m').append(next).append("()V\"),\n");
+                    source.append("                    to = @At(\"TAIL\")\n");
+                    source.append("            ))\n");
+                    break;
+            }
+            source.append("    private void inject").append(k).append("(final CallbackInfo callbackInfo) {\n");
+            source.append("        this.m0();\n");
+            source.append("        this.f0 = this.f1;\n");
+            source.append("    }\n\n");
+        }
+
+        source.append("    public String if$n() {\n");
+        source.append("        return \"Target").append(i).append("\";\n");
+        source.append("    }\n\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private String accessor(final int i) {
+        return "package m;\n\n" +
+                "import org.spongepowered.asm.mixin.Mixin;\n" +
+                "import org.spongepowered.asm.mixin.gen.Accessor;\n" +
+                "import org.spongepowered.asm.mixin.gen.Invoker;\n" +
+                "import t.c" + i + ";\n\n" +
+                "@Mixin(c" + i + ".class)\n" +
+                "public interface Target" + i + "Accessor {\n\n" +
+                "    @Accessor\n    int getF0();\n\n" +
+                "    @Accessor\n    void setF0(final int value);\n\n" +
+                "    @Accessor(\"f1\")\n    int getSecond();\n\n" +
+                "    @Invoker\n    void callP(final int value);\n\n" +
+                "}\n";
+    }
+
+    private String hiddenMixin(final int i) {
+        return "package m;\n\n" +
+                "import org.spongepowered.asm.mixin.Mixin;\n" +
+                "import org.spongepowered.asm.mixin.Shadow;\n\n" +
+                "@Mixin(targets = \"t/d" + i + "\")\n" +
+                "public abstract class Hidden" + i + "Mixin {\n\n" +
+                "    @Shadow\n    private int h;\n\n" +
+                "}\n";
+    }
+
+    private static void write(final Path path, final String contents) throws IOException {
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
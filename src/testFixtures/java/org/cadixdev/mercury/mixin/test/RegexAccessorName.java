@@ -0,0 +1,89 @@
+/*
+ * This file is part of Mixin, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.cadixdev.mercury.mixin.test;
+
+import org.cadixdev.mercury.mixin.annotation.AccessorType;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The regular expression based accessor name parser, which
+ * {@link org.cadixdev.mercury.mixin.annotation.AccessorName} replaced -
+ * kept as a reference to compare against.
+ */
+public final class RegexAccessorName {
+
+    private static final Pattern PATTERN = Pattern.compile("^(" + Arrays.stream(AccessorType.values())
+            .map(AccessorType::getPrefixes)
+            .flatMap(Arrays::stream)
+            .collect(Collectors.joining("|")) + ")(([A-Z])(.*?))(_\\$md.*)?$");
+
+    /**
+     * Parses the given accessor name.
+     *
+     * @param methodName The name of the accessor method
+     * @param toMemberCase Whether to lowercase the first character of the
+     *                     name, if it isn't all upper case
+     * @return The prefix and the name, or {@code null} if the name isn't a
+     *         valid accessor name
+     */
+    public static String[] of(final String methodName, final boolean toMemberCase) {
+        final Matcher nameMatcher = PATTERN.matcher(methodName);
+        if (nameMatcher.matches()) {
+            final String prefix = nameMatcher.group(1);
+            final String namePart = nameMatcher.group(2);
+            final String firstChar = nameMatcher.group(3);
+            final String remainder = nameMatcher.group(4);
+            final boolean nameIsUpperCase = namePart.toUpperCase(Locale.ROOT).equals(namePart);
+            // If the entire name is upper case, do not lowercase the first char
+            final String name = String.format("%s%s", toMemberCase && !nameIsUpperCase ?
+                    firstChar.toLowerCase(Locale.ROOT) : firstChar, remainder);
+            return new String[]{prefix, name};
+        }
+        return null;
+    }
+
+    /**
+     * Applies the given prefix to a name.
+     *
+     * @param prefix The accessor prefix
+     * @param name The name
+     * @return The prefixed name
+     */
+    public static String prefix(final String prefix, final String name) {
+        final String firstChar = name.substring(0, 1);
+        final String remainder = name.substring(1);
+        return prefix + firstChar.toUpperCase(Locale.ROOT) + remainder;
+    }
+
+    private RegexAccessorName() {
+    }
+
+}